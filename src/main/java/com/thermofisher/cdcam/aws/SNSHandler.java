@@ -3,23 +3,98 @@ package com.thermofisher.cdcam.aws;
 import com.amazonaws.auth.InstanceProfileCredentialsProvider;
 import com.amazonaws.services.sns.AmazonSNS;
 import com.amazonaws.services.sns.AmazonSNSClient;
+import com.amazonaws.services.sns.model.BatchResultErrorEntry;
 import com.amazonaws.services.sns.model.MessageAttributeValue;
+import com.amazonaws.services.sns.model.PublishBatchRequest;
+import com.amazonaws.services.sns.model.PublishBatchRequestEntry;
+import com.amazonaws.services.sns.model.PublishBatchResult;
 import com.amazonaws.services.sns.model.PublishRequest;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Publishes SNS notifications through a single long-lived client. When asynchronous publishing is enabled, messages are
+ * queued per topic and sent in the background with PublishBatch, up to ten per request, so callers do not wait for
+ * the SNS round trip. Failed entries are retried; when a topic queue is full the message is published synchronously.
+ */
 @Service
 @Slf4j
-public class SNSHandler {
+public class SNSHandler implements MeterBinder {
+    private static final int MAX_BATCH_SIZE = 10;
+    private final Map<String, TopicQueue> topicQueues = new ConcurrentHashMap<>();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong publishRequests = new AtomicLong();
+    private final AtomicLong publishNanos = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong synchronousFallbacks = new AtomicLong();
+    private volatile boolean isShuttingDown = false;
+    AmazonSNS snsClient;
+    Executor publisherExecutor;
 
     @Value("${aws.sns.client.region}")
     private String region;
 
+    @Value("${aws.sns.async.enabled:false}")
+    boolean isAsyncEnabled;
+
+    @Value("${aws.sns.async.queue-capacity:1000}")
+    int queueCapacity;
+
+    @Value("${aws.sns.async.max-attempts:3}")
+    int maxAttempts;
+
+    @Value("${aws.sns.async.retry-backoff-ms:200}")
+    long retryBackoffMillis;
+
+    @PostConstruct
+    public void init() {
+        snsClient = AmazonSNSClient.builder()
+                .withRegion(region)
+                .withCredentials(new InstanceProfileCredentialsProvider(false))
+                .build();
+        publisherExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sns-publisher-", 0).factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        isShuttingDown = true;
+        topicQueues.forEach((snsTopic, topicQueue) -> drain(snsTopic, topicQueue));
+        if (publisherExecutor instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn(String.format("SNS publisher executor did not close cleanly. %s", e.getMessage()));
+            }
+        }
+        if (snsClient != null) {
+            snsClient.shutdown();
+        }
+    }
 
     public void sendNotification(@NotBlank String message, @NotBlank String snsTopic) {
         publishNotification(message, snsTopic, null);
@@ -29,7 +104,31 @@ public class SNSHandler {
         publishNotification(message, snsTopic, messageAttributes);
     }
 
+    public int getQueuedMessages() {
+        return topicQueues.values().stream().mapToInt(topicQueue -> topicQueue.messages.size()).sum();
+    }
+
     private void publishNotification(@NotBlank String message, @NotBlank String snsTopic, @NotNull Map<String, MessageAttributeValue> messageAttributes) {
+        if (isAsyncEnabled && !isShuttingDown) {
+            TopicQueue topicQueue = topicQueues.computeIfAbsent(snsTopic, topic -> new TopicQueue(queueCapacity));
+            PendingMessage pendingMessage = new PendingMessage(UUID.randomUUID().toString(), message, messageAttributes);
+            if (topicQueue.messages.offer(pendingMessage)) {
+                log.info(String.format("SNS message %s queued for topic: %s", pendingMessage.id(), snsTopic));
+                scheduleDrain(snsTopic, topicQueue);
+                return;
+            }
+
+            synchronousFallbacks.incrementAndGet();
+            log.warn(String.format("SNS queue for topic %s is full. Publishing synchronously.", snsTopic));
+        }
+
+        publishSynchronously(message, snsTopic, messageAttributes);
+    }
+
+    /**
+     * Publishes a message right away, bypassing the topic queues, and throws when SNS rejects it.
+     */
+    public void publishSynchronously(@NotBlank String message, @NotBlank String snsTopic, Map<String, MessageAttributeValue> messageAttributes) {
         log.info(String.format("Posting SNS message to topic: %s", snsTopic));
 
         final PublishRequest request = new PublishRequest(snsTopic, message);
@@ -38,11 +137,140 @@ public class SNSHandler {
             request.withMessageAttributes(messageAttributes);
         }
 
-        AmazonSNS snsClient = AmazonSNSClient.builder()
-                .withRegion(region)
-                .withCredentials(new InstanceProfileCredentialsProvider(false))
-                .build();
-
+        long start = System.nanoTime();
         snsClient.publish(request);
+        recordPublish(1, start);
+    }
+
+    private void scheduleDrain(String snsTopic, TopicQueue topicQueue) {
+        if (!topicQueue.isDraining.compareAndSet(false, true)) return;
+
+        publisherExecutor.execute(() -> {
+            try {
+                drain(snsTopic, topicQueue);
+            } finally {
+                topicQueue.isDraining.set(false);
+            }
+            if (!topicQueue.messages.isEmpty()) {
+                scheduleDrain(snsTopic, topicQueue);
+            }
+        });
+    }
+
+    private void drain(String snsTopic, TopicQueue topicQueue) {
+        List<PendingMessage> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (topicQueue.messages.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+            publishBatch(snsTopic, batch);
+            batch.clear();
+        }
+    }
+
+    private void publishBatch(String snsTopic, List<PendingMessage> batch) {
+        Map<String, PendingMessage> pending = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            pending.put(String.valueOf(i), batch.get(i));
+        }
+
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            if (attempt > 1) {
+                retried.addAndGet(pending.size());
+                pause(retryBackoffMillis * (attempt - 1));
+            }
+
+            try {
+                long start = System.nanoTime();
+                PublishBatchResult result = snsClient.publishBatch(buildBatchRequest(snsTopic, pending));
+                recordPublish(result.getSuccessful().size(), start);
+                result.getSuccessful().forEach(entry -> pending.remove(entry.getId()));
+
+                for (BatchResultErrorEntry error : result.getFailed()) {
+                    PendingMessage message = pending.get(error.getId());
+                    if (message != null && error.isSenderFault()) {
+                        pending.remove(error.getId());
+                        reportFailure(snsTopic, message, String.format("%s: %s", error.getCode(), error.getMessage()));
+                    } else {
+                        log.warn(String.format("SNS message to topic %s failed on attempt %d. %s: %s", snsTopic, attempt, error.getCode(), error.getMessage()));
+                    }
+                }
+            } catch (Exception e) {
+                log.warn(String.format("SNS batch publish to topic %s failed on attempt %d. %s", snsTopic, attempt, e.getMessage()));
+            }
+
+            if (attempt >= maxAttempts && !pending.isEmpty()) {
+                pending.values().forEach(message -> reportFailure(snsTopic, message, String.format("Not published after %d attempts.", maxAttempts)));
+                pending.clear();
+            }
+        }
+    }
+
+    private PublishBatchRequest buildBatchRequest(String snsTopic, Map<String, PendingMessage> pending) {
+        List<PublishBatchRequestEntry> entries = new ArrayList<>(pending.size());
+        pending.forEach((id, message) -> {
+            PublishBatchRequestEntry entry = new PublishBatchRequestEntry()
+                    .withId(id)
+                    .withMessage(message.message());
+            if (message.messageAttributes() != null) {
+                entry.withMessageAttributes(message.messageAttributes());
+            }
+            entries.add(entry);
+        });
+
+        return new PublishBatchRequest()
+                .withTopicArn(snsTopic)
+                .withPublishBatchRequestEntries(entries);
+    }
+
+    private void reportFailure(String snsTopic, PendingMessage message, String reason) {
+        failed.incrementAndGet();
+        log.error(String.format("SNS message %s to topic %s could not be published. Reason: %s", message.id(), snsTopic, reason));
+    }
+
+    private void recordPublish(int messages, long start) {
+        publishRequests.incrementAndGet();
+        published.addAndGet(messages);
+        publishNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    private void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("aws.sns.queue.depth", this, SNSHandler::getQueuedMessages)
+                .description("SNS messages waiting to be published")
+                .register(registry);
+        FunctionTimer.builder("aws.sns.publish", this, handler -> handler.publishRequests.get(),
+                        handler -> handler.publishNanos.get(), TimeUnit.NANOSECONDS)
+                .description("SNS publish requests and their accumulated latency")
+                .register(registry);
+        FunctionCounter.builder("aws.sns.messages.published", published, AtomicLong::get)
+                .description("SNS messages published")
+                .register(registry);
+        FunctionCounter.builder("aws.sns.messages.retried", retried, AtomicLong::get)
+                .description("SNS messages sent again after a failed attempt")
+                .register(registry);
+        FunctionCounter.builder("aws.sns.messages.failed", failed, AtomicLong::get)
+                .description("SNS messages dropped after exhausting their attempts")
+                .register(registry);
+        FunctionCounter.builder("aws.sns.messages.sync-fallback", synchronousFallbacks, AtomicLong::get)
+                .description("SNS messages published synchronously because their topic queue was full")
+                .register(registry);
+    }
+
+    private static class TopicQueue {
+        private final BlockingQueue<PendingMessage> messages;
+        private final AtomicBoolean isDraining = new AtomicBoolean(false);
+
+        TopicQueue(int capacity) {
+            this.messages = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        }
+    }
+
+    private record PendingMessage(String id, String message, Map<String, MessageAttributeValue> messageAttributes) {
     }
 }
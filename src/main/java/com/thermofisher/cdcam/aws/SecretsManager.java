@@ -8,6 +8,8 @@ import com.amazonaws.services.secretsmanager.model.GetSecretValueResult;
 import com.amazonaws.services.secretsmanager.model.InvalidParameterException;
 import com.amazonaws.services.secretsmanager.model.InvalidRequestException;
 import com.amazonaws.services.secretsmanager.model.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -20,15 +22,35 @@ import java.util.Base64;
 @Slf4j
 public class SecretsManager {
 
+    private AWSSecretsManager client;
+
     @Value("${aws.sns.client.region}")
     private String region;
 
-    public String getSecret(String secretName) {
-        AWSSecretsManager client = AWSSecretsManagerClientBuilder.standard()
+    @PostConstruct
+    public void init() {
+        client = AWSSecretsManagerClientBuilder.standard()
                 .withRegion(region)
                 .withCredentials(new InstanceProfileCredentialsProvider(false))
                 .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (client != null) {
+            client.shutdown();
+        }
+    }
 
+    public String getSecret(String secretName) {
+        return getSecretVersion(secretName).value();
+    }
+
+    /**
+     * Retrieves the current version of the secret along with its version id, which changes every time the secret
+     * is rotated.
+     */
+    public SecretVersion getSecretVersion(String secretName) {
         GetSecretValueRequest getSecretValueRequest = new GetSecretValueRequest()
                 .withSecretId(secretName);
 
@@ -47,16 +69,19 @@ public class SecretsManager {
             throw e;
         }
 
-        log.info(String.format("Secret retrieved successfully: %s", secretName));
+        log.info(String.format("Secret retrieved successfully: %s. Version: %s", secretName, getSecretValueResult.getVersionId()));
 
         if (getSecretValueResult.getSecretString() != null) {
-            return getSecretValueResult.getSecretString();
+            return new SecretVersion(getSecretValueResult.getVersionId(), getSecretValueResult.getSecretString());
         } else {
-            return new String(Base64.getDecoder().decode(getSecretValueResult.getSecretBinary()).array());
+            return new SecretVersion(getSecretValueResult.getVersionId(), new String(Base64.getDecoder().decode(getSecretValueResult.getSecretBinary()).array()));
         }
     }
 
     public String getProperty(JSONObject secretProperties, String property) throws JSONException {
         return secretProperties.get(property).toString();
     }
+
+    public record SecretVersion(String versionId, String value) {
+    }
 }
@@ -8,8 +8,10 @@ import com.gigya.socialize.GSObject;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.thermofisher.cdcam.model.AccountInfo;
+import com.thermofisher.cdcam.model.cdc.CDCAccount;
 import com.thermofisher.cdcam.model.cdc.Korea;
 import com.thermofisher.cdcam.model.cdc.Preferences;
+import com.thermofisher.cdcam.model.cdc.Profile;
 import com.thermofisher.cdcam.model.cdc.Registration;
 import com.thermofisher.cdcam.model.cdc.Thermofisher;
 import com.thermofisher.cdcam.model.dto.AccountInfoDTO;
@@ -29,8 +31,8 @@ public class AccountBuilder {
         String uid = null;
         try {
             uid = (String) obj.get("UID");
-            GSObject data = (GSObject) obj.get("data");
-            GSObject profile = (GSObject) obj.get("profile");
+            GSObject data = getObject(obj, "data");
+            GSObject profile = getObject(obj, "profile");
             GSObject work = profile.containsKey("work") ? (GSObject) profile.get("work") : null;
             String email = profile.containsKey("email") ? profile.getString("email") : "";
             GSObject password = obj.containsKey("password") ? (GSObject) obj.get("password") : null;
@@ -95,8 +97,8 @@ public class AccountBuilder {
         String uid = null;
         try {
             uid = (String) obj.get("UID");
-            GSObject data = (GSObject) obj.get("data");
-            GSObject profile = (GSObject) obj.get("profile");
+            GSObject data = getObject(obj, "data");
+            GSObject profile = getObject(obj, "profile");
             GSObject work = profile.containsKey("work") ? (GSObject) profile.get("work") : null;
             String email = profile.containsKey("email") ? profile.getString("email") : "";
             GSObject password = obj.containsKey("password") ? (GSObject) obj.get("password") : null;
@@ -163,6 +165,13 @@ public class AccountBuilder {
         }
     }
 
+    /**
+     * Projected reads leave out whole sections of the account, so a missing section is read as an empty one.
+     */
+    private static GSObject getObject(GSObject obj, String key) throws GSKeyNotFoundException {
+        return obj.containsKey(key) ? (GSObject) obj.get(key) : new GSObject();
+    }
+
     private static Registration getRegistration(GSObject data) throws JsonSyntaxException, GSKeyNotFoundException {
         Gson gson = new Gson();
         if (data.containsKey("registration")) {
@@ -244,4 +253,22 @@ public class AccountBuilder {
             .build();
 
     }
+
+    /**
+     * Builds the account details email notifications need from a search result selecting
+     * {@code AccountProjection.NOTIFICATION}, so no further account lookup is needed.
+     */
+    public static AccountInfo buildNotificationAccount(CDCAccount account) {
+        Profile profile = account.getProfile() != null ? account.getProfile() : Profile.builder().build();
+        String email = StringUtils.defaultString(profile.getEmail());
+        return AccountInfo.builder()
+            .uid(account.getUID())
+            .username(StringUtils.isNotBlank(profile.getUsername()) ? profile.getUsername() : email)
+            .emailAddress(email)
+            .firstName(StringUtils.defaultString(profile.getFirstName()))
+            .lastName(StringUtils.defaultString(profile.getLastName()))
+            .country(StringUtils.defaultString(profile.getCountry()))
+            .localeName(StringUtils.defaultString(profile.getLocale()))
+            .build();
+    }
 }
@@ -0,0 +1,59 @@
+package com.thermofisher.cdcam.builders;
+
+import com.gigya.socialize.GSObject;
+import com.gigya.socialize.GSRequest;
+import com.gigya.socialize.GSResponse;
+import com.thermofisher.cdcam.enums.cdc.GigyaCodes;
+import com.thermofisher.cdcam.properties.CDCTransportProperties;
+import com.thermofisher.cdcam.utils.cdc.CDCTransportStats;
+
+/**
+ * {@link GSRequest} that applies the per-method timeouts from {@link CDCTransportProperties}
+ * and records per data center statistics in {@link CDCTransportStats}. The SDK retries timestamp-skew errors by
+ * calling {@link #send()} again from within {@link #send(int)}; those nested calls keep the caller's timeout and are
+ * not recorded a second time.
+ */
+public class CDCRequest extends GSRequest {
+    private int activeTimeoutMS = -1;
+
+    public CDCRequest(String apiKey, String secretKey, String apiMethod, boolean useHTTPS) {
+        super(apiKey, secretKey, apiMethod, useHTTPS);
+    }
+
+    public CDCRequest(String apiKey, String secretKey, String apiMethod, GSObject params, boolean useHTTPS) {
+        super(apiKey, secretKey, apiMethod, params, useHTTPS);
+    }
+
+    @Override
+    public GSResponse send() {
+        return send(isSending() ? activeTimeoutMS : CDCTransportProperties.getTimeout(getMethod()));
+    }
+
+    @Override
+    public GSResponse send(int timeoutMS) {
+        if (isSending()) {
+            return super.send(timeoutMS);
+        }
+
+        CDCTransportStats.DataCenterStats stats = CDCTransportStats.forDataCenter(apiDomain);
+        int errorCode = GigyaCodes.GENERAL_SERVER_ERROR.getValue();
+        long start = System.nanoTime();
+        stats.requestStarted();
+        activeTimeoutMS = timeoutMS;
+
+        try {
+            GSResponse response = super.send(timeoutMS);
+            if (response != null) {
+                errorCode = response.getErrorCode();
+            }
+            return response;
+        } finally {
+            activeTimeoutMS = -1;
+            stats.requestCompleted(System.nanoTime() - start, errorCode);
+        }
+    }
+
+    private boolean isSending() {
+        return activeTimeoutMS >= 0;
+    }
+}
@@ -7,13 +7,13 @@ public class GSRequestFactory {
     private static boolean useHTTPS = true;
 
     public static GSRequest create(String apiKey, String secretKey, String apiDomain, String apiMethod) {
-        GSRequest request = new GSRequest(apiKey, secretKey, apiMethod, useHTTPS);
+        GSRequest request = new CDCRequest(apiKey, secretKey, apiMethod, useHTTPS);
         request.setAPIDomain(apiDomain);
         return request;
     }
 
     public static GSRequest createWithParams(String apiKey, String secretKey, String apiDomain, String apiMethod, GSObject params) {
-        GSRequest request = new GSRequest(apiKey, secretKey, apiMethod, params, useHTTPS);
+        GSRequest request = new CDCRequest(apiKey, secretKey, apiMethod, params, useHTTPS);
         request.setAPIDomain(apiDomain);
         return request;
     }
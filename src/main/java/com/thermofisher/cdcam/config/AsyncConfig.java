@@ -0,0 +1,195 @@
+package com.thermofisher.cdcam.config;
+
+import com.thermofisher.cdcam.utils.MdcTaskDecorator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enables {@code @Async} and defines the executors behind it. Each executor runs a bounded pool of virtual threads
+ * with a bounded queue. The MDC is propagated to the workers and queued tasks are drained on shutdown. When the
+ * queue is full the task runs on the caller's thread, so webhook work slows down instead of being dropped.
+ */
+@Slf4j
+@EnableAsync
+@Configuration
+public class AsyncConfig implements AsyncConfigurer {
+    public static final String WEBHOOK_EXECUTOR = "webhookExecutor";
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+    public static final String STREAMING_EXECUTOR = "streamingExecutor";
+    public static final String SIDE_EFFECT_EXECUTOR = "sideEffectExecutor";
+    public static final String REMOTE_CALL_EXECUTOR = "remoteCallExecutor";
+
+    private final AtomicLong webhookRejections = new AtomicLong();
+    private final AtomicLong emailRejections = new AtomicLong();
+    private final AtomicLong streamingRejections = new AtomicLong();
+    private final AtomicLong sideEffectRejections = new AtomicLong();
+    private final AtomicLong remoteCallRejections = new AtomicLong();
+
+    @Value("${async.webhook.pool-size:16}")
+    private int webhookPoolSize;
+
+    @Value("${async.webhook.queue-capacity:500}")
+    private int webhookQueueCapacity;
+
+    @Value("${async.email.pool-size:8}")
+    private int emailPoolSize;
+
+    @Value("${async.email.queue-capacity:500}")
+    private int emailQueueCapacity;
+
+    @Value("${async.streaming.pool-size:16}")
+    private int streamingPoolSize;
+
+    @Value("${async.streaming.queue-capacity:16}")
+    private int streamingQueueCapacity;
+
+    @Value("${async.side-effect.pool-size:16}")
+    private int sideEffectPoolSize;
+
+    @Value("${async.side-effect.queue-capacity:500}")
+    private int sideEffectQueueCapacity;
+
+    @Value("${async.remote-call.pool-size:16}")
+    private int remoteCallPoolSize;
+
+    @Value("${async.remote-call.queue-capacity:100}")
+    private int remoteCallQueueCapacity;
+
+    @Value("${async.shutdown-timeout:PT30S}")
+    private Duration shutdownTimeout;
+
+    @Bean(name = WEBHOOK_EXECUTOR)
+    public ThreadPoolTaskExecutor webhookExecutor() {
+        return buildExecutor("webhook-", webhookPoolSize, webhookQueueCapacity, webhookRejections);
+    }
+
+    @Bean(name = EMAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor emailExecutor() {
+        return buildExecutor("email-", emailPoolSize, emailQueueCapacity, emailRejections);
+    }
+
+    @Bean(name = STREAMING_EXECUTOR)
+    public ThreadPoolTaskExecutor streamingExecutor() {
+        return buildExecutor("streaming-", streamingPoolSize, streamingQueueCapacity, streamingRejections);
+    }
+
+    /**
+     * Runs the notifications and other side effects that requests fire after responding, apart from the CDC calls.
+     */
+    @Bean(name = SIDE_EFFECT_EXECUTOR)
+    public ThreadPoolTaskExecutor sideEffectExecutor() {
+        return buildExecutor("side-effect-", sideEffectPoolSize, sideEffectQueueCapacity, sideEffectRejections);
+    }
+
+    /**
+     * Runs the calls to services other than CDC that a request starts ahead and waits for, so they do not hold CDC
+     * executor permits.
+     */
+    @Bean(name = REMOTE_CALL_EXECUTOR)
+    public ThreadPoolTaskExecutor remoteCallExecutor() {
+        return buildExecutor("remote-call-", remoteCallPoolSize, remoteCallQueueCapacity, remoteCallRejections);
+    }
+
+    /**
+     * Runs the streamed responses of Spring MVC ({@code StreamingResponseBody}) on the streaming executor. Without it
+     * every stream would get a new unbounded thread, because the CDC executor bean keeps Boot from creating its
+     * default task executor.
+     */
+    @Bean
+    public WebMvcConfigurer asyncSupportConfigurer(@Qualifier(STREAMING_EXECUTOR) ThreadPoolTaskExecutor streamingExecutor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(streamingExecutor);
+            }
+        };
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return webhookExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (throwable, method, params) -> log.error(String.format("Async method %s failed. Params: %s. Error: %s",
+                method.getName(), Arrays.toString(params), throwable.getMessage()));
+    }
+
+    @Bean
+    public MeterBinder asyncExecutorMetrics(@Qualifier(WEBHOOK_EXECUTOR) ThreadPoolTaskExecutor webhookExecutor,
+                                            @Qualifier(EMAIL_EXECUTOR) ThreadPoolTaskExecutor emailExecutor,
+                                            @Qualifier(STREAMING_EXECUTOR) ThreadPoolTaskExecutor streamingExecutor,
+                                            @Qualifier(SIDE_EFFECT_EXECUTOR) ThreadPoolTaskExecutor sideEffectExecutor,
+                                            @Qualifier(REMOTE_CALL_EXECUTOR) ThreadPoolTaskExecutor remoteCallExecutor) {
+        return registry -> {
+            bindExecutorMetrics(registry, "webhook", webhookExecutor, webhookRejections);
+            bindExecutorMetrics(registry, "email", emailExecutor, emailRejections);
+            bindExecutorMetrics(registry, "streaming", streamingExecutor, streamingRejections);
+            bindExecutorMetrics(registry, "side-effect", sideEffectExecutor, sideEffectRejections);
+            bindExecutorMetrics(registry, "remote-call", remoteCallExecutor, remoteCallRejections);
+        };
+    }
+
+    private ThreadPoolTaskExecutor buildExecutor(String threadNamePrefix, int poolSize, int queueCapacity, AtomicLong rejections) {
+        log.info(String.format("Async executor %s configured. Pool size: %d. Queue capacity: %d.", threadNamePrefix, poolSize, queueCapacity));
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.setRejectedExecutionHandler(countingCallerRuns(threadNamePrefix, rejections));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(shutdownTimeout.toMillis());
+        return executor;
+    }
+
+    private static RejectedExecutionHandler countingCallerRuns(String threadNamePrefix, AtomicLong rejections) {
+        RejectedExecutionHandler callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
+        return (task, executor) -> {
+            rejections.incrementAndGet();
+            log.warn(String.format("Async executor %s is saturated. Running the task on the caller's thread.", threadNamePrefix));
+            callerRuns.rejectedExecution(task, executor);
+        };
+    }
+
+    private static void bindExecutorMetrics(MeterRegistry registry, String name, ThreadPoolTaskExecutor executor, AtomicLong rejections) {
+        Gauge.builder("async.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("name", name)
+                .description("Async tasks currently running")
+                .register(registry);
+        Gauge.builder("async.executor.queued", executor, taskExecutor -> taskExecutor.getThreadPoolExecutor().getQueue().size())
+                .tag("name", name)
+                .description("Async tasks waiting for a free worker")
+                .register(registry);
+        Gauge.builder("async.executor.max", executor, ThreadPoolTaskExecutor::getMaxPoolSize)
+                .tag("name", name)
+                .description("Maximum async tasks running at the same time")
+                .register(registry);
+        FunctionCounter.builder("async.executor.rejected", rejections, AtomicLong::get)
+                .tag("name", name)
+                .description("Async tasks run on the caller's thread because the queue was full")
+                .register(registry);
+    }
+}
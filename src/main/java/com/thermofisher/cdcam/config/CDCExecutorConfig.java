@@ -0,0 +1,46 @@
+package com.thermofisher.cdcam.config;
+
+import com.thermofisher.cdcam.utils.BoundedExecutor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Configuration
+public class CDCExecutorConfig {
+    public static final String CDC_EXECUTOR = "cdcExecutor";
+
+    @Value("${cdc.async.max-concurrency:64}")
+    private int maxConcurrency;
+
+    /**
+     * Executor backing the asynchronous CDC calls. Each call runs on a virtual thread, so blocking on the CDC
+     * round trip does not hold a platform thread, and at most {@code cdc.async.max-concurrency} calls are in flight.
+     */
+    @Bean(name = CDC_EXECUTOR, destroyMethod = "close")
+    public BoundedExecutor cdcExecutor() {
+        log.info(String.format("CDC executor configured. Max concurrency: %d.", maxConcurrency));
+        return new BoundedExecutor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cdc-", 0).factory()), maxConcurrency);
+    }
+
+    @Bean
+    public MeterBinder cdcExecutorMetrics(@Qualifier(CDC_EXECUTOR) BoundedExecutor cdcExecutor) {
+        return registry -> {
+            Gauge.builder("cdc.executor.active", cdcExecutor, BoundedExecutor::getActiveCount)
+                    .description("CDC calls currently running")
+                    .register(registry);
+            Gauge.builder("cdc.executor.queued", cdcExecutor, BoundedExecutor::getQueuedCount)
+                    .description("CDC calls waiting for a free slot")
+                    .register(registry);
+            Gauge.builder("cdc.executor.max", cdcExecutor, BoundedExecutor::getMaxConcurrency)
+                    .description("Maximum CDC calls in flight")
+                    .register(registry);
+        };
+    }
+}
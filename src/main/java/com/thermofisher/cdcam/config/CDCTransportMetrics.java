@@ -0,0 +1,67 @@
+package com.thermofisher.cdcam.config;
+
+import com.thermofisher.cdcam.properties.CDCTransportProperties;
+import com.thermofisher.cdcam.utils.cdc.CDCTransportStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the CDC transport statistics of each configured data center through the actuator metrics endpoint.
+ */
+@Component
+public class CDCTransportMetrics implements MeterBinder {
+
+    @Value("${cdc.main.datacenter}")
+    private String mainApiDomain;
+
+    @Value("${cdc.secondary.datacenter}")
+    private String secondaryApiDomain;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindDataCenter(registry, mainApiDomain);
+        if (StringUtils.isNotBlank(secondaryApiDomain)) {
+            bindDataCenter(registry, secondaryApiDomain);
+        }
+    }
+
+    private void bindDataCenter(MeterRegistry registry, String apiDomain) {
+        CDCTransportStats.DataCenterStats stats = CDCTransportStats.forDataCenter(apiDomain);
+        Tags tags = Tags.of("datacenter", apiDomain);
+
+        Gauge.builder("cdc.transport.connections.active", stats, CDCTransportStats.DataCenterStats::getActiveRequests)
+                .description("CDC requests currently holding a connection")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("cdc.transport.connections.peak", stats, CDCTransportStats.DataCenterStats::getPeakActiveRequests)
+                .description("Highest number of concurrent CDC requests observed")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("cdc.transport.connections.max.idle", CDCTransportProperties::getMaxConnectionsPerDataCenter)
+                .description("Keep-alive connections kept per data center")
+                .tags(tags)
+                .register(registry);
+        FunctionTimer.builder("cdc.transport.requests", stats, CDCTransportStats.DataCenterStats::getRequests,
+                        CDCTransportStats.DataCenterStats::getTotalLatencyMillis, TimeUnit.MILLISECONDS)
+                .description("CDC requests and their accumulated latency")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("cdc.transport.errors", stats, CDCTransportStats.DataCenterStats::getErrors)
+                .description("CDC requests that returned an error code")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("cdc.transport.timeouts", stats, CDCTransportStats.DataCenterStats::getTimeouts)
+                .description("CDC requests that exceeded their timeout")
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,14 @@
+package com.thermofisher.cdcam.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the Spring Boot cache auto-configuration. Caches are declared in {@code spring.cache.cache-names}
+ * and configured through {@code spring.cache.caffeine.spec}; their statistics are published as cache metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String ACCOUNT_INFO_CACHE = "accountInfo";
+}
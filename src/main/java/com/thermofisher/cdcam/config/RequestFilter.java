@@ -1,11 +1,16 @@
 package com.thermofisher.cdcam.config;
 
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StopWatch;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,6 +23,7 @@ import java.util.UUID;
 @Slf4j
 public class RequestFilter extends OncePerRequestFilter {
     private final String REQUEST_ID_RESPONSE_HEADER = "X-Request-ID";
+    private static final String ACCOUNT_EXPORT_PATH = "/admin/accounts/export";
 
     public void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
         UUID uniqueId = UUID.randomUUID();
@@ -30,14 +36,67 @@ public class RequestFilter extends OncePerRequestFilter {
         log.info("Request initiated for path: '{}'", request.getRequestURI());
         log.info("Request content type is {}", request.getContentType());
 
-        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
-        chain.doFilter(request, responseWrapper);
-        responseWrapper.setHeader(REQUEST_ID_RESPONSE_HEADER, uniqueId.toString());
-        responseWrapper.copyBodyToResponse();
+        if (isStreamingRequest(request)) {
+            // Streamed responses must reach the client as they are written, so they are not buffered.
+            response.setHeader(REQUEST_ID_RESPONSE_HEADER, uniqueId.toString());
+            chain.doFilter(request, response);
+        } else {
+            ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+            chain.doFilter(request, responseWrapper);
+            responseWrapper.setHeader(REQUEST_ID_RESPONSE_HEADER, uniqueId.toString());
+            responseWrapper.copyBodyToResponse();
+        }
 
-        log.info("{} response header value: {}", REQUEST_ID_RESPONSE_HEADER, responseWrapper.getHeader(REQUEST_ID_RESPONSE_HEADER));
-        stopWatch.stop();
-        log.info("Request completed for path: '{}'. Response Status: {}. Took: {} ms", request.getRequestURI(), response.getStatus(), stopWatch.getLastTaskTimeMillis());
+        log.info("{} response header value: {}", REQUEST_ID_RESPONSE_HEADER, response.getHeader(REQUEST_ID_RESPONSE_HEADER));
+        if (request.isAsyncStarted()) {
+            // Streamed responses are still being written on another thread, so completion is logged when they end.
+            request.getAsyncContext().addListener(new CompletionListener(request.getRequestURI(), uniqueId.toString(), stopWatch));
+        } else {
+            logCompletion(request.getRequestURI(), response.getStatus(), stopWatch);
+        }
         MDC.clear();
     }
-}
\ No newline at end of file
+
+    private static void logCompletion(String path, int status, StopWatch stopWatch) {
+        stopWatch.stop();
+        log.info("Request completed for path: '{}'. Response Status: {}. Took: {} ms", path, status, stopWatch.getLastTaskTimeMillis());
+    }
+
+    private boolean isStreamingRequest(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return (accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE))
+                || request.getRequestURI().endsWith(ACCOUNT_EXPORT_PATH);
+    }
+
+    @RequiredArgsConstructor
+    private class CompletionListener implements AsyncListener {
+        private final String path;
+        private final String requestId;
+        private final StopWatch stopWatch;
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            MDC.put(REQUEST_ID_RESPONSE_HEADER, requestId);
+            try {
+                HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+                logCompletion(path, response.getStatus(), stopWatch);
+            } finally {
+                MDC.remove(REQUEST_ID_RESPONSE_HEADER);
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            log.warn("Request timed out for path: '{}'. Request ID: {}", path, requestId);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            log.warn("Request failed for path: '{}'. Request ID: {}. Error: {}", path, requestId, event.getThrowable() == null ? "" : event.getThrowable().getMessage());
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.thermofisher.cdcam.config;
 
+import com.thermofisher.cdcam.utils.Utils;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.binary.Base64;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,11 +17,16 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.springframework.security.config.Customizer.withDefaults;
 
+@Slf4j
 @Configuration
 @EnableWebSecurity
 public class WebSecurityConfig {
+    private static final String ADMIN_ROLE = "ADMIN";
 
     private static final String[] REQ_AUTHENTICATION = {
             "/api-docs/**",
@@ -27,6 +35,16 @@ public class WebSecurityConfig {
             "/swagger-ui.html",
             "/swagger/**"
     };
+    private static final String[] REQ_ADMIN = {
+            "/admin/**"
+    };
+
+    @Value("${admin.username:cdcam-admin}")
+    String adminUsername;
+
+    @Value("${admin.password:}")
+    String adminPassword;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         // Configure AuthenticationManagerBuilder
@@ -35,6 +53,7 @@ public class WebSecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
 
                 .authorizeHttpRequests((authz) -> authz
+                        .requestMatchers(REQ_ADMIN).hasRole(ADMIN_ROLE)
                         .requestMatchers(REQ_AUTHENTICATION).authenticated()
                         .requestMatchers("/**").permitAll())
                 .sessionManagement((session) -> session
@@ -49,7 +68,18 @@ public class WebSecurityConfig {
                         encode(new String(new Base64().decode("dGhlcm1vZmlzaGVyQGFwaQ=="))))
                 .roles("USER")
                 .build();
-        return new InMemoryUserDetailsManager(user);
+        List<UserDetails> users = new ArrayList<>(List.of(user));
+
+        // The admin endpoints are only reachable when an admin password is provided through the environment.
+        if (Utils.isNullOrEmpty(adminPassword)) {
+            log.warn("No admin password is configured. The admin endpoints are disabled.");
+        } else {
+            users.add(User.withUsername(adminUsername)
+                    .password(passwordEncoder().encode(adminPassword))
+                    .roles(ADMIN_ROLE)
+                    .build());
+        }
+        return new InMemoryUserDetailsManager(users);
     }
     @Bean
     public PasswordEncoder passwordEncoder() {
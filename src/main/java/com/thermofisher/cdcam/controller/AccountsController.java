@@ -2,6 +2,7 @@ package com.thermofisher.cdcam.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.thermofisher.cdcam.builders.AccountBuilder;
+import com.thermofisher.cdcam.config.AsyncConfig;
 import com.thermofisher.cdcam.enums.InviteSource;
 import com.thermofisher.cdcam.enums.RegistrationType;
 import com.thermofisher.cdcam.enums.ResponseCode;
@@ -16,7 +17,6 @@ import com.thermofisher.cdcam.model.UserTimezone;
 import com.thermofisher.cdcam.model.cdc.CDCResponse;
 import com.thermofisher.cdcam.model.cdc.CDCResponseData;
 import com.thermofisher.cdcam.model.cdc.CustomGigyaErrorException;
-import com.thermofisher.cdcam.model.cdc.JWTPublicKey;
 import com.thermofisher.cdcam.model.dto.AccountInfoDTO;
 import com.thermofisher.cdcam.model.dto.CIPAuthDataDTO;
 import com.thermofisher.cdcam.model.dto.ChangePasswordDTO;
@@ -33,12 +33,14 @@ import com.thermofisher.cdcam.services.DataProtectionService;
 import com.thermofisher.cdcam.services.EmailVerificationService;
 import com.thermofisher.cdcam.services.GigyaService;
 import com.thermofisher.cdcam.services.InvitationService;
+import com.thermofisher.cdcam.services.JWTPublicKeyService;
 import com.thermofisher.cdcam.services.JWTService;
-import com.thermofisher.cdcam.services.JWTValidator;
 import com.thermofisher.cdcam.services.NotificationService;
 import com.thermofisher.cdcam.services.ReCaptchaService;
 import com.thermofisher.cdcam.services.SecretsService;
 import com.thermofisher.cdcam.services.UpdateAccountService;
+import com.thermofisher.cdcam.services.WebhookDeduplicationService;
+import com.thermofisher.cdcam.services.WebhookEventCoalescer;
 import com.thermofisher.cdcam.services.hashing.HashingService;
 import com.thermofisher.cdcam.utils.PasswordUtils;
 import com.thermofisher.cdcam.utils.Utils;
@@ -53,7 +55,6 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
-import jakarta.validation.ValidatorFactory;
 import jakarta.validation.constraints.NotBlank;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -61,6 +62,7 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpStatus;
@@ -81,8 +83,11 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -90,6 +95,7 @@ import java.util.stream.Collectors;
 @RequestMapping("/accounts")
 
 public class AccountsController {
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
 
     @Value("${general.cipdc}")
     private String cipdc;
@@ -118,6 +124,9 @@ public class AccountsController {
     @Autowired
     InvitationService invitationService;
 
+    @Autowired
+    JWTPublicKeyService jwtPublicKeyService;
+
     @Autowired
     JWTService jwtService;
 
@@ -136,6 +145,20 @@ public class AccountsController {
     @Autowired
     UsersHandler usersHandler;
 
+    @Autowired
+    WebhookDeduplicationService webhookDeduplicationService;
+
+    @Autowired
+    WebhookEventCoalescer webhookEventCoalescer;
+
+    @Autowired
+    @Qualifier(AsyncConfig.REMOTE_CALL_EXECUTOR)
+    Executor remoteCallExecutor;
+
+    @Autowired
+    @Qualifier(AsyncConfig.SIDE_EFFECT_EXECUTOR)
+    Executor sideEffectExecutor;
+
 
     @PutMapping("/{uid}/password")
     @Operation(description = "Updates user's password.")
@@ -188,6 +211,20 @@ public class AccountsController {
         }
     }
 
+    @PostMapping("/users")
+    @Operation(description = "Gets a list of users. Accepts large UID lists in the request body.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Bad request."),
+            @ApiResponse(responseCode = "500", description = "Internal server error.")
+    })
+    public ResponseEntity<List<UserDetails>> getUsersByBody(@RequestBody List<String> uids) {
+        if (Utils.isNullOrEmpty(uids)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return getUsers(uids);
+    }
+
     @GetMapping("/user/{uid}")
     @Operation(description = "Get user profile by UID")
     @ApiResponses({
@@ -220,10 +257,8 @@ public class AccountsController {
 
         try {
             log.info("JWT validation started.");
-            log.info("Getting JWT public key.");
-            JWTPublicKey jwtPublicKey = gigyaService.getJWTPublicKey();
             log.info("Validating JWT signature.");
-            boolean isJWTValid = JWTValidator.isValidSignature(jwt, jwtPublicKey);
+            boolean isJWTValid = jwtPublicKeyService.isValidSignature(jwt);
 
             if (!isJWTValid) {
                 log.info("Invalid JWT signature. Bad request.");
@@ -239,6 +274,7 @@ public class AccountsController {
             for (int i = 0; i < events.length(); i++) {
                 JSONObject event = events.getJSONObject(i);
                 if (!event.get("type").equals(WebhookEvent.REGISTRATION.getValue())) continue;
+                if (webhookDeduplicationService.isDuplicate(event)) continue;
 
                 JSONObject data = (JSONObject) event.get("data");
                 String uid = data.get("uid").toString();
@@ -264,9 +300,7 @@ public class AccountsController {
             @RequestHeader(name = ReCaptchaService.CAPTCHA_TOKEN_HEADER, required = false) String captchaValidationToken
     ) throws IOException, JSONException {
         log.info(String.format("Account registration initiated. Username: %s", accountInfoDTO.getUsername()));
-        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-        Validator validator = factory.getValidator();
-        Set<ConstraintViolation<AccountInfoDTO>> violations = validator.validate(accountInfoDTO);
+        Set<ConstraintViolation<AccountInfoDTO>> violations = VALIDATOR.validate(accountInfoDTO);
 
         if (violations.size() > 0) {
             log.error(String.format("One or more errors occurred while creating the account. %s", violations.toArray()));
@@ -278,6 +312,12 @@ public class AccountsController {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
 
+        // Decrypting the invitation ciphertext is independent of reCaptcha, so both remote calls run at the same time.
+        // The decryption is not cancelled if reCaptcha fails: it runs to completion and its result is discarded.
+        String ciphertext = accountInfoDTO.getCiphertext();
+        CompletableFuture<Ciphertext> decryption = StringUtils.isNotBlank(ciphertext)
+                ? CompletableFuture.supplyAsync(() -> decryptCiphertext(ciphertext), remoteCallExecutor)
+                : CompletableFuture.completedFuture(null);
         try {
             JSONObject reCaptchaResponse = reCaptchaService.verifyToken(accountInfoDTO.getReCaptchaToken(), captchaValidationToken);
             log.info(String.format("reCaptcha response for %s: %s", accountInfoDTO.getUsername(), reCaptchaResponse.toString()));
@@ -293,10 +333,8 @@ public class AccountsController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
 
-        String ciphertext = accountInfoDTO.getCiphertext();
-        Ciphertext decryptedCiphertext = null;
-        if (StringUtils.isNotBlank(ciphertext)) {
-            decryptedCiphertext = dataProtectionService.decrypCiphertext(ciphertext);
+        Ciphertext decryptedCiphertext = Utils.await(decryption);
+        if (decryptedCiphertext != null) {
             accountInfoDTO.setCiphertextData(decryptedCiphertext);
         }
 
@@ -324,46 +362,39 @@ public class AccountsController {
             String hashedPassword = HashingService.toMD5(account.getPassword());
             account.setPassword(hashedPassword);
 
+            // The response only depends on the auto-verification below, so the remaining side effects run in
+            // parallel and report their own failures instead of holding the registration response.
             if (isRegistrationNotificationEnabled) {
-                log.info(String.format("Sending account registered notification for UID: %s", newAccountUid));
-                notificationService.sendAccountRegisteredNotification(account, cipdc);
-                log.info(String.format("Account registered notification sent for UID: %s", newAccountUid));
+                runSideEffect("account registered notification", newAccountUid, () -> notificationService.sendAccountRegisteredNotification(account, cipdc));
             }
 
-            log.info(String.format("Sending account info notification for UID: %s", newAccountUid));
-            notificationService.sendNotifyAccountInfoNotification(account, cipdc);
-            log.info(String.format("Account info notification sent for UID: %s", newAccountUid));
+            runSideEffect("account info notification", newAccountUid, () -> notificationService.sendNotifyAccountInfoNotification(account, cipdc));
 
             // TODO: Check notifications possible error scenarios
             if (isAspireRegistrationValid(account)) {
-                log.info(String.format("Sending Aspire registration notification for UID: %s", newAccountUid));
-                notificationService.sendAspireRegistrationNotification(account);
-                log.info(String.format("Aspire registration notification sent for UID: %s", newAccountUid));
+                runSideEffect("Aspire registration notification", newAccountUid, () -> notificationService.sendAspireRegistrationNotification(account));
             }
 
             if (account.getRegistrationType() != null && account.getRegistrationType().equals(RegistrationType.BASIC.getValue())) {
-                log.info(String.format("Sending registration confirmation notification for UID: %s", newAccountUid));
-                notificationService.sendConfirmationEmailNotification(account);
-                log.info(String.format("Registration confirmation notification sent for UID: %s", newAccountUid));
+                runSideEffect("registration confirmation notification", newAccountUid, () -> notificationService.sendConfirmationEmailNotification(account));
             }
 
             if (accountCreationResponse.getErrorCode() == GigyaCodes.SUCCESS.getValue()) {
-                log.info(String.format("Sending email verification notification for UID: %s", newAccountUid));
-                emailVerificationService.sendVerificationByLinkEmail(newAccountUid);
-                log.info(String.format("Email verification notification for UID: %s", newAccountUid));
+                runSideEffect("email verification notification", newAccountUid, () -> emailVerificationService.sendVerificationByLinkEmail(newAccountUid));
             }
 
             if (isInvitedAccount(decryptedCiphertext)) {
-                log.info("Updating invitation with country code.");
                 JSONObject updateInvitationDTO = new JSONObject()
                         .put("inviteeUsername", account.getUsername())
                         .put("country", account.getCountry());
-                Integer response = invitationService.updateInvitationCountry(updateInvitationDTO);
-                if (response == HttpStatus.OK.value()) {
-                    log.info("Invitation was updated successfully with country value.");
-                } else {
-                    log.info("An error occurred. Invitation was not updated with country value.");
-                }
+                runSideEffect("invitation country update", newAccountUid, () -> {
+                    Integer response = invitationService.updateInvitationCountry(updateInvitationDTO);
+                    if (response == HttpStatus.OK.value()) {
+                        log.info("Invitation was updated successfully with country value.");
+                    } else {
+                        log.info("An error occurred. Invitation was not updated with country value.");
+                    }
+                });
             }
 
             if (isVerificationPending && isInvitedAccount(decryptedCiphertext)) {
@@ -388,6 +419,31 @@ public class AccountsController {
         }
     }
 
+    private Ciphertext decryptCiphertext(String ciphertext) {
+        try {
+            return dataProtectionService.decrypCiphertext(ciphertext);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void runSideEffect(String description, String uid, SideEffect sideEffect) {
+        CompletableFuture.runAsync(() -> {
+            log.info(String.format("Sending %s for UID: %s", description, uid));
+            try {
+                sideEffect.run();
+                log.info(String.format("%s sent for UID: %s", StringUtils.capitalize(description), uid));
+            } catch (Exception e) {
+                log.error(String.format("%s failed for UID: %s. Error: %s", StringUtils.capitalize(description), uid, Utils.stackTraceToString(e)));
+            }
+        }, sideEffectExecutor);
+    }
+
+    @FunctionalInterface
+    private interface SideEffect {
+        void run() throws Exception;
+    }
+
     private boolean isInvitedAccount(Ciphertext ciphertext) {
         return ciphertext != null && InviteSource.contains(ciphertext.getSource());
     }
@@ -409,10 +465,8 @@ public class AccountsController {
         log.info(String.format("/accounts/merged called with body: %s", body));
         try {
             log.info("JWT validation started.");
-            log.info("Getting JWT public key.");
-            JWTPublicKey jwtPublicKey = gigyaService.getJWTPublicKey();
             log.info("Validating JWT signature.");
-            boolean isJWTValid = JWTValidator.isValidSignature(jwt, jwtPublicKey);
+            boolean isJWTValid = jwtPublicKeyService.isValidSignature(jwt);
 
             if (!isJWTValid) {
                 log.info("Invalid JWT signature. Bad request.");
@@ -425,17 +479,22 @@ public class AccountsController {
 
             for (int i = 0; i < events.length(); i++) {
                 JSONObject event = events.getJSONObject(i);
+                if (!isMergeEvent(event) && !isUpdateEvent(event)) continue;
+                if (webhookDeduplicationService.isDuplicate(event)) continue;
 
                 if (isMergeEvent(event)) {
                     log.info("accountMerged webhook event fired.");
                     JSONObject data = (JSONObject) event.get("data");
                     String uid = data.get("newUid").toString();
-                    accountsService.onAccountMerged(uid);
+                    // The account changed in CDC already: only the notification waits for the coalescing window.
+                    gigyaService.evictAccountInfo(uid);
+                    webhookEventCoalescer.submit(WebhookEvent.MERGE.getValue(), uid, () -> accountsService.onAccountMerged(uid));
                 } else if (isUpdateEvent(event)) {
                     JSONObject data = (JSONObject) event.get("data");
                     log.info("accountUpdate webhook event fired.");
                     String uid = data.get("uid").toString();
-                    accountsService.onAccountUpdated(uid);
+                    gigyaService.evictAccountInfo(uid);
+                    webhookEventCoalescer.submit(WebhookEvent.UPDATE.getValue(), uid, () -> accountsService.onAccountUpdated(uid));
                 }
             }
         } catch (Exception e) {
@@ -464,7 +523,7 @@ public class AccountsController {
         try {
             String email = usernameRecoveryDTO.getUserInfo().getEmail();
             log.info(String.format("Username recovery email requested by %s", email));
-            AccountInfo account = gigyaService.getAccountInfoByEmail(email);
+            AccountInfo account = gigyaService.getNotificationAccountByEmail(email);
 
             if (account == null) {
                 log.warn(String.format("No account found for %s while sending username recovery email.", email));
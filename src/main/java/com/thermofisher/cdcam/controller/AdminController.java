@@ -0,0 +1,66 @@
+package com.thermofisher.cdcam.controller;
+
+import com.thermofisher.cdcam.enums.cdc.AccountType;
+import com.thermofisher.cdcam.services.AccountExportService;
+import com.thermofisher.cdcam.utils.Utils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+@RestController
+@Slf4j
+@RequestMapping("/admin")
+public class AdminController {
+    @Autowired
+    AccountExportService accountExportService;
+
+    @GetMapping(value = "/accounts/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(description = "Exports the accounts matched by an accounts.search query as NDJSON, one account per line. Requires the admin role.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Bad request."),
+            @ApiResponse(responseCode = "401", description = "Unauthorized."),
+            @ApiResponse(responseCode = "403", description = "Forbidden.")
+    })
+    @Parameter(name = "query", description = "accounts.search SELECT statement on accounts, limited to the fields in cdc.export.allowed-fields. A LIMIT sets the page size.", required = true)
+    @Parameter(name = "allDataCenters", description = "Exports the main and secondary data centers in parallel.")
+    public ResponseEntity<StreamingResponseBody> exportAccounts(@RequestParam String query,
+                                                                @RequestParam(defaultValue = "FULL_LITE") AccountType accountType,
+                                                                @RequestParam(defaultValue = "false") boolean allDataCenters) {
+        try {
+            accountExportService.validateQuery(query);
+        } catch (IllegalArgumentException e) {
+            log.error(String.format("Account export rejected. %s", e.getMessage()));
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        log.info(String.format("Account export requested. Account types: %s. All data centers: %s.", accountType.getValue(), allDataCenters));
+        StreamingResponseBody body = outputStream -> {
+            try {
+                accountExportService.export(query, accountType, allDataCenters, outputStream);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                log.error(String.format("An error occurred during the account export: %s", Utils.stackTraceToString(e)));
+                throw new IOException("Account export failed.", e);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -1,10 +1,13 @@
 package com.thermofisher.cdcam.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.thermofisher.cdcam.model.EECUser;
 import com.thermofisher.cdcam.model.EECUserV2;
 import com.thermofisher.cdcam.model.EECUserV3;
 import com.thermofisher.cdcam.model.EmailList;
+import com.thermofisher.cdcam.model.LiteRegistrationJob;
 import com.thermofisher.cdcam.model.dto.LiteAccountDTO;
+import com.thermofisher.cdcam.services.LiteRegistrationJobService;
 import com.thermofisher.cdcam.utils.Utils;
 import com.thermofisher.cdcam.utils.cdc.LiteRegistrationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,11 +23,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 @Slf4j
@@ -38,6 +48,9 @@ public class EmailAccountsController {
     @Autowired
     LiteRegistrationService liteRegistrationService;
 
+    @Autowired
+    LiteRegistrationJobService liteRegistrationJobService;
+
     @PostMapping("/v3/accounts/lite")
     @Operation(description = "Request enhanced lite-account registration from a list of users. V3")
     @ApiResponses({
@@ -66,6 +79,83 @@ public class EmailAccountsController {
         }
     }
 
+    @PostMapping(value = "/v3/accounts/lite", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(description = "Request enhanced lite-account registration from a list of users, streaming one JSON line per user as soon as it is processed. V3")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid request. No elements were sent or limit was exceeded.", headers = {
+                    @Header(name = requestExceptionHeader, description = "Response description", schema = @Schema(type = "string"))
+            })
+    })
+    public ResponseEntity<StreamingResponseBody> addLiteAccountStreaming(@Valid @RequestBody List<LiteAccountDTO> accountList) {
+        log.info("Lite account registration initiated. V3. Streaming results.");
+
+        try {
+            liteRegistrationService.validateLiteAccountList(accountList);
+        } catch (IllegalArgumentException e) {
+            String errorMessage = String.format("An error occurred during request validation. Error description: %s", e.getMessage());
+            log.error(errorMessage);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).header(requestExceptionHeader, errorMessage).body(null);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            NdjsonWriter writer = new NdjsonWriter(outputStream);
+            liteRegistrationService.registerLiteAccounts(accountList, writer::write);
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping("/v3/accounts/lite/jobs")
+    @Operation(description = "Submit a lite-account registration job for a list of users that is processed in the background. V3")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Accepted"),
+            @ApiResponse(responseCode = "400", description = "Invalid request. No elements were sent or limit was exceeded.", headers = {
+                    @Header(name = requestExceptionHeader, description = "Response description", schema = @Schema(type = "string"))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error", headers = {
+                    @Header(name = requestExceptionHeader, description = "Response description", schema = @Schema(type = "string"))
+            })
+    })
+    public ResponseEntity<LiteRegistrationJob> submitLiteAccountJob(@Valid @RequestBody List<LiteAccountDTO> accountList) {
+        log.info("Lite account registration job submitted. V3");
+
+        try {
+            LiteRegistrationJob job = liteRegistrationJobService.submit(accountList);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            String errorMessage = String.format("An error occurred during request validation. Error description: %s", e.getMessage());
+            log.error(errorMessage);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).header(requestExceptionHeader, errorMessage).body(null);
+        } catch (Exception e) {
+            String errorMessage = String.format("An error occurred while submitting the lite registration job... %s", e.getMessage());
+            log.error(errorMessage);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).header(requestExceptionHeader, errorMessage).body(null);
+        }
+    }
+
+    @GetMapping("/v3/accounts/lite/jobs/{jobId}")
+    @Operation(description = "Get the status, progress and results of a lite-account registration job. V3")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "404", description = "Job not found."),
+            @ApiResponse(responseCode = "500", description = "Internal server error", headers = {
+                    @Header(name = requestExceptionHeader, description = "Response description", schema = @Schema(type = "string"))
+            })
+    })
+    public ResponseEntity<LiteRegistrationJob> getLiteAccountJob(@PathVariable String jobId, @RequestParam(defaultValue = "true") boolean includeResults) {
+        try {
+            LiteRegistrationJob job = liteRegistrationJobService.getJob(jobId, includeResults);
+            if (job == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok().body(job);
+        } catch (Exception e) {
+            String errorMessage = String.format("An error occurred while reading the lite registration job... %s", e.getMessage());
+            log.error(errorMessage);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).header(requestExceptionHeader, errorMessage).body(null);
+        }
+    }
+
     @PostMapping("/v2/accounts/lite")
     @Operation(description = "Request email-only registration from a list of email addresses. V2")
     @ApiResponses({
@@ -106,6 +196,42 @@ public class EmailAccountsController {
         }
     }
 
+    @PostMapping(value = "/v2/accounts/lite", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(description = "Request email-only registration from a list of email addresses, streaming one JSON line per user as soon as it is processed. V2")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid request. Either no list elements were sent or limit was exceeded.", headers = {
+                    @Header(name = requestExceptionHeader, description = "Response description", schema = @Schema(type = "string"))
+            })
+    })
+    public ResponseEntity<StreamingResponseBody> registerStreaming(@Valid @RequestBody EmailList emailList) {
+        log.info("Email only registration initiated. Streaming results.");
+
+        if (Utils.isNullOrEmpty(emailList.getEmails())) {
+            String errorMessage = "No users requested.";
+            log.error(errorMessage);
+            return ResponseEntity.badRequest().header(requestExceptionHeader, errorMessage).body(null);
+        } else if (emailList.getEmails().size() > requestLimit) {
+            String errorMessage = String.format("Requested users exceed request limit: %s.", requestLimit);
+            log.error(errorMessage);
+            return ResponseEntity.badRequest().header(requestExceptionHeader, errorMessage).body(null);
+        }
+
+        try {
+            liteRegistrationService.validateEmailList(emailList.getEmails());
+        } catch (IllegalArgumentException e) {
+            String error = e.getMessage();
+            log.error(error);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).header(requestExceptionHeader, error).body(null);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            NdjsonWriter writer = new NdjsonWriter(outputStream);
+            liteRegistrationService.registerEmailAccounts(emailList, writer::write);
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @Deprecated
     @PostMapping("/accounts/email-only/users")
     @Operation(description = "Request email-only registration from a list of email addresses.")
@@ -145,4 +271,31 @@ public class EmailAccountsController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).header(requestExceptionHeader, error).body(null);
         }
     }
+
+    /**
+     * Writes each user as one JSON line and flushes it right away. When the client goes away the remaining users are
+     * still processed, only the writing stops.
+     */
+    private static class NdjsonWriter {
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final OutputStream outputStream;
+        private boolean isClosed = false;
+
+        NdjsonWriter(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        void write(EECUser user) {
+            if (isClosed) return;
+
+            try {
+                outputStream.write(mapper.writeValueAsBytes(user));
+                outputStream.write('\n');
+                outputStream.flush();
+            } catch (IOException e) {
+                isClosed = true;
+                log.warn(String.format("Lite registration stream closed by the client. Remaining users will be processed without being sent. %s", e.getMessage()));
+            }
+        }
+    }
 }
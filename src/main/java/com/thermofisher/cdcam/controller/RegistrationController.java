@@ -9,6 +9,7 @@ import com.thermofisher.cdcam.services.CookieService;
 import com.thermofisher.cdcam.services.EncodeService;
 import com.thermofisher.cdcam.services.GigyaService;
 import com.thermofisher.cdcam.services.LoginService;
+import com.thermofisher.cdcam.services.RelyingPartyService;
 import com.thermofisher.cdcam.services.URLService;
 import com.thermofisher.cdcam.utils.Utils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -59,6 +60,9 @@ public class RegistrationController {
     @Autowired
     GigyaService gigyaService;
 
+    @Autowired
+    RelyingPartyService relyingPartyService;
+
     @Autowired
     CookieService cookieService;
 
@@ -113,19 +117,10 @@ public class RegistrationController {
         }
 
         try {
-            boolean uriExists = false;
             log.info("Getting RP data");
-            OpenIdRelyingParty openIdRelyingParty = gigyaService.getRP(cipAuthData.getClientId());
-            for (String uri : openIdRelyingParty.getRedirectUris()) {
-                log.info(String.format("Find %s in OpenId redirectURIs", cipAuthData.getRedirectUri()));
-                if (uri.equalsIgnoreCase(cipAuthData.getRedirectUri())) {
-                    uriExists = true;
-                    log.info(String.format("%s was found", cipAuthData.getRedirectUri()));
-                    break;
-                }
-            }
-
-            if (!uriExists) {
+            OpenIdRelyingParty openIdRelyingParty = relyingPartyService.getRP(cipAuthData.getClientId());
+            log.info(String.format("Find %s in OpenId redirectURIs", cipAuthData.getRedirectUri()));
+            if (!openIdRelyingParty.isRedirectUriAllowed(cipAuthData.getRedirectUri())) {
                 String error = String.format("%s was not found in RP URIs", cipAuthData.getRedirectUri());
                 log.error(error);
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).header(REQUEST_EXCEPTION_HEADER, error).build();
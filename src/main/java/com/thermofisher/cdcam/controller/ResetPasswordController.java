@@ -1,11 +1,14 @@
 package com.thermofisher.cdcam.controller;
 
 import com.gigya.socialize.GSKeyNotFoundException;
+import com.thermofisher.cdcam.builders.AccountBuilder;
+import com.thermofisher.cdcam.config.CDCExecutorConfig;
 import com.thermofisher.cdcam.enums.CookieType;
 import com.thermofisher.cdcam.model.AccountInfo;
 import com.thermofisher.cdcam.model.ResetPasswordRequest;
 import com.thermofisher.cdcam.model.ResetPasswordResponse;
 import com.thermofisher.cdcam.model.ResetPasswordSubmit;
+import com.thermofisher.cdcam.model.cdc.CDCSearchResponse;
 import com.thermofisher.cdcam.model.cdc.CustomGigyaErrorException;
 import com.thermofisher.cdcam.model.cdc.LoginIdDoesNotExistException;
 import com.thermofisher.cdcam.model.cdc.OpenIdRelyingParty;
@@ -21,6 +24,7 @@ import com.thermofisher.cdcam.services.JWTService;
 import com.thermofisher.cdcam.services.LoginService;
 import com.thermofisher.cdcam.services.NotificationService;
 import com.thermofisher.cdcam.services.ReCaptchaService;
+import com.thermofisher.cdcam.services.RelyingPartyService;
 import com.thermofisher.cdcam.services.SecretsService;
 import com.thermofisher.cdcam.services.URLService;
 import com.thermofisher.cdcam.services.hashing.HashingService;
@@ -35,10 +39,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
-import jakarta.validation.ValidatorFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -54,8 +58,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 
 @RestController
@@ -63,6 +70,7 @@ import java.util.Set;
 @RequestMapping("/identity/reset-password")
 public class ResetPasswordController {
 
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
     private final String REQUEST_EXCEPTION_HEADER = "Request-Exception";
 
     @Value("${identity.reset-password.get-login-endpoint.path}")
@@ -80,6 +88,9 @@ public class ResetPasswordController {
     @Autowired
     GigyaService gigyaService;
 
+    @Autowired
+    RelyingPartyService relyingPartyService;
+
     @Autowired
     LoginService loginService;
 
@@ -98,6 +109,10 @@ public class ResetPasswordController {
     @Autowired
     URLService urlService;
 
+    @Autowired
+    @Qualifier(CDCExecutorConfig.CDC_EXECUTOR)
+    Executor cdcExecutor;
+
     @PostMapping("/email")
     @Operation(description = "sends the request to reset a password.")
     @ApiResponses({
@@ -115,17 +130,26 @@ public class ResetPasswordController {
             log.info("Cookie not present.");
             cipAuthData = cookieService.buildDefaultCipAuthDataCookie(CookieType.RESET_PASSWORD);
         }
+        // The account search has no side effects, so it runs while reCaptcha is verified and is dropped if it fails.
+        CompletableFuture<CDCSearchResponse> accountSearch = CompletableFuture.supplyAsync(() -> {
+            try {
+                return gigyaService.searchAccountsByUsername(body.getUsername());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, cdcExecutor);
         try {
             JSONObject reCaptchaResponse = reCaptchaService.verifyToken(body.getCaptchaToken(), captchaValidationToken);
             log.info(String.format("reCaptcha response for %s: %s", body.getUsername(), reCaptchaResponse.toString()));
-            String passwordToken = gigyaService.resetPasswordRequest(body.getUsername());
+            CDCSearchResponse searchResponse = Utils.await(accountSearch);
+            String passwordToken = gigyaService.requestPasswordReset(body.getUsername(), searchResponse);
             log.info(String.format("Request reset password was successfully for: %s", body.getUsername()));
             RequestResetPasswordDTO requestResetPasswordDTO = RequestResetPasswordDTO.builder()
                     .passwordToken(passwordToken)
                     .authData(cipAuthData)
                     .build();
 
-            sendRequestResetPasswordEmail(body.getUsername(), requestResetPasswordDTO);
+            sendRequestResetPasswordEmail(body.getUsername(), searchResponse, requestResetPasswordDTO);
 
             log.info(String.format("Request for reset password successful for: %s", body.getUsername()));
             return ResponseEntity.ok().build();
@@ -145,6 +169,8 @@ public class ResetPasswordController {
         } catch (Exception e) {
             log.error(String.format("Error: %s", e.getMessage()));
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } finally {
+            accountSearch.cancel(true);
         }
     }
 
@@ -158,9 +184,7 @@ public class ResetPasswordController {
     })
     public ResponseEntity<ResetPasswordResponse> resetPassword(@RequestBody ResetPasswordSubmit body) {
         log.info(String.format("Reset password process started for: %s", body.getUid()));
-        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-        Validator validator = factory.getValidator();
-        Set<ConstraintViolation<ResetPasswordSubmit>> violations = validator.validate(body);
+        Set<ConstraintViolation<ResetPasswordSubmit>> violations = VALIDATOR.validate(body);
         final int EXPIRED_TOKEN_ERROR = 403025;
 
         if (violations.size() > 0) {
@@ -246,19 +270,10 @@ public class ResetPasswordController {
         }
 
         try {
-            boolean uriExists = false;
             log.info("Getting RP data");
-            OpenIdRelyingParty openIdRelyingParty = gigyaService.getRP(cipAuthData.getClientId());
-            for (String uri : openIdRelyingParty.getRedirectUris()) {
-                log.info(String.format("Find %s in OpenId redirectURIs", cipAuthData.getRedirectUri()));
-                if (uri.equalsIgnoreCase(cipAuthData.getRedirectUri())) {
-                    uriExists = true;
-                    log.info(String.format("%s was found", cipAuthData.getRedirectUri()));
-                    break;
-                }
-            }
-
-            if (!uriExists) {
+            OpenIdRelyingParty openIdRelyingParty = relyingPartyService.getRP(cipAuthData.getClientId());
+            log.info(String.format("Find %s in OpenId redirectURIs", cipAuthData.getRedirectUri()));
+            if (!openIdRelyingParty.isRedirectUriAllowed(cipAuthData.getRedirectUri())) {
                 String error = String.format("%s was not found in RP URIs", cipAuthData.getRedirectUri());
                 log.error(error);
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).header(REQUEST_EXCEPTION_HEADER, error).build();
@@ -291,10 +306,16 @@ public class ResetPasswordController {
                 .build();
     }
 
-    private void sendRequestResetPasswordEmail(String username, RequestResetPasswordDTO requestResetPasswordDTO) throws IOException, CustomGigyaErrorException {
+    private void sendRequestResetPasswordEmail(String username, CDCSearchResponse searchResponse, RequestResetPasswordDTO requestResetPasswordDTO) throws IOException, CustomGigyaErrorException {
         log.info("Preparing request reset password confirmation email");
-        String email = gigyaService.getEmailByUsername(username);
-        AccountInfo account = gigyaService.getAccountInfoByEmail(email);
+        AccountInfo account;
+        if (searchResponse != null && searchResponse.getResults() != null && !searchResponse.getResults().isEmpty()) {
+            // The username search selects the notification fields, and the reset token was requested for its first result.
+            account = AccountBuilder.buildNotificationAccount(searchResponse.getResults().get(0));
+        } else {
+            String email = gigyaService.getEmailByUsername(username);
+            account = gigyaService.getAccountInfoByEmail(email);
+        }
         notificationService.sendRequestResetPasswordEmailNotification(account, requestResetPasswordDTO);
         log.info("Request reset password email sent");
     }
@@ -0,0 +1,12 @@
+package com.thermofisher.cdcam.enums;
+
+public enum LiteRegistrationJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
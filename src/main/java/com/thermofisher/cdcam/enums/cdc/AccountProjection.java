@@ -0,0 +1,29 @@
+package com.thermofisher.cdcam.enums.cdc;
+
+/**
+ * Account fields read from CDC for each use case. {@code include} is the accounts.getAccountInfo include list and
+ * {@code fields} the accounts.search SELECT list. accounts.getAccountInfo always returns UID, isActive, isRegistered,
+ * loginProvider and socialProviders, whatever the include list.
+ */
+public enum AccountProjection {
+    PROFILE("emails,profile,data,password,preferences", "UID,isActive,isRegistered,loginProvider,socialProviders,emails,loginIDs,profile,data,preferences"),
+    NOTIFICATION("emails,profile", "UID,emails,loginIDs,profile.username,profile.email,profile.firstName,profile.lastName,profile.country,profile.locale"),
+    FEDERATION_CHECK("loginIDs", "UID,loginProvider,socialProviders"),
+    EXISTENCE("loginIDs", "UID,isActive,isRegistered,profile.username,profile.email");
+
+    private String include;
+    private String fields;
+
+    AccountProjection(String include, String fields) {
+        this.include = include;
+        this.fields = fields;
+    }
+
+    public String getInclude() {
+        return this.include;
+    }
+
+    public String getFields() {
+        return this.fields;
+    }
+}
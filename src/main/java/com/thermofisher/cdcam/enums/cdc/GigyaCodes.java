@@ -10,7 +10,10 @@ public enum GigyaCodes {
     ACCOUNT_PENDING_REGISTRATION(206001),
     PENDING_CODE_VERIFICATION(206006),
     LOGIN_ID_DOES_NOT_EXIST(403047),
-    UID_NOT_FOUND(403005);
+    RATE_LIMIT_EXCEEDED(403048),
+    UID_NOT_FOUND(403005),
+    GENERAL_SERVER_ERROR(500001),
+    REQUEST_TIMEOUT(504002);
 
     private int value;
 
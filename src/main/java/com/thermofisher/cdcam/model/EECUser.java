@@ -1,12 +1,14 @@
 package com.thermofisher.cdcam.model;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 
 @Getter
 @Setter
 @SuperBuilder
+@NoArgsConstructor
 public class EECUser {
     private String uid;
     private String username;
@@ -3,6 +3,7 @@ package com.thermofisher.cdcam.model;
 import com.thermofisher.cdcam.enums.ResponseCode;
 import com.thermofisher.cdcam.model.cdc.CDCAccount;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 
@@ -12,6 +13,7 @@ import java.util.Objects;
 @Getter
 @Setter
 @SuperBuilder
+@NoArgsConstructor
 public class EECUserV3 extends EECUser {
     private String passwordSetupLink;
 
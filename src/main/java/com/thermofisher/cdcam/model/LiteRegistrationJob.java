@@ -0,0 +1,30 @@
+package com.thermofisher.cdcam.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.thermofisher.cdcam.enums.LiteRegistrationJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LiteRegistrationJob {
+    private String jobId;
+    private LiteRegistrationJobStatus status;
+    private int totalUsers;
+    private int processedUsers;
+    private String createdAt;
+    private String updatedAt;
+    private String error;
+    private List<EECUserV3> results;
+}
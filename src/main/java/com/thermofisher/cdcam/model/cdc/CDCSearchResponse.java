@@ -21,4 +21,5 @@ public class CDCSearchResponse {
     private String statusReason;
     private List<CDCAccount> results;
     private int totalCount;
+    private String nextCursorId;
 }
@@ -1,12 +1,18 @@
 package com.thermofisher.cdcam.model.cdc;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Builder
 @Setter
@@ -22,4 +28,37 @@ public class OpenIdRelyingParty {
 
     @JsonProperty("redirectUris")
     private List<String> redirectUris;
+
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile Set<String> normalizedRedirectUris;
+
+    public void setRedirectUris(List<String> redirectUris) {
+        this.redirectUris = redirectUris;
+        this.normalizedRedirectUris = null;
+    }
+
+    /**
+     * Redirect URIs of the relying party, lower-cased for case-insensitive lookups.
+     */
+    @JsonIgnore
+    public Set<String> getNormalizedRedirectUris() {
+        Set<String> uris = normalizedRedirectUris;
+        if (uris == null) {
+            uris = redirectUris == null
+                    ? Collections.emptySet()
+                    : redirectUris.stream().map(OpenIdRelyingParty::normalize).collect(Collectors.toUnmodifiableSet());
+            normalizedRedirectUris = uris;
+        }
+        return uris;
+    }
+
+    public boolean isRedirectUriAllowed(String redirectUri) {
+        return redirectUri != null && getNormalizedRedirectUris().contains(normalize(redirectUri));
+    }
+
+    private static String normalize(String uri) {
+        return uri.toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,95 @@
+package com.thermofisher.cdcam.properties;
+
+import com.gigya.socialize.GSRequest;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class CDCTransportProperties {
+    public final static int NO_TIMEOUT = -1;
+
+    /**
+     * A boolean that indicates whether CDC requests should reuse keep-alive connections per data center.
+     */
+    @Getter
+    private static boolean connectionPoolingEnabled = true;
+
+    /**
+     * Maximum number of idle keep-alive connections kept per data center host.
+     */
+    @Getter
+    private static int maxConnectionsPerDataCenter;
+
+    /**
+     * Connect and read timeout, in milliseconds, used for CDC methods without a specific timeout.
+     */
+    @Getter
+    private static int defaultTimeout = NO_TIMEOUT;
+
+    /**
+     * Connect and read timeouts, in milliseconds, keyed by CDC API method (e.g. accounts.search).
+     */
+    private static final Map<String, Integer> methodTimeouts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CDCTransportProperties(
+            @Value("${cdc.transport.connection-pooling.enabled:true}") boolean connectionPoolingEnabled,
+            @Value("${cdc.transport.connection-pooling.max-connections:20}") int maxConnectionsPerDataCenter,
+            @Value("${cdc.transport.timeout.default:15000}") int defaultTimeout,
+            @Value("${cdc.transport.timeout.methods:}") List<String> methodTimeouts
+    ) {
+        CDCTransportProperties.connectionPoolingEnabled = connectionPoolingEnabled;
+        CDCTransportProperties.maxConnectionsPerDataCenter = maxConnectionsPerDataCenter;
+        CDCTransportProperties.defaultTimeout = defaultTimeout;
+        CDCTransportProperties.methodTimeouts.clear();
+        CDCTransportProperties.methodTimeouts.putAll(parseMethodTimeouts(methodTimeouts));
+
+        // The Gigya SDK runs on HttpURLConnection, so keep-alive connections are pooled per host by the JDK.
+        GSRequest.ENABLE_CONNECTION_POOLING = connectionPoolingEnabled;
+        System.setProperty("http.keepAlive", String.valueOf(connectionPoolingEnabled));
+        System.setProperty("http.maxConnections", String.valueOf(maxConnectionsPerDataCenter));
+        log.info("CDC transport configured. Connection pooling: {}. Max connections per data center: {}. Default timeout: {} ms.",
+                connectionPoolingEnabled, maxConnectionsPerDataCenter, defaultTimeout);
+    }
+
+    /**
+     * Retrieve the timeout configured for a CDC API method.
+     *
+     * @param apiMethod CDC API method, e.g. {@code accounts.getAccountInfo}.
+     * @return The method timeout in milliseconds, {@link #defaultTimeout} when the method has no specific timeout.
+     */
+    public static int getTimeout(String apiMethod) {
+        if (apiMethod == null) {
+            return defaultTimeout;
+        }
+        return methodTimeouts.getOrDefault(apiMethod, defaultTimeout);
+    }
+
+    static Map<String, Integer> parseMethodTimeouts(List<String> methodTimeouts) {
+        Map<String, Integer> timeouts = new ConcurrentHashMap<>();
+        if (methodTimeouts == null) {
+            return timeouts;
+        }
+
+        for (String methodTimeout : methodTimeouts) {
+            if (StringUtils.isBlank(methodTimeout)) continue;
+
+            String[] parts = methodTimeout.split("=");
+            if (parts.length != 2 || !StringUtils.isNumeric(parts[1].trim())) {
+                log.warn("Ignoring invalid CDC method timeout: {}", methodTimeout);
+                continue;
+            }
+            timeouts.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return timeouts;
+    }
+}
@@ -0,0 +1,175 @@
+package com.thermofisher.cdcam.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.thermofisher.cdcam.config.CDCExecutorConfig;
+import com.thermofisher.cdcam.enums.cdc.AccountType;
+import com.thermofisher.cdcam.model.cdc.CustomGigyaErrorException;
+import com.thermofisher.cdcam.utils.cdc.CDCUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Exports the results of an accounts.search as NDJSON, one account per line, reading CDC page by page through a search
+ * cursor so exports of any size run with bounded memory. When both data centers are requested they are exported in
+ * parallel into the same stream. Each line carries the {@code dataCenter} it was read from. Only the fields listed in
+ * {@code cdc.export.allowed-fields}, and their sub-fields, can be selected, filtered or sorted on.
+ */
+@Slf4j
+@Service
+public class AccountExportService {
+    private static final String DATA_CENTER_FIELD = "dataCenter";
+    private static final Pattern SELECT_PATTERN = Pattern.compile("^\\s*select\\s+(.+?)\\s+from\\s+accounts(\\s.*)?$", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern LIMIT_PATTERN = Pattern.compile("\\blimit\\s+\\d+\\s*$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern STRING_LITERAL_PATTERN = Pattern.compile("'(?:[^']|'')*'|\"(?:[^\"]|\"\")*\"");
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[A-Za-z_][\\w.]*");
+    private static final Set<String> KEYWORDS = Set.of("where", "and", "or", "not", "in", "is", "null", "contains",
+            "regex", "true", "false", "order", "by", "asc", "desc", "limit");
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired
+    GigyaService gigyaService;
+
+    @Autowired
+    @Qualifier(CDCExecutorConfig.CDC_EXECUTOR)
+    Executor cdcExecutor;
+
+    @Value("${cdc.main.datacenter}")
+    String mainApiDomain;
+
+    @Value("${cdc.secondary.datacenter}")
+    String secondaryApiDomain;
+
+    @Value("${cdc.export.page-size:1000}")
+    int pageSize;
+
+    @Value("${cdc.export.allowed-fields}")
+    List<String> allowedFields;
+
+    @Value("${env.name}")
+    String env;
+
+    public void validateQuery(String query) throws IllegalArgumentException {
+        Matcher matcher = query == null ? null : SELECT_PATTERN.matcher(query);
+        if (matcher == null || !matcher.matches()) {
+            throw new IllegalArgumentException("Query must be an accounts.search SELECT statement on accounts.");
+        }
+
+        for (String field : matcher.group(1).split(",")) {
+            validateField(field.trim());
+        }
+
+        // Filters and sorting are limited to the same fields, so they cannot be used to probe the values of others.
+        String clauses = matcher.group(2) == null ? "" : STRING_LITERAL_PATTERN.matcher(matcher.group(2)).replaceAll(" ");
+        if (clauses.contains("'") || clauses.contains("\"")) {
+            throw new IllegalArgumentException("Query has an unterminated string.");
+        }
+        Matcher identifiers = IDENTIFIER_PATTERN.matcher(clauses);
+        while (identifiers.find()) {
+            if (!KEYWORDS.contains(identifiers.group().toLowerCase(Locale.ROOT))) {
+                validateField(identifiers.group());
+            }
+        }
+    }
+
+    private void validateField(String field) {
+        boolean isAllowed = allowedFields.stream().anyMatch(allowedField -> field.equals(allowedField) || field.startsWith(allowedField + "."));
+        if (!isAllowed) {
+            throw new IllegalArgumentException(String.format("Field '%s' cannot be exported.", field));
+        }
+    }
+
+    /**
+     * Writes every account matched by {@code query} to {@code outputStream}. Returns the number of accounts exported.
+     */
+    public long export(String query, AccountType accountType, boolean allDataCenters, OutputStream outputStream) throws CustomGigyaErrorException, IOException {
+        validateQuery(query);
+        String pagedQuery = withPageSize(query);
+        LineWriter writer = new LineWriter(outputStream);
+
+        if (!allDataCenters || !CDCUtils.isSecondaryDCSupported(env)) {
+            return exportDataCenter(pagedQuery, accountType, mainApiDomain, writer);
+        }
+
+        CompletableFuture<Long> secondaryDCExport = CompletableFuture.supplyAsync(() -> {
+            try {
+                return exportDataCenter(pagedQuery, accountType, secondaryApiDomain, writer);
+            } catch (CustomGigyaErrorException | IOException e) {
+                throw new CompletionException(e);
+            }
+        }, cdcExecutor);
+
+        try {
+            long exported = exportDataCenter(pagedQuery, accountType, mainApiDomain, writer);
+            return exported + secondaryDCExport.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CustomGigyaErrorException) throw (CustomGigyaErrorException) e.getCause();
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw e;
+        } finally {
+            writer.close();
+        }
+    }
+
+    private long exportDataCenter(String query, AccountType accountType, String apiDomain, LineWriter writer) throws CustomGigyaErrorException, IOException {
+        log.info(String.format("Account export started. Domain: %s.", apiDomain));
+        try {
+            long exported = gigyaService.forEachSearchResult(query, accountType, apiDomain, result -> writer.write(result, apiDomain));
+            log.info(String.format("Account export finished. Domain: %s. Accounts exported: %d.", apiDomain, exported));
+            return exported;
+        } catch (UncheckedIOException e) {
+            log.warn(String.format("Account export stopped. Domain: %s. The stream could not be written. %s", apiDomain, e.getMessage()));
+            throw e.getCause();
+        }
+    }
+
+    private String withPageSize(String query) {
+        if (LIMIT_PATTERN.matcher(query).find()) {
+            return query;
+        }
+        return String.format("%s LIMIT %d", query.trim(), Math.max(1, pageSize));
+    }
+
+    private class LineWriter {
+        private final OutputStream outputStream;
+        private boolean isClosed = false;
+
+        LineWriter(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        synchronized void write(JsonNode result, String apiDomain) {
+            try {
+                if (isClosed) throw new IOException("Export stopped.");
+                if (result instanceof ObjectNode account) {
+                    account.put(DATA_CENTER_FIELD, apiDomain);
+                }
+                outputStream.write(mapper.writeValueAsBytes(result));
+                outputStream.write('\n');
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        synchronized void close() {
+            isClosed = true;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.thermofisher.cdcam.services;
 
 import com.gigya.socialize.GSKeyNotFoundException;
+import com.thermofisher.cdcam.config.AsyncConfig;
 import com.thermofisher.cdcam.enums.aws.CdcamSecrets;
+import com.thermofisher.cdcam.enums.cdc.AccountProjection;
 import com.thermofisher.cdcam.enums.cdc.FederationProviders;
 import com.thermofisher.cdcam.model.AccountInfo;
 import com.thermofisher.cdcam.model.cdc.CDCAccount;
@@ -57,15 +59,19 @@ public class AccountsService {
     @Autowired
     NotificationService notificationService;
 
+    @Autowired
+    RelyingPartyService relyingPartyService;
+
     @Autowired
     SecretsService secretsService;
 
-    @Async
+    @Async(AsyncConfig.WEBHOOK_EXECUTOR)
     public void onAccountRegistered(@NotBlank String uid) {
         log.info(String.format("onAccountRegistered called by webhook for UID: %s", uid));
         Objects.requireNonNull(uid);
 
         try {
+            gigyaService.evictAccountInfo(uid);
             AccountInfo account = gigyaService.getAccountInfo(uid);
 
             try {
@@ -97,7 +103,7 @@ public class AccountsService {
 
         Registration registration = Registration.builder().build();
         if (StringUtils.isNotBlank(account.getOpenIdProviderId())) {
-            OpenIdRelyingParty openIdRelyingParty = gigyaService.getRP(account.getOpenIdProviderId());
+            OpenIdRelyingParty openIdRelyingParty = relyingPartyService.getRP(account.getOpenIdProviderId());
             OpenIdProvider openIdProvider = OpenIdProvider.builder()
                     .providerName(openIdRelyingParty.getDescription())
                     .build();
@@ -148,18 +154,27 @@ public class AccountsService {
         return account.getLoginProvider().toLowerCase().contains(FederationProviders.OIDC.getValue()) || account.getLoginProvider().toLowerCase().contains(FederationProviders.SAML.getValue());
     }
 
-    @Async
+    /**
+     * Most merge and update webhooks are for accounts that are not federated, so the federation flag is read on its own
+     * and the full account is only read for the federated ones.
+     */
+    private boolean isFederatedAccount(String uid) throws CustomGigyaErrorException {
+        return gigyaService.getAccountInfo(uid, AccountProjection.FEDERATION_CHECK).isFederatedAccount();
+    }
+
+    @Async(AsyncConfig.WEBHOOK_EXECUTOR)
     public void onAccountMerged(@NotBlank String uid) {
         Objects.requireNonNull(uid);
 
         log.info(String.format("Account linking merge process started for UID: %s", uid));
         try {
-            AccountInfo accountInfo = gigyaService.getAccountInfo(uid);
-            if (!accountInfo.isFederatedAccount()) {
-                log.info(String.format("Merge update process stopped. Account %s with UID %s is not federated. Merge update is only supported for federated accounts.", accountInfo.getUsername(), uid));
+            if (!isFederatedAccount(uid)) {
+                log.info(String.format("Merge update process stopped. Account with UID %s is not federated. Merge update is only supported for federated accounts.", uid));
                 return;
             }
 
+            AccountInfo accountInfo = gigyaService.getAccountInfo(uid);
+
             log.info("Setting random password for merged account notification.");
             accountInfo.setPassword(Utils.getAlphaNumericString(FED_PASSWORD_LENGTH));
             log.info("Building MergedAccountNotification object.");
@@ -172,16 +187,17 @@ public class AccountsService {
         }
     }
 
-    @Async
+    @Async(AsyncConfig.WEBHOOK_EXECUTOR)
     public void onAccountUpdated(@NotBlank String uid) {
         log.info(String.format("Account linking update process started for UID: %s", uid));
         try {
-            AccountInfo accountInfo = gigyaService.getAccountInfo(uid);
-            if (!accountInfo.isFederatedAccount()) {
-                log.info(String.format("Update process stopped. Account %s with UID %s is not federated. Update is only supported for federated accounts.", accountInfo.getUsername(), uid));
+            if (!isFederatedAccount(uid)) {
+                log.info(String.format("Update process stopped. Account with UID %s is not federated. Update is only supported for federated accounts.", uid));
                 return;
             }
 
+            AccountInfo accountInfo = gigyaService.getAccountInfo(uid);
+
             log.info("Building AccountUpdatedNotification object.");
             AccountUpdatedNotification accountUpdatedNotification = AccountUpdatedNotification.build(accountInfo);
             log.info("Sending accountUpdated notification.");
@@ -17,7 +17,7 @@ import org.springframework.stereotype.Service;
 @ConditionalOnProperty(prefix = "cdc.main.apiKey", name = "federation")
 public class CDCIdentityProviderService {
     private String apiMethod;
-    private String cdcSecretKey;
+    private volatile String cdcSecretKey;
     private final boolean useHTTPS = true;
 
     @Value("${cdc.main.apiKey.federation}")
@@ -33,6 +33,11 @@ public class CDCIdentityProviderService {
     SecretsService secretsService;
 
     @PostConstruct
+    public void init() {
+        setCredentials();
+        secretsService.addListener(this::setCredentials);
+    }
+
     public void setCredentials() {
         try {
             if (env.equals("local") || env.equals("test")) return;
@@ -1,5 +1,6 @@
 package com.thermofisher.cdcam.services;
 
+import com.thermofisher.cdcam.config.AsyncConfig;
 import com.thermofisher.cdcam.enums.cdc.GigyaCodes;
 import com.thermofisher.cdcam.model.cdc.CDCResponseData;
 import com.thermofisher.cdcam.properties.EmailVerificationProperties;
@@ -62,7 +63,7 @@ public class EmailVerificationService {
                 && cdcResponseData.getErrorDetails().contains(VERIFICATION_PENDING_FIELD);
     }
 
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendVerificationByLinkEmail(String uid) {
         sendVerificationEmail(uid);
     }
@@ -9,6 +9,7 @@ import com.google.gson.JsonObject;
 import com.thermofisher.cdcam.builders.GSRequestFactory;
 import com.thermofisher.cdcam.enums.aws.CdcamSecrets;
 import com.thermofisher.cdcam.enums.cdc.APIMethods;
+import com.thermofisher.cdcam.enums.cdc.AccountProjection;
 import com.thermofisher.cdcam.enums.cdc.AccountType;
 import com.thermofisher.cdcam.model.cdc.CDCAccount;
 import com.thermofisher.cdcam.model.cdc.CDCNewAccount;
@@ -30,8 +31,8 @@ import java.util.UUID;
 @Slf4j
 @Service
 public class GigyaApi {
-    private String mainCdcSecretKey;
-    private String secondaryDCSecretKey;
+    private volatile String mainCdcSecretKey;
+    private volatile String secondaryDCSecretKey;
 
     @Value("${cdc.secondary.datacenter}")
     private String secondaryApiDomain;
@@ -52,6 +53,11 @@ public class GigyaApi {
     SecretsService secretsService;
 
     @PostConstruct
+    public void init() {
+        setCredentials();
+        secretsService.addListener(this::setCredentials);
+    }
+
     public void setCredentials() {
         try {
             if (env.equals("local") || env.equals("test")) return;
@@ -81,29 +87,21 @@ public class GigyaApi {
     }
 
     public GSResponse getAccount(String uid) {
-        try {
-            String apiMethod = APIMethods.GET.getValue();
-            log.info(String.format("%s triggered. UID: %s", apiMethod, uid));
-
-            GSRequest request = GSRequestFactory.create(mainApiKey, mainCdcSecretKey, mainApiDomain, apiMethod);
-            request.setParam("UID", uid);
-            request.setParam("include", "emails,profile,data,password,userInfo,regSource,identities");
-            request.setParam("extraProfileFields", "username,locale,work");
-            return request.send();
-        } catch (Exception e) {
-            log.error(String.format("An error occurred while retrieving an account. UID: %s. Error: %s", uid, Utils.stackTraceToString(e)));
-            return null;
-        }
+        return getAccount(uid, AccountProjection.PROFILE);
     }
 
     public GSResponse getAccountV2(String uid) {
+        return getAccount(uid, AccountProjection.PROFILE);
+    }
+
+    public GSResponse getAccount(String uid, AccountProjection projection) {
         try {
             String apiMethod = APIMethods.GET.getValue();
-            log.info(String.format("%s triggered. UID: %s", apiMethod, uid));
+            log.info(String.format("%s triggered. UID: %s. Projection: %s", apiMethod, uid, projection));
 
             GSRequest request = GSRequestFactory.create(mainApiKey, mainCdcSecretKey, mainApiDomain, apiMethod);
             request.setParam("UID", uid);
-            request.setParam("include", "emails,profile,data,password,userInfo,preferences,regSource,identities");
+            request.setParam("include", projection.getInclude());
             request.setParam("extraProfileFields", "username,locale,work");
             return request.send();
         } catch (Exception e) {
@@ -208,10 +206,17 @@ public class GigyaApi {
         }
 
         GSObject data = initRegResponse.getData();
+        return registerLiteAccount(liteAccountDTO, getRegToken(data));
+    }
+
+    /**
+     * Registers a lite account with a registration token obtained beforehand, see {@link #initLiteRegistration()}.
+     */
+    public GSResponse registerLiteAccount(LiteAccountDTO liteAccountDTO, String regToken) throws JSONException {
         String apiMethod = APIMethods.SET_ACCOUNT_INFO.getValue();
 
         GSRequest request = GSRequestFactory.create(mainApiKey, mainCdcSecretKey, mainApiDomain, apiMethod);
-        request.setParam("regToken", getRegToken(data));
+        request.setParam("regToken", regToken);
         request.setParam("profile", generateProfileJson(liteAccountDTO));
         request.setParam("data", generateDataJson(liteAccountDTO));
 
@@ -231,15 +236,27 @@ public class GigyaApi {
         }
 
         GSObject data = initRegResponse.getData();
+        return registerLiteAccount(email, getRegToken(data));
+    }
+
+    /**
+     * Registers an email only lite account with a registration token obtained beforehand, see {@link #initLiteRegistration()}.
+     */
+    public GSResponse registerLiteAccount(String email, String regToken) {
         String apiMethod = APIMethods.SET_ACCOUNT_INFO.getValue();
 
         GSRequest request = GSRequestFactory.create(mainApiKey, mainCdcSecretKey, mainApiDomain, apiMethod);
-        request.setParam("regToken", getRegToken(data));
+        request.setParam("regToken", regToken);
         request.setParam("profile", String.format("{\"email\":\"%s\"}", email));
 
         return request.send();
     }
 
+    public GSResponse initLiteRegistration() {
+        final boolean isLite = true;
+        return initRegistration(isLite);
+    }
+
     public GSResponse search(String query, AccountType accountType, String apiDomain) {
         String apiMethod = APIMethods.SEARCH.getValue();
         log.info(String.format("%s triggered. Query: %s", apiMethod, query));
@@ -255,6 +272,30 @@ public class GigyaApi {
         return request.send();
     }
 
+    /**
+     * Sends a page of a cursor-based accounts.search. The first page opens the cursor with {@code query}; the next ones
+     * are requested with the {@code cursorId} returned as {@code nextCursorId} by the previous page.
+     */
+    public GSResponse searchWithCursor(String query, String cursorId, AccountType accountType, String apiDomain) {
+        String apiMethod = APIMethods.SEARCH.getValue();
+        GSRequest request = buildGSRequest(apiMethod, apiDomain);
+        request.setParam("accountTypes", accountType.getValue());
+        if (cursorId == null) {
+            log.info(String.format("%s triggered. Query: %s", apiMethod, query));
+            request.setParam("query", query);
+            request.setParam("openCursor", true);
+        } else {
+            log.info(String.format("%s triggered. Next page requested.", apiMethod));
+            request.setParam("cursorId", cursorId);
+        }
+
+        String context = String.format("search/%s", UUID.randomUUID().toString());
+        request.setParam("context", context);
+        log.info(String.format("%s called. Context: %s", apiMethod, context));
+
+        return request.send();
+    }
+
     public GSResponse register(CDCNewAccount newAccount) {
         try {
             String apiMethod = APIMethods.REGISTER.getValue();
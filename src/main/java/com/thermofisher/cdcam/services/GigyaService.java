@@ -2,6 +2,7 @@ package com.thermofisher.cdcam.services;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -12,6 +13,9 @@ import com.gigya.socialize.GSResponse;
 import com.google.gson.Gson;
 import com.thermofisher.cdcam.builders.AccountBuilder;
 import com.thermofisher.cdcam.builders.IdentityProviderBuilder;
+import com.thermofisher.cdcam.config.CDCExecutorConfig;
+import com.thermofisher.cdcam.config.CacheConfig;
+import com.thermofisher.cdcam.enums.cdc.AccountProjection;
 import com.thermofisher.cdcam.enums.cdc.AccountType;
 import com.thermofisher.cdcam.enums.cdc.DataCenter;
 import com.thermofisher.cdcam.enums.cdc.GigyaCodes;
@@ -31,22 +35,35 @@ import com.thermofisher.cdcam.model.cdc.OpenIdRelyingParty;
 import com.thermofisher.cdcam.model.cdc.SearchResponse;
 import com.thermofisher.cdcam.model.dto.LiteAccountDTO;
 import com.thermofisher.cdcam.model.identityProvider.IdentityProviderResponse;
+import com.thermofisher.cdcam.utils.SingleFlight;
 import com.thermofisher.cdcam.utils.Utils;
 import com.thermofisher.cdcam.utils.cdc.CDCUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InvalidClassException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -55,6 +72,11 @@ public class GigyaService {
     private final AccountBuilder accountBuilder = new AccountBuilder();
     private final IdentityProviderBuilder identityProviderBuilder = new IdentityProviderBuilder();
     private final boolean SEND_EMAIL = false;
+    private static final int ACCOUNT_INFO_VERSION_STRIPES = 1024;
+    private final AtomicLongArray accountInfoVersions = new AtomicLongArray(ACCOUNT_INFO_VERSION_STRIPES);
+    private final SingleFlight<String, GSResponse> accountRequests = new SingleFlight<>();
+    private final SingleFlight<String, GSResponse> searchRequests = new SingleFlight<>();
+    private final SingleFlight<String, GSResponse> rpRequests = new SingleFlight<>();
 
     @Autowired
     GigyaApi gigyaApi;
@@ -62,6 +84,16 @@ public class GigyaService {
     @Autowired(required = false)
     CDCIdentityProviderService cdcIdentityProviderService;
 
+    @Autowired
+    @Qualifier(CDCExecutorConfig.CDC_EXECUTOR)
+    Executor cdcExecutor;
+
+    @Autowired(required = false)
+    CacheManager cacheManager;
+
+    @Autowired(required = false)
+    RegTokenPool regTokenPool;
+
     @Value("${cdc.main.datacenter}")
     private String mainApiDomain;
 
@@ -80,8 +112,18 @@ public class GigyaService {
     @Value("${env.name}")
     private String env;
 
+    @Value("${cdc.search.concurrent-datacenters:false}")
+    private boolean isConcurrentDataCenterSearchEnabled;
+
+    @Value("${cdc.search.batch-size:50}")
+    private int searchBatchSize;
+
+    @Value("${cdc.search.batch-max-results:1000}")
+    private int searchBatchMaxResults;
+
     public void changePassword(String uid, String newPassword, String oldPassword) throws CustomGigyaErrorException {
         GSResponse gsResponse = gigyaApi.changePassword(uid, newPassword, oldPassword);
+        evictAccountInfo(uid);
 
         if (isErrorResponse(gsResponse)) {
             String error = String.format("%s, %s. Error code: %d", gsResponse.getErrorMessage(), gsResponse.getErrorDetails(), gsResponse.getErrorCode());
@@ -89,15 +131,71 @@ public class GigyaService {
         }
     }
 
+    /**
+     * Retrieve the account info of a UID. When the account info cache is available the account is read through it;
+     * callers always get their own copy, so it is safe to modify the returned object.
+     */
     public AccountInfo getAccountInfo(String uid) throws CustomGigyaErrorException {
+        Cache cache = getAccountInfoCache();
+        int versionStripe = getAccountInfoVersionStripe(uid);
+        if (cache == null) {
+            return loadAccountInfo(uid, accountInfoVersions.get(versionStripe));
+        }
+
+        AccountInfo cachedAccountInfo = cache.get(uid, AccountInfo.class);
+        if (cachedAccountInfo != null) {
+            return cachedAccountInfo.toBuilder().build();
+        }
+
+        long version = accountInfoVersions.get(versionStripe);
+        AccountInfo accountInfo = loadAccountInfo(uid, version);
+        // Skip caching when the account was evicted during the load, it may have changed meanwhile.
+        if (accountInfo != null && version == accountInfoVersions.get(versionStripe)) {
+            cache.put(uid, accountInfo.toBuilder().build());
+        }
+        return accountInfo;
+    }
+
+    /**
+     * Remove an account from the account info cache. Must be called whenever the account is modified in CDC. Reads
+     * started after the eviction no longer join the loads that were already in flight.
+     */
+    public void evictAccountInfo(String uid) {
+        if (uid == null) return;
+
+        accountInfoVersions.incrementAndGet(getAccountInfoVersionStripe(uid));
+        Cache cache = getAccountInfoCache();
+        if (cache != null) {
+            cache.evict(uid);
+        }
+    }
+
+    /**
+     * Evictions are versioned per stripe of UIDs rather than per UID, so the versions take constant memory. An
+     * eviction only stops the in-flight loads of the UIDs sharing its stripe from being cached or joined.
+     */
+    private static int getAccountInfoVersionStripe(String uid) {
+        int hash = uid.hashCode();
+        return (hash ^ (hash >>> 16)) & (ACCOUNT_INFO_VERSION_STRIPES - 1);
+    }
+
+    private Cache getAccountInfoCache() {
+        return cacheManager != null ? cacheManager.getCache(CacheConfig.ACCOUNT_INFO_CACHE) : null;
+    }
+
+    /**
+     * The stripe version is part of the single-flight key, so a load started before a write is never shared with the
+     * callers that read after it.
+     */
+    private AccountInfo loadAccountInfo(String uid, long version) throws CustomGigyaErrorException {
         if (isNewMarketingConsentEnabled) {
-            return getAccountInfoV2(uid);
+            return getAccountInfoV2(uid, version);
         }
-        return getAccountInfoV1(uid);
+        return getAccountInfoV1(uid, version);
     }
 
-    private AccountInfo getAccountInfoV1(String uid) throws CustomGigyaErrorException {
-        GSResponse gsResponse = gigyaApi.getAccount(uid);
+    private AccountInfo getAccountInfoV1(String uid, long version) throws CustomGigyaErrorException {
+        GSResponse gsResponse = accountRequests.execute("v1:" + uid + "@" + version, () -> gigyaApi.getAccount(uid));
         if (gsResponse.getErrorCode() == 0) {
             GSObject obj = gsResponse.getData();
             return accountBuilder.getAccountInfo(obj);
@@ -107,8 +205,8 @@ public class GigyaService {
         }
     }
 
-    private AccountInfo getAccountInfoV2(String uid) throws CustomGigyaErrorException {
-        GSResponse gsResponse = gigyaApi.getAccountV2(uid);
+    private AccountInfo getAccountInfoV2(String uid, long version) throws CustomGigyaErrorException {
+        GSResponse gsResponse = accountRequests.execute("v2:" + uid + "@" + version, () -> gigyaApi.getAccountV2(uid));
         if (gsResponse.getErrorCode() == 0) {
             GSObject obj = gsResponse.getData();
             return accountBuilder.getAccountInfoV2(obj);
@@ -118,6 +216,33 @@ public class GigyaService {
         }
     }
 
+    /**
+     * Reads only the account fields of the given projection. Partial accounts are not cached, so
+     * {@link AccountProjection#PROFILE} is served by {@link #getAccountInfo(String)} and its cache.
+     */
+    public AccountInfo getAccountInfo(String uid, AccountProjection projection) throws CustomGigyaErrorException {
+        if (projection == AccountProjection.PROFILE) {
+            return getAccountInfo(uid);
+        }
+
+        GSResponse gsResponse = accountRequests.execute(projection + ":" + uid, () -> gigyaApi.getAccount(uid, projection));
+        if (gsResponse.getErrorCode() == 0) {
+            GSObject obj = gsResponse.getData();
+            return isNewMarketingConsentEnabled ? accountBuilder.getAccountInfoV2(obj) : accountBuilder.getAccountInfo(obj);
+        } else {
+            String error = String.format("An error occurred while retrieving account info. UID: %s. Projection: %s. Error details: %s Error code: %s", uid, projection, gsResponse.getErrorDetails(), gsResponse.getErrorCode());
+            throw new CustomGigyaErrorException(error, gsResponse.getErrorCode());
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #getAccountInfo(String)}. Runs on the CDC executor; CDC errors complete the
+     * future exceptionally with a {@link CompletionException} wrapping the {@link CustomGigyaErrorException}.
+     */
+    public CompletableFuture<AccountInfo> getAccountInfoAsync(String uid) {
+        return supplyAsync(() -> getAccountInfo(uid));
+    }
+
     public AccountInfo getAccountInfoByEmail(String email) throws IOException, CustomGigyaErrorException {
         String uid = this.getUIDByEmail(email);
 
@@ -142,6 +267,7 @@ public class GigyaService {
         String usernameJson = (username != null) ? username : "";
 
         GSResponse cdcResponse = gigyaApi.setUserInfo(uid, dataJson, profileJson, removeLoginEmailsJson, usernameJson);
+        evictAccountInfo(uid);
 
         ObjectNode response = JsonNodeFactory.instance.objectNode();
         if (cdcResponse.getErrorCode() == GigyaCodes.SUCCESS.getValue()) {
@@ -172,6 +298,7 @@ public class GigyaService {
 
         log.info(String.format("A process has started to change the account status for a user. UID: %s", uid));
         GSResponse changeStatusResponse = gigyaApi.changeAccountStatus(uid, false);
+        evictAccountInfo(uid);
 
         if (changeStatusResponse.getErrorCode() == 0) {
             return SUCCESSFUL_UPDATE;
@@ -211,19 +338,19 @@ public class GigyaService {
     }
 
     private GSResponse getSearchResultByUsername(String userName, String apiDomain) throws JsonProcessingException {
-        String query = String.format("SELECT emails,loginIDs FROM accounts WHERE " +
+        String query = String.format("SELECT " + AccountProjection.NOTIFICATION.getFields() + " FROM accounts WHERE " +
                 "profile.username CONTAINS '%1$s' OR " +
                 "loginIDs.username CONTAINS '%1$s' OR " +
                 "loginIDs.emails CONTAINS '%1$s' OR " +
                 "loginIDs.unverifiedEmails CONTAINS '%1$s'", userName);
-        return gigyaApi.search(query, AccountType.FULL, apiDomain);
+        return coalescedSearch(query, AccountType.FULL, apiDomain);
     }
 
     public String getUsernameByEmail(String email) {
         String username = "";
         try {
             String query = String.format("select profile.username from accounts where emails.verified contains '%1$s' or emails.unverified contains '%1$s'", email);
-            GSResponse gsResponse = gigyaApi.search(query, AccountType.FULL, mainApiDomain);
+            GSResponse gsResponse = coalescedSearch(query, AccountType.FULL, mainApiDomain);
 
             if (gsResponse.getErrorCode() == 0) {
                 GSObject obj = gsResponse.getData();
@@ -241,9 +368,28 @@ public class GigyaService {
         return username;
     }
 
+    /**
+     * Resolves the account details email notifications need with a single search, instead of looking up the UID and
+     * then the full account. Returns null when no account has the email.
+     */
+    public AccountInfo getNotificationAccountByEmail(String email) throws IOException, CustomGigyaErrorException {
+        String query = String.format("SELECT " + AccountProjection.NOTIFICATION.getFields() + " FROM accounts WHERE emails.verified CONTAINS '%1$s' OR emails.unverified CONTAINS '%1$s'", email);
+        GSResponse gsResponse = coalescedSearch(query, AccountType.FULL, mainApiDomain);
+        if (gsResponse.getErrorCode() != 0) {
+            throw new CustomGigyaErrorException(String.format("Account search by email failed. Error: %s", gsResponse.getErrorMessage()), gsResponse.getErrorCode());
+        }
+        CDCSearchResponse cdcSearchResponse = new ObjectMapper().readValue(gsResponse.getResponseText(), CDCSearchResponse.class);
+
+        if (cdcSearchResponse.getResults() == null || cdcSearchResponse.getResults().isEmpty()) {
+            log.warn(String.format("Could not match an account with that email on CDC. email: %s. Error: %s", email, gsResponse.getErrorMessage()));
+            return null;
+        }
+        return AccountBuilder.buildNotificationAccount(cdcSearchResponse.getResults().get(0));
+    }
+
     public String getUIDByEmail(String email) throws IOException {
         String query = String.format("select UID from accounts where emails.verified contains '%1$s' or emails.unverified contains '%1$s'", email);
-        GSResponse gsResponse = gigyaApi.search(query, AccountType.FULL, mainApiDomain);
+        GSResponse gsResponse = coalescedSearch(query, AccountType.FULL, mainApiDomain);
         CDCSearchResponse cdcSearchResponse = new ObjectMapper().readValue(gsResponse.getResponseText(), CDCSearchResponse.class);
 
         for (CDCAccount result : cdcSearchResponse.getResults()) {
@@ -254,11 +400,23 @@ public class GigyaService {
     }
 
     public String resetPasswordRequest(String username) throws CustomGigyaErrorException, LoginIdDoesNotExistException, GSKeyNotFoundException, JsonProcessingException {
-        log.info(String.format("Reset password request triggered for username: %s.", username));
+        return requestPasswordReset(username, searchAccountsByUsername(username));
+    }
 
+    /**
+     * Searches the accounts matching the username, without side effects, so it can run before the request is known
+     * to go ahead.
+     */
+    public CDCSearchResponse searchAccountsByUsername(String username) throws JsonProcessingException {
         GSResponse searchResponse = getSearchResultByUsername(username, mainApiDomain);
-        String jSonSearch = searchResponse.getResponseText();
-        CDCSearchResponse cdcSearchResponse = new ObjectMapper().readValue(jSonSearch, CDCSearchResponse.class);
+        return new ObjectMapper().readValue(searchResponse.getResponseText(), CDCSearchResponse.class);
+    }
+
+    /**
+     * Requests a password reset token for the first account of a {@link #searchAccountsByUsername(String)} result.
+     */
+    public String requestPasswordReset(String username, CDCSearchResponse cdcSearchResponse) throws CustomGigyaErrorException, LoginIdDoesNotExistException, GSKeyNotFoundException {
+        log.info(String.format("Reset password request triggered for username: %s.", username));
 
         for (CDCAccount result : cdcSearchResponse.getResults()) {
             String loginID = "";
@@ -306,6 +464,10 @@ public class GigyaService {
     }
 
     public boolean isAvailableLoginId(String loginId) throws CustomGigyaErrorException, InvalidClassException, GSKeyNotFoundException, NullPointerException, JsonProcessingException {
+        if (isConcurrentDataCenterSearchEnabled && CDCUtils.isSecondaryDCSupported(env)) {
+            return isAvailableLoginIdInBothDCConcurrently(loginId);
+        }
+
         boolean isAvailableLoginId = false;
         isAvailableLoginId = isAvailableLoginId(loginId, mainApiDomain);
         if (!isAvailableLoginId) {
@@ -318,6 +480,22 @@ public class GigyaService {
         return isAvailableLoginId;
     }
 
+    private boolean isAvailableLoginIdInBothDCConcurrently(String loginId) throws CustomGigyaErrorException, InvalidClassException, GSKeyNotFoundException, JsonProcessingException {
+        CompletableFuture<Boolean> mainDCCheck = supplyAsync(() -> isAvailableLoginId(loginId, mainApiDomain));
+        CompletableFuture<Boolean> secondaryDCCheck = supplyAsync(() -> isAvailableLoginId(loginId, secondaryApiDomain));
+
+        try {
+            boolean isAvailableInMainDC = awaitLoginIdCheck(mainDCCheck);
+            if (!isAvailableInMainDC) {
+                return false;
+            }
+            return awaitLoginIdCheck(secondaryDCCheck);
+        } finally {
+            // Only skips the check if it has not started yet. CDC requests cannot be interrupted once sent.
+            secondaryDCCheck.cancel(false);
+        }
+    }
+
     private boolean isAvailableLoginId(String loginId, String apiDomain) throws CustomGigyaErrorException, InvalidClassException, GSKeyNotFoundException, NullPointerException, JsonProcessingException {
         final String TOTAL_ACOUNT_PARAM = "totalCount";
         GSResponse gsResponse = getSearchResultByUsername(loginId, apiDomain);
@@ -369,7 +547,7 @@ public class GigyaService {
     }
 
     public CDCSearchResponse search(String query, AccountType accountType, String apiDomain) throws CustomGigyaErrorException, IOException {
-        GSResponse gsResponse = gigyaApi.search(query, accountType, apiDomain);
+        GSResponse gsResponse = coalescedSearch(query, accountType, apiDomain);
 
         if (isErrorResponse(gsResponse)) {
             log.error(String.format("[CDC ERROR] - Error on accounts.search. Domain: %s. Code: %d", apiDomain, gsResponse.getErrorCode()));
@@ -384,9 +562,53 @@ public class GigyaService {
         return new ObjectMapper().readValue(gsResponse.getResponseText(), CDCSearchResponse.class);
     }
 
+    /**
+     * Asynchronous variant of {@link #search(String, AccountType, String)}.
+     */
+    public CompletableFuture<CDCSearchResponse> searchAsync(String query, AccountType accountType, String apiDomain) {
+        return supplyAsync(() -> search(query, accountType, apiDomain));
+    }
+
+    /**
+     * Walks every result of an accounts.search through a CDC cursor. A page is only requested once {@code onResult} has
+     * handled the previous one, so memory stays bounded by the page size set with {@code LIMIT} in the query.
+     * Returns the number of results read.
+     */
+    public long forEachSearchResult(String query, AccountType accountType, String apiDomain, Consumer<JsonNode> onResult) throws CustomGigyaErrorException, IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        long resultsRead = 0;
+        String cursorId = null;
+
+        do {
+            GSResponse gsResponse = gigyaApi.searchWithCursor(query, cursorId, accountType, apiDomain);
+            if (isErrorResponse(gsResponse)) {
+                log.error(String.format("[CDC ERROR] - Error on accounts.search cursor. Domain: %s. Code: %d. Results read: %d", apiDomain, gsResponse.getErrorCode(), resultsRead));
+                log.error(String.format("[CDC ERROR] - Query: %s", query));
+                log.error(String.format("[CDC ERROR] - Error message: %s", gsResponse.getErrorMessage()));
+                throw new CustomGigyaErrorException(gsResponse.getErrorMessage(), gsResponse.getErrorCode());
+            }
+
+            JsonNode page = mapper.readTree(gsResponse.getResponseText());
+            JsonNode results = page.path("results");
+            for (JsonNode result : results) {
+                onResult.accept(result);
+                resultsRead++;
+            }
+
+            String nextCursorId = page.path("nextCursorId").asText(null);
+            cursorId = results.isEmpty() || Utils.isNullOrEmpty(nextCursorId) ? null : nextCursorId;
+        } while (cursorId != null);
+
+        return resultsRead;
+    }
+
     public SearchResponse searchInBothDC(String email) throws CustomGigyaErrorException, IOException {
         SearchResponse response = SearchResponse.builder().build();
-        String query = String.format("SELECT * FROM accounts WHERE profile.username CONTAINS '%1$s' OR profile.email CONTAINS '%1$s'", email);
+        String query = String.format("SELECT " + AccountProjection.EXISTENCE.getFields() + " FROM accounts WHERE profile.username CONTAINS '%1$s' OR profile.email CONTAINS '%1$s'", email);
+
+        if (isConcurrentDataCenterSearchEnabled && CDCUtils.isSecondaryDCSupported(env)) {
+            return searchInBothDCConcurrently(query);
+        }
 
         CDCSearchResponse cdcSearchResponse = this.search(query, AccountType.FULL_LITE, mainApiDomain);
         response.setCdcSearchResponse(cdcSearchResponse);
@@ -410,8 +632,132 @@ public class GigyaService {
         return response;
     }
 
+    /**
+     * Sends the search to both data centers at once. The main data center result is preferred: when it finds the
+     * account the secondary data center result is discarded, otherwise it is used. Discarding it only skips the
+     * secondary search if it is still waiting for a CDC executor permit; a request already sent runs to completion.
+     */
+    private SearchResponse searchInBothDCConcurrently(String query) throws CustomGigyaErrorException, IOException {
+        SearchResponse response = SearchResponse.builder().build();
+        CompletableFuture<CDCSearchResponse> mainDCSearch = searchAsync(query, AccountType.FULL_LITE, mainApiDomain);
+        CompletableFuture<CDCSearchResponse> secondaryDCSearch = searchAsync(query, AccountType.FULL_LITE, secondaryApiDomain);
+
+        try {
+            CDCSearchResponse cdcSearchResponse = awaitSearch(mainDCSearch);
+            response.setCdcSearchResponse(cdcSearchResponse);
+            if (cdcSearchResponse.getResults().size() > 0) {
+                response.setDataCenter(DataCenter.getEqualsAs(mainDataCenter));
+                return response;
+            }
+
+            cdcSearchResponse = awaitSearch(secondaryDCSearch);
+            response.setCdcSearchResponse(cdcSearchResponse);
+            if (cdcSearchResponse.getResults().size() > 0) {
+                response.setDataCenter(DataCenter.getEqualsAs(secondaryDataCenter));
+            }
+            return response;
+        } finally {
+            secondaryDCSearch.cancel(false);
+        }
+    }
+
+    /**
+     * Batched variant of {@link #searchInBothDC(String)}. Emails are searched in chunks of {@code cdc.search.batch-size}
+     * per accounts.search, first in the main data center and then, only for the emails not found, in the secondary one.
+     * The result is keyed by lower case email. Emails whose chunk failed or was truncated by CDC are left out of the
+     * result so the caller can fall back to {@link #searchInBothDC(String)} for them.
+     */
+    public Map<String, SearchResponse> searchEmailsInBothDC(List<String> emails) {
+        List<String> pendingEmails = emails.stream().filter(Objects::nonNull).map(email -> email.toLowerCase()).distinct().collect(Collectors.toList());
+        Map<String, SearchResponse> responses = new HashMap<>();
+        boolean isSecondaryDCSupported = CDCUtils.isSecondaryDCSupported(env);
+
+        Map<String, List<CDCAccount>> mainDCAccounts = searchByEmails(pendingEmails, mainApiDomain);
+        List<String> notFoundInMainDC = new ArrayList<>();
+        for (String email : pendingEmails) {
+            List<CDCAccount> accounts = mainDCAccounts.get(email);
+            if (accounts == null) continue;
+
+            if (accounts.size() > 0) {
+                responses.put(email, buildSearchResponse(accounts, DataCenter.getEqualsAs(mainDataCenter)));
+            } else if (isSecondaryDCSupported) {
+                notFoundInMainDC.add(email);
+            } else {
+                responses.put(email, buildSearchResponse(accounts, null));
+            }
+        }
+
+        if (notFoundInMainDC.isEmpty()) {
+            return responses;
+        }
+
+        Map<String, List<CDCAccount>> secondaryDCAccounts = searchByEmails(notFoundInMainDC, secondaryApiDomain);
+        for (String email : notFoundInMainDC) {
+            List<CDCAccount> accounts = secondaryDCAccounts.get(email);
+            if (accounts == null) continue;
+
+            DataCenter dataCenter = accounts.size() > 0 ? DataCenter.getEqualsAs(secondaryDataCenter) : null;
+            responses.put(email, buildSearchResponse(accounts, dataCenter));
+        }
+
+        return responses;
+    }
+
+    /**
+     * Searches the accounts of several emails in a data center using one OR query per chunk, and maps every account back
+     * to the emails it matches. Emails of chunks that failed, or whose results exceeded {@code cdc.search.batch-max-results},
+     * are not included in the result.
+     */
+    private Map<String, List<CDCAccount>> searchByEmails(List<String> emails, String apiDomain) {
+        Map<String, List<CDCAccount>> accountsByEmail = new HashMap<>();
+        int batchSize = Math.max(1, searchBatchSize);
+
+        for (int start = 0; start < emails.size(); start += batchSize) {
+            List<String> chunk = emails.subList(start, Math.min(start + batchSize, emails.size()));
+            String conditions = chunk.stream()
+                    .map(email -> String.format("profile.username CONTAINS '%1$s' OR profile.email CONTAINS '%1$s'", email))
+                    .collect(Collectors.joining(" OR "));
+            String query = String.format("SELECT %s FROM accounts WHERE %s LIMIT %d", AccountProjection.EXISTENCE.getFields(), conditions, searchBatchMaxResults);
+
+            try {
+                CDCSearchResponse cdcSearchResponse = this.search(query, AccountType.FULL_LITE, apiDomain);
+                List<CDCAccount> results = cdcSearchResponse.getResults() != null ? cdcSearchResponse.getResults() : new ArrayList<>();
+                if (cdcSearchResponse.getTotalCount() > results.size()) {
+                    log.warn(String.format("Batched search in %s returned %d of %d accounts. Emails of the chunk will be searched one by one.", apiDomain, results.size(), cdcSearchResponse.getTotalCount()));
+                    continue;
+                }
+
+                for (String email : chunk) {
+                    List<CDCAccount> emailAccounts = results.stream().filter(account -> matchesEmail(account, email)).collect(Collectors.toList());
+                    accountsByEmail.put(email, emailAccounts);
+                }
+            } catch (CustomGigyaErrorException | IOException e) {
+                log.warn(String.format("Batched search in %s failed. Emails of the chunk will be searched one by one. %s", apiDomain, e.getMessage()));
+            }
+        }
+
+        return accountsByEmail;
+    }
+
+    private boolean matchesEmail(CDCAccount account, String email) {
+        if (account.getProfile() == null) {
+            return false;
+        }
+        return StringUtils.containsIgnoreCase(account.getProfile().getEmail(), email)
+                || StringUtils.containsIgnoreCase(account.getProfile().getUsername(), email);
+    }
+
+    private SearchResponse buildSearchResponse(List<CDCAccount> accounts, DataCenter dataCenter) {
+        CDCSearchResponse cdcSearchResponse = CDCSearchResponse.builder()
+                .results(accounts)
+                .totalCount(accounts.size())
+                .build();
+        return SearchResponse.builder().cdcSearchResponse(cdcSearchResponse).dataCenter(dataCenter).build();
+    }
+
     public CDCResponseData registerLiteAccount(LiteAccountDTO liteAccountDTO) throws CustomGigyaErrorException, GSKeyNotFoundException, IOException, JSONException {
-        GSResponse gsResponse = gigyaApi.registerLiteAccount(liteAccountDTO);
+        String regToken = takePooledRegToken();
+        GSResponse gsResponse = regToken != null ? gigyaApi.registerLiteAccount(liteAccountDTO, regToken) : gigyaApi.registerLiteAccount(liteAccountDTO);
         CDCResponseData cdcResponseData = new ObjectMapper().readValue(gsResponse.getResponseText(), CDCResponseData.class);
 
         if (isErrorResponse(gsResponse)) {
@@ -431,7 +777,8 @@ public class GigyaService {
     }
 
     public CDCResponseData registerLiteAccount(String email) throws IOException, CustomGigyaErrorException, GSKeyNotFoundException {
-        GSResponse gsResponse = gigyaApi.registerLiteAccount(email);
+        String regToken = takePooledRegToken();
+        GSResponse gsResponse = regToken != null ? gigyaApi.registerLiteAccount(email, regToken) : gigyaApi.registerLiteAccount(email);
         CDCResponseData cdcResponseData = new ObjectMapper().readValue(gsResponse.getResponseText(), CDCResponseData.class);
 
         if (isErrorResponse(gsResponse)) {
@@ -450,8 +797,12 @@ public class GigyaService {
         return cdcResponseData;
     }
 
+    private String takePooledRegToken() {
+        return regTokenPool != null ? regTokenPool.take() : null;
+    }
+
     public OpenIdRelyingParty getRP(String clientId) throws CustomGigyaErrorException, GSKeyNotFoundException {
-        GSResponse gsResponse = gigyaApi.getRP(clientId);
+        GSResponse gsResponse = rpRequests.execute(clientId, () -> gigyaApi.getRP(clientId));
         if (isErrorResponse(gsResponse)) {
             String error = String.format("Error on getRP. Error code: %d. Message: %s.", gsResponse.getErrorCode(), gsResponse.getErrorMessage());
             log.error(error);
@@ -477,6 +828,7 @@ public class GigyaService {
 
     public void updateRequirePasswordCheck(String uid) throws CustomGigyaErrorException {
         GSResponse gsResponse = gigyaApi.updateRequirePasswordCheck(uid);
+        evictAccountInfo(uid);
         if (isErrorResponse(gsResponse)) {
             String error = String.format("Error updating requirePasswordCheck. Error code: %d. Error Message: %s.", gsResponse.getErrorCode(), gsResponse.getErrorMessage());
             throw new CustomGigyaErrorException(error);
@@ -486,12 +838,23 @@ public class GigyaService {
 
     public void setAccountInfo(CDCAccount cdcAccount) throws CustomGigyaErrorException {
         GSResponse gsResponse = gigyaApi.setAccountInfo(cdcAccount);
+        evictAccountInfo(cdcAccount.getUID());
 
         if (isErrorResponse(gsResponse)) {
             throw new CustomGigyaErrorException(gsResponse.getErrorMessage());
         }
     }
 
+    /**
+     * Asynchronous variant of {@link #setAccountInfo(CDCAccount)}.
+     */
+    public CompletableFuture<Void> setAccountInfoAsync(CDCAccount cdcAccount) {
+        return supplyAsync(() -> {
+            setAccountInfo(cdcAccount);
+            return null;
+        });
+    }
+
     public CDCResponse finalizeRegistration(String regToken) throws CustomGigyaErrorException {
         GSResponse gsResponse = gigyaApi.finalizeRegistration(regToken);
         if (isErrorResponse(gsResponse)) {
@@ -509,6 +872,7 @@ public class GigyaService {
         }
 
         GSResponse gsResponse = gigyaApi.setAccountInfo(gsParams);
+        evictAccountInfo(params.get("UID"));
         if (isErrorResponse(gsResponse)) {
             throw new CustomGigyaErrorException(gsResponse.getErrorMessage());
         }
@@ -516,6 +880,60 @@ public class GigyaService {
         return new Gson().fromJson(gsResponse.getResponseText(), CDCResponse.class);
     }
 
+    /**
+     * Asynchronous variant of {@link #setAccountInfo(Map)}.
+     */
+    public CompletableFuture<CDCResponse> setAccountInfoAsync(Map<String, String> params) {
+        return supplyAsync(() -> setAccountInfo(params));
+    }
+
+    /**
+     * Sends an accounts.search to CDC, sharing the response with any identical search already in flight.
+     */
+    private GSResponse coalescedSearch(String query, AccountType accountType, String apiDomain) {
+        String key = String.join("|", apiDomain, String.valueOf(accountType), query);
+        return searchRequests.execute(key, () -> gigyaApi.search(query, accountType, apiDomain));
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(CDCCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.execute();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, cdcExecutor);
+    }
+
+    private <T> T awaitSearch(CompletableFuture<T> future) throws CustomGigyaErrorException, IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CustomGigyaErrorException) throw (CustomGigyaErrorException) e.getCause();
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private boolean awaitLoginIdCheck(CompletableFuture<Boolean> future) throws CustomGigyaErrorException, InvalidClassException, GSKeyNotFoundException, JsonProcessingException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CustomGigyaErrorException) throw (CustomGigyaErrorException) e.getCause();
+            if (e.getCause() instanceof InvalidClassException) throw (InvalidClassException) e.getCause();
+            if (e.getCause() instanceof GSKeyNotFoundException) throw (GSKeyNotFoundException) e.getCause();
+            if (e.getCause() instanceof JsonProcessingException) throw (JsonProcessingException) e.getCause();
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface CDCCall<T> {
+        T execute() throws Exception;
+    }
+
     private boolean isErrorResponse(GSResponse gsResponse) {
         return gsResponse.getErrorCode() != GigyaCodes.SUCCESS.getValue();
     }
@@ -2,7 +2,13 @@ package com.thermofisher.cdcam.services;
 
 import com.thermofisher.cdcam.model.HttpServiceResponse;
 import com.thermofisher.cdcam.utils.Utils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
@@ -12,17 +18,72 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.util.EntityUtils;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Sends the HTTP requests of the service's external integrations (reCAPTCHA, data protection, invitations) through a
+ * single pooled client, so connections are reused across requests instead of opening a new TLS session every time.
+ */
 @Service
 @Slf4j
-public class HttpService {
+public class HttpService implements MeterBinder {
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
 
+    @Value("${http.client.max-connections:50}")
+    int maxConnections;
+
+    @Value("${http.client.max-connections-per-route:20}")
+    int maxConnectionsPerRoute;
+
+    @Value("${http.client.connect-timeout:PT2S}")
+    Duration connectTimeout;
+
+    @Value("${http.client.read-timeout:PT10S}")
+    Duration readTimeout;
+
+    @Value("${http.client.connection-request-timeout:PT2S}")
+    Duration connectionRequestTimeout;
+
+    @Value("${http.client.idle-eviction:PT30S}")
+    Duration idleEviction;
+
+    @PostConstruct
+    public void init() {
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis())
+                .build();
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEviction.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
 
     public HttpServiceResponse post(String url) {
         JSONObject EMPTY_JSON = new JSONObject();
@@ -93,17 +154,35 @@ public class HttpService {
     }
 
     private HttpServiceResponse execute(HttpUriRequest request) throws IOException, JSONException {
-        CloseableHttpClient httpClient = HttpClients.createDefault();
+        try (CloseableHttpResponse closeableResponse = httpClient.execute(request)) {
+            String responseBody = EntityUtils.toString(closeableResponse.getEntity());
+            Integer statusCode = closeableResponse.getStatusLine().getStatusCode();
+
+            return HttpServiceResponse.builder()
+                    .responseBody(new JSONObject(responseBody))
+                    .status(statusCode)
+                    .closeableHttpResponse(closeableResponse)
+                    .build();
+        }
+    }
 
-        CloseableHttpResponse closeableResponse = httpClient.execute(request);
-        String responseBody = EntityUtils.toString(closeableResponse.getEntity());
-        Integer statusCode = closeableResponse.getStatusLine().getStatusCode();
-        httpClient.close();
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("http.client.connections.leased", this, service -> service.getPoolStats().getLeased())
+                .description("Outbound HTTP connections currently in use")
+                .register(registry);
+        Gauge.builder("http.client.connections.available", this, service -> service.getPoolStats().getAvailable())
+                .description("Idle outbound HTTP connections kept alive in the pool")
+                .register(registry);
+        Gauge.builder("http.client.connections.pending", this, service -> service.getPoolStats().getPending())
+                .description("Requests waiting for an outbound HTTP connection")
+                .register(registry);
+        Gauge.builder("http.client.connections.max", this, service -> service.getPoolStats().getMax())
+                .description("Maximum outbound HTTP connections")
+                .register(registry);
+    }
 
-        return HttpServiceResponse.builder()
-                .responseBody(new JSONObject(responseBody))
-                .status(statusCode)
-                .closeableHttpResponse(closeableResponse)
-                .build();
+    private PoolStats getPoolStats() {
+        return connectionManager == null ? new PoolStats(0, 0, 0, 0) : connectionManager.getTotalStats();
     }
 }
@@ -0,0 +1,142 @@
+package com.thermofisher.cdcam.services;
+
+import com.gigya.socialize.GSKeyNotFoundException;
+import com.thermofisher.cdcam.config.CDCExecutorConfig;
+import com.thermofisher.cdcam.model.cdc.CustomGigyaErrorException;
+import com.thermofisher.cdcam.model.cdc.JWTPublicKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the CDC webhook signing key in memory, already converted into a {@link PublicKey}.
+ * The key is fetched from CDC when it expires, refreshed in the background shortly before expiring,
+ * and refreshed on demand when a signature does not verify, in case CDC rotated it.
+ */
+@Slf4j
+@Service
+public class JWTPublicKeyService {
+    private final AtomicBoolean isRefreshing = new AtomicBoolean(false);
+    private volatile CachedKey cachedKey;
+    private volatile Instant lastForcedRefresh = Instant.EPOCH;
+    Clock clock = Clock.systemUTC();
+
+    @Autowired
+    GigyaService gigyaService;
+
+    @Autowired
+    @Qualifier(CDCExecutorConfig.CDC_EXECUTOR)
+    Executor cdcExecutor;
+
+    @Value("${cdc.jwt-public-key.ttl:PT1H}")
+    Duration ttl;
+
+    @Value("${cdc.jwt-public-key.refresh-ahead:PT5M}")
+    Duration refreshAhead;
+
+    @Value("${cdc.jwt-public-key.min-forced-refresh-interval:PT30S}")
+    Duration minForcedRefreshInterval;
+
+    /**
+     * Validates the signature of a CDC webhook JWT against the cached key. When validation fails the key is
+     * re-fetched from CDC (at most once every {@code min-forced-refresh-interval}) and, if it changed, the JWT
+     * is validated again.
+     */
+    public boolean isValidSignature(String jwt) throws CustomGigyaErrorException, GSKeyNotFoundException {
+        CachedKey key = getKey();
+        if (JWTValidator.isValidSignature(jwt, key.publicKey)) {
+            return true;
+        }
+
+        if (!shouldForceRefresh()) {
+            return false;
+        }
+
+        log.info("JWT signature not valid with the cached public key. Refreshing the key in case it was rotated.");
+        CachedKey refreshedKey = refresh();
+        if (refreshedKey.isSameKey(key)) {
+            return false;
+        }
+        return JWTValidator.isValidSignature(jwt, refreshedKey.publicKey);
+    }
+
+    public JWTPublicKey getJWTPublicKey() throws CustomGigyaErrorException, GSKeyNotFoundException {
+        return getKey().jwtPublicKey;
+    }
+
+    private CachedKey getKey() throws CustomGigyaErrorException, GSKeyNotFoundException {
+        CachedKey key = cachedKey;
+        Instant now = clock.instant();
+
+        if (key == null || !now.isBefore(key.fetchedAt.plus(ttl))) {
+            synchronized (this) {
+                key = cachedKey;
+                if (key == null || !now.isBefore(key.fetchedAt.plus(ttl))) {
+                    key = fetch();
+                }
+            }
+        } else if (!now.isBefore(key.fetchedAt.plus(ttl).minus(refreshAhead))) {
+            refreshInBackground();
+        }
+
+        return key;
+    }
+
+    private void refreshInBackground() {
+        if (!isRefreshing.compareAndSet(false, true)) return;
+
+        cdcExecutor.execute(() -> {
+            try {
+                refresh();
+            } catch (Exception e) {
+                log.warn(String.format("Background JWT public key refresh failed. The cached key will be used until it expires. %s", e.getMessage()));
+            } finally {
+                isRefreshing.set(false);
+            }
+        });
+    }
+
+    private synchronized boolean shouldForceRefresh() {
+        Instant now = clock.instant();
+        if (now.isBefore(lastForcedRefresh.plus(minForcedRefreshInterval))) {
+            return false;
+        }
+        lastForcedRefresh = now;
+        return true;
+    }
+
+    private synchronized CachedKey refresh() throws CustomGigyaErrorException, GSKeyNotFoundException {
+        return fetch();
+    }
+
+    private CachedKey fetch() throws CustomGigyaErrorException, GSKeyNotFoundException {
+        JWTPublicKey jwtPublicKey = gigyaService.getJWTPublicKey();
+        try {
+            CachedKey key = new CachedKey(jwtPublicKey, JWTValidator.buildPublicKey(jwtPublicKey), clock.instant());
+            cachedKey = key;
+            return key;
+        } catch (GeneralSecurityException e) {
+            String error = String.format("Invalid JWT public key received from CDC: %s", e.getMessage());
+            log.error(error);
+            throw new CustomGigyaErrorException(error);
+        }
+    }
+
+    private record CachedKey(JWTPublicKey jwtPublicKey, PublicKey publicKey, Instant fetchedAt) {
+        boolean isSameKey(CachedKey other) {
+            return Objects.equals(jwtPublicKey.getN(), other.jwtPublicKey.getN())
+                    && Objects.equals(jwtPublicKey.getE(), other.jwtPublicKey.getE());
+        }
+    }
+}
@@ -12,8 +12,7 @@ import org.springframework.stereotype.Service;
 @Service
 public class JWTService {
     private final String JWT_SECRET_NAME = "jwtSecret";
-    private Algorithm algorithm;
-    private JWTVerifier verifier;
+    private volatile JWTSigner signer;
 
     @Value("${env.name}")
     private String env;
@@ -24,16 +23,24 @@ public class JWTService {
     @PostConstruct
     public void setup() throws JSONException {
         if (env.equals("local") || env.equals("test")) return;
+        setSecret();
+        secretsService.addListener(this::setSecret);
+    }
+
+    private void setSecret() throws JSONException {
         String jwtSecret = secretsService.get(JWT_SECRET_NAME);
-        algorithm = Algorithm.HMAC256(jwtSecret);
-        verifier = JWT.require(algorithm).withIssuer("auth0").build();
+        Algorithm algorithm = Algorithm.HMAC256(jwtSecret);
+        signer = new JWTSigner(algorithm, JWT.require(algorithm).withIssuer("auth0").build());
     }
 
     public String create() {
-        return JWT.create().withIssuer("auth0").sign(algorithm);
+        return JWT.create().withIssuer("auth0").sign(signer.algorithm());
     }
 
     public void verify(String token) {
-        verifier.verify(token);
+        signer.verifier().verify(token);
+    }
+
+    private record JWTSigner(Algorithm algorithm, JWTVerifier verifier) {
     }
 }
@@ -0,0 +1,326 @@
+package com.thermofisher.cdcam.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thermofisher.cdcam.enums.LiteRegistrationJobStatus;
+import com.thermofisher.cdcam.model.EECUserV3;
+import com.thermofisher.cdcam.model.LiteRegistrationJob;
+import com.thermofisher.cdcam.model.dto.LiteAccountDTO;
+import com.thermofisher.cdcam.utils.BoundedExecutor;
+import com.thermofisher.cdcam.utils.Utils;
+import com.thermofisher.cdcam.utils.cdc.LiteRegistrationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Runs lite registration jobs in the background. Each job is kept in its own directory under {@code eec.jobs.directory}:
+ * the request, the job state and an append-only NDJSON file with the result of every processed user. Jobs are
+ * processed in chunks of {@code eec.v3.request.limit} users, and unfinished jobs are resumed on startup from the
+ * first user without a result, so users already registered are not sent to CDC again. Finished jobs are deleted
+ * {@code eec.jobs.retention} after their last update.
+ * <p>
+ * Jobs are local to the pod that accepted them. Their status is only available from that pod, so the job endpoints
+ * need a single replica or session affinity. The directory must be on a persistent volume; otherwise a replaced pod
+ * loses its jobs and never resumes them. Sharing the directory between replicas is not supported, because every
+ * replica would resume the same unfinished jobs.
+ */
+@Slf4j
+@Service
+public class LiteRegistrationJobService {
+    private static final String JOB_FILE = "job.json";
+    private static final String REQUEST_FILE = "request.json";
+    private static final String RESULTS_FILE = "results.ndjson";
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, LiteRegistrationJob> jobs = new ConcurrentHashMap<>();
+    private volatile boolean isShuttingDown = false;
+    private ScheduledExecutorService cleaner;
+    Executor jobExecutor;
+
+    @Autowired
+    LiteRegistrationService liteRegistrationService;
+
+    @Value("${eec.jobs.directory:${java.io.tmpdir}/cdcam/lite-registration-jobs}")
+    String jobsDirectory;
+
+    @Value("${eec.jobs.request.limit:10000}")
+    int requestLimit;
+
+    @Value("${eec.jobs.max-concurrent:2}")
+    int maxConcurrentJobs;
+
+    @Value("${eec.v3.request.limit}")
+    int chunkSize;
+
+    @Value("${eec.jobs.retention:PT24H}")
+    Duration retention;
+
+    @Value("${eec.jobs.cleanup-interval:PT1H}")
+    Duration cleanupInterval;
+
+    @PostConstruct
+    public void init() {
+        jobExecutor = new BoundedExecutor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("lite-registration-job-", 0).factory()), maxConcurrentJobs);
+        if (Utils.isTemporaryDirectory(jobsDirectory)) {
+            log.warn(String.format("Lite registration jobs are kept in the temporary directory %s. They will be lost if the pod is replaced.", jobsDirectory));
+        }
+        resumeJobs();
+        removeExpiredJobs();
+
+        cleaner = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("lite-registration-job-cleaner").factory());
+        cleaner.scheduleWithFixedDelay(this::removeExpiredJobs, cleanupInterval.toMillis(), cleanupInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        isShuttingDown = true;
+        if (cleaner != null) {
+            cleaner.shutdownNow();
+        }
+        if (jobExecutor instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn(String.format("Lite registration job executor did not close cleanly. %s", e.getMessage()));
+            }
+        }
+    }
+
+    public LiteRegistrationJob submit(List<LiteAccountDTO> accounts) throws IllegalArgumentException, IOException {
+        if (Utils.isNullOrEmpty(accounts)) {
+            throw new IllegalArgumentException("No users requested.");
+        } else if (accounts.size() > requestLimit) {
+            throw new IllegalArgumentException(String.format("Requested users exceed request limit: %s.", requestLimit));
+        }
+
+        String now = Instant.now().toString();
+        LiteRegistrationJob job = LiteRegistrationJob.builder()
+                .jobId(UUID.randomUUID().toString())
+                .status(LiteRegistrationJobStatus.PENDING)
+                .totalUsers(accounts.size())
+                .processedUsers(0)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        Path jobDirectory = getJobDirectory(job.getJobId());
+        Files.createDirectories(jobDirectory);
+        mapper.writeValue(jobDirectory.resolve(REQUEST_FILE).toFile(), accounts);
+        save(job);
+
+        jobs.put(job.getJobId(), job);
+        log.info(String.format("Lite registration job %s submitted. %d users requested.", job.getJobId(), accounts.size()));
+        jobExecutor.execute(() -> process(job));
+
+        return snapshot(job);
+    }
+
+    /**
+     * Returns the current state of a job, with the results processed so far when {@code includeResults} is set,
+     * or {@code null} when the job does not exist.
+     */
+    public LiteRegistrationJob getJob(String jobId, boolean includeResults) throws IOException {
+        LiteRegistrationJob job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+
+        LiteRegistrationJob snapshot = snapshot(job);
+        if (includeResults) {
+            snapshot.setResults(readResults(getJobDirectory(jobId)));
+        }
+        return snapshot;
+    }
+
+    void resumeJobs() {
+        Path directory = Paths.get(jobsDirectory);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (Stream<Path> jobDirectories = Files.list(directory)) {
+            jobDirectories.filter(Files::isDirectory).forEach(jobDirectory -> {
+                try {
+                    LiteRegistrationJob job = mapper.readValue(jobDirectory.resolve(JOB_FILE).toFile(), LiteRegistrationJob.class);
+                    jobs.put(job.getJobId(), job);
+                    if (!job.getStatus().isFinished()) {
+                        log.info(String.format("Resuming lite registration job %s. %d of %d users already processed.", job.getJobId(), job.getProcessedUsers(), job.getTotalUsers()));
+                        jobExecutor.execute(() -> process(job));
+                    }
+                } catch (IOException e) {
+                    log.error(String.format("Lite registration job in %s could not be loaded. %s", jobDirectory, e.getMessage()));
+                }
+            });
+        } catch (IOException e) {
+            log.error(String.format("Lite registration jobs could not be listed from %s. %s", directory, e.getMessage()));
+        }
+    }
+
+    /**
+     * Deletes the finished jobs last updated more than {@code eec.jobs.retention} ago, with their request and results.
+     */
+    void removeExpiredJobs() {
+        Instant expiredBefore = Instant.now().minus(retention);
+        for (LiteRegistrationJob job : jobs.values()) {
+            LiteRegistrationJob snapshot = snapshot(job);
+            if (!snapshot.getStatus().isFinished() || Instant.parse(snapshot.getUpdatedAt()).isAfter(expiredBefore)) continue;
+
+            jobs.remove(snapshot.getJobId());
+            try {
+                FileSystemUtils.deleteRecursively(getJobDirectory(snapshot.getJobId()));
+                log.info(String.format("Lite registration job %s removed. Finished at %s.", snapshot.getJobId(), snapshot.getUpdatedAt()));
+            } catch (IOException e) {
+                log.warn(String.format("Lite registration job %s could not be deleted. %s", snapshot.getJobId(), e.getMessage()));
+            }
+        }
+    }
+
+    private void process(LiteRegistrationJob job) {
+        Path jobDirectory = getJobDirectory(job.getJobId());
+
+        try {
+            List<LiteAccountDTO> accounts = mapper.readValue(jobDirectory.resolve(REQUEST_FILE).toFile(), new TypeReference<List<LiteAccountDTO>>() {});
+            int processedUsers = countResults(jobDirectory);
+            update(job, LiteRegistrationJobStatus.RUNNING, processedUsers, null);
+
+            try (BufferedWriter writer = Files.newBufferedWriter(jobDirectory.resolve(RESULTS_FILE), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (int start = processedUsers; start < accounts.size(); start += chunkSize) {
+                    if (isShuttingDown) {
+                        log.info(String.format("Lite registration job %s paused at %d users. It will be resumed on the next startup.", job.getJobId(), start));
+                        return;
+                    }
+
+                    List<LiteAccountDTO> chunk = accounts.subList(start, Math.min(start + chunkSize, accounts.size()));
+                    AtomicInteger savedResults = new AtomicInteger();
+                    liteRegistrationService.registerLiteAccounts(chunk, user -> {
+                        appendResult(writer, user);
+                        savedResults.incrementAndGet();
+                    });
+                    if (savedResults.get() != chunk.size()) {
+                        throw new IOException(String.format("Only %d of %d results of the chunk starting at %d could be saved.", savedResults.get(), chunk.size(), start));
+                    }
+                    update(job, LiteRegistrationJobStatus.RUNNING, start + chunk.size(), null);
+                }
+            }
+
+            update(job, LiteRegistrationJobStatus.COMPLETED, job.getTotalUsers(), null);
+            log.info(String.format("Lite registration job %s completed. %d users processed.", job.getJobId(), job.getTotalUsers()));
+        } catch (Exception e) {
+            log.error(String.format("Lite registration job %s failed. %s", job.getJobId(), Utils.stackTraceToString(e)));
+            try {
+                update(job, LiteRegistrationJobStatus.FAILED, job.getProcessedUsers(), e.getMessage());
+            } catch (IOException saveException) {
+                log.error(String.format("Lite registration job %s state could not be saved. %s", job.getJobId(), saveException.getMessage()));
+            }
+        }
+    }
+
+    private void appendResult(BufferedWriter writer, EECUserV3 user) {
+        try {
+            writer.write(mapper.writeValueAsString(user));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Counts the results already written, dropping a last line left incomplete by a crash.
+     */
+    private int countResults(Path jobDirectory) throws IOException {
+        Path resultsFile = jobDirectory.resolve(RESULTS_FILE);
+        if (!Files.exists(resultsFile)) {
+            return 0;
+        }
+
+        byte[] content = Files.readAllBytes(resultsFile);
+        int lines = 0;
+        int completeLength = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] == '\n') {
+                lines++;
+                completeLength = i + 1;
+            }
+        }
+
+        if (completeLength < content.length) {
+            try (RandomAccessFile file = new RandomAccessFile(resultsFile.toFile(), "rw")) {
+                file.setLength(completeLength);
+            }
+        }
+        return lines;
+    }
+
+    private List<EECUserV3> readResults(Path jobDirectory) throws IOException {
+        Path resultsFile = jobDirectory.resolve(RESULTS_FILE);
+        List<EECUserV3> results = new ArrayList<>();
+        if (!Files.exists(resultsFile)) {
+            return results;
+        }
+
+        try (Stream<String> lines = Files.lines(resultsFile, StandardCharsets.UTF_8)) {
+            for (String line : (Iterable<String>) lines::iterator) {
+                if (!line.isBlank()) {
+                    results.add(mapper.readValue(line, EECUserV3.class));
+                }
+            }
+        }
+        return results;
+    }
+
+    private void update(LiteRegistrationJob job, LiteRegistrationJobStatus status, int processedUsers, String error) throws IOException {
+        synchronized (job) {
+            job.setStatus(status);
+            job.setProcessedUsers(processedUsers);
+            job.setError(error);
+            job.setUpdatedAt(Instant.now().toString());
+            save(job);
+        }
+    }
+
+    private void save(LiteRegistrationJob job) throws IOException {
+        Path jobDirectory = getJobDirectory(job.getJobId());
+        Path temporaryFile = jobDirectory.resolve(JOB_FILE + ".tmp");
+        mapper.writeValue(temporaryFile.toFile(), job);
+        Files.move(temporaryFile, jobDirectory.resolve(JOB_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private LiteRegistrationJob snapshot(LiteRegistrationJob job) {
+        synchronized (job) {
+            return job.toBuilder().build();
+        }
+    }
+
+    private Path getJobDirectory(String jobId) {
+        return Paths.get(jobsDirectory, jobId);
+    }
+}
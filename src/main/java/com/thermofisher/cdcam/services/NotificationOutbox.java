@@ -0,0 +1,366 @@
+package com.thermofisher.cdcam.services;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.sns.model.MessageAttributeValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thermofisher.cdcam.aws.SNSHandler;
+import com.thermofisher.cdcam.utils.Utils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable outbox for SNS notifications. Notifications are appended to a local log and fsync'd before the request goes
+ * on, and a background relay publishes them to SNS in the order they were appended, which keeps the notifications of
+ * each UID in order. The relay position is checkpointed after every delivery, so notifications appended before a crash
+ * are published after the restart. Messages that SNS keeps rejecting as invalid, and records that cannot be decoded,
+ * are moved to a dead-letter file. The outbox is only durable on a persistent volume, so
+ * {@code notifications.outbox.directory} has no default and startup fails when it is inside {@code java.io.tmpdir}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "notifications.outbox.enabled", havingValue = "true")
+public class NotificationOutbox implements MeterBinder {
+    private static final String LOG_FILE = "outbox.log";
+    private static final String CHECKPOINT_FILE = "outbox.checkpoint";
+    private static final String DEAD_LETTER_FILE = "outbox.dead.ndjson";
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Object appendLock = new Object();
+    private final Semaphore appended = new Semaphore(0);
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong deliveryRetries = new AtomicLong();
+    private volatile boolean isShuttingDown = false;
+    private volatile long relayOffset;
+    private FileChannel logChannel;
+    private Thread relay;
+
+    @Autowired
+    SNSHandler snsHandler;
+
+    @Value("${notifications.outbox.directory}")
+    String outboxDirectory;
+
+    @Value("${notifications.outbox.max-attempts:5}")
+    int maxAttempts;
+
+    @Value("${notifications.outbox.retry-backoff:PT1S}")
+    Duration retryBackoff;
+
+    @Value("${notifications.outbox.max-retry-backoff:PT1M}")
+    Duration maxRetryBackoff;
+
+    @Value("${notifications.outbox.poll-interval:PT1S}")
+    Duration pollInterval;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (Utils.isNullOrEmpty(outboxDirectory)) {
+            throw new IllegalStateException("The notification outbox is enabled without a directory. Set notifications.outbox.directory to a persistent volume.");
+        }
+        if (Utils.isTemporaryDirectory(outboxDirectory)) {
+            throw new IllegalStateException(String.format("The notification outbox directory %s is temporary. Set notifications.outbox.directory to a persistent volume.", outboxDirectory));
+        }
+        open();
+        relay = Thread.ofVirtual().name("notification-outbox-relay").start(this::relayLoop);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        isShuttingDown = true;
+        appended.release();
+        if (relay != null) {
+            relay.join(pollInterval.multipliedBy(5).toMillis());
+        }
+        synchronized (appendLock) {
+            logChannel.close();
+        }
+    }
+
+    /**
+     * Appends a notification to the outbox. Returns {@code true} once the notification is on disk, or {@code false}
+     * when it could not be written, in which case the caller should publish it directly.
+     */
+    public boolean append(String message, String snsTopic, Map<String, MessageAttributeValue> messageAttributes) {
+        if (isShuttingDown) return false;
+
+        try {
+            byte[] record = mapper.writeValueAsBytes(OutboxRecord.build(message, snsTopic, messageAttributes));
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + record.length);
+            buffer.putInt(record.length).put(record).flip();
+
+            synchronized (appendLock) {
+                while (buffer.hasRemaining()) {
+                    logChannel.write(buffer);
+                }
+                logChannel.force(false);
+            }
+            appended.release();
+            return true;
+        } catch (IOException e) {
+            log.error(String.format("Notification to topic %s could not be written to the outbox. %s", snsTopic, e.getMessage()));
+            return false;
+        }
+    }
+
+    public long getPendingBytes() {
+        try {
+            return Math.max(0, logChannel.size() - relayOffset);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    void open() throws IOException {
+        Path directory = Paths.get(outboxDirectory);
+        Files.createDirectories(directory);
+        logChannel = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        long checkpoint = Files.exists(checkpointFile) ? Long.parseLong(Files.readString(checkpointFile).trim()) : 0;
+        relayOffset = Math.max(0, Math.min(checkpoint, logChannel.size()));
+        if (relayOffset != checkpoint) {
+            log.warn(String.format("Notification outbox checkpoint %d is outside the log. The relay will resume at %d.", checkpoint, relayOffset));
+        }
+        long validLength = findValidLength(relayOffset);
+        if (validLength < logChannel.size()) {
+            log.warn(String.format("Notification outbox has an incomplete record at %d. It will be discarded.", validLength));
+            logChannel.truncate(validLength);
+        }
+        logChannel.position(logChannel.size());
+
+        long pendingBytes = logChannel.size() - relayOffset;
+        if (pendingBytes > 0) {
+            log.info(String.format("Notification outbox has %d bytes of notifications pending from a previous run.", pendingBytes));
+        }
+    }
+
+    /**
+     * Publishes the pending notifications until the log is drained. Returns the number of notifications handled.
+     */
+    int relayPending() throws IOException {
+        int handled = 0;
+        OutboxEntry entry;
+        while (!isShuttingDown && (entry = readEntry(relayOffset)) != null) {
+            if (entry.record() == null) {
+                deadLetter(entry.body(), relayOffset);
+            } else if (!deliver(entry.record())) {
+                return handled;
+            }
+            relayOffset = entry.nextOffset();
+            saveCheckpoint(relayOffset);
+            handled++;
+        }
+        compactIfDrained();
+        return handled;
+    }
+
+    private void relayLoop() {
+        while (!isShuttingDown) {
+            try {
+                relayPending();
+                appended.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                appended.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error(String.format("Notification outbox relay failed. It will retry. %s", e.getMessage()));
+                pause(retryBackoff);
+            }
+        }
+    }
+
+    /**
+     * Publishes a single notification, retrying with an exponential backoff. Returns {@code false} when the relay is
+     * shutting down before the notification was published.
+     */
+    private boolean deliver(OutboxRecord record) throws IOException {
+        for (int attempt = 1; !isShuttingDown; attempt++) {
+            try {
+                snsHandler.publishSynchronously(record.message(), record.snsTopic(), record.toMessageAttributes());
+                delivered.incrementAndGet();
+                return true;
+            } catch (AmazonServiceException e) {
+                if (e.getErrorType() == AmazonServiceException.ErrorType.Client && attempt >= maxAttempts) {
+                    deadLetter(record, e.getMessage());
+                    return true;
+                }
+                log.warn(String.format("Notification to topic %s failed on attempt %d. %s", record.snsTopic(), attempt, e.getMessage()));
+            } catch (Exception e) {
+                log.warn(String.format("Notification to topic %s failed on attempt %d. %s", record.snsTopic(), attempt, e.getMessage()));
+            }
+
+            deliveryRetries.incrementAndGet();
+            long backoffMillis = Math.min(maxRetryBackoff.toMillis(), retryBackoff.toMillis() << Math.min(attempt - 1, 16));
+            pause(Duration.ofMillis(backoffMillis));
+        }
+        return false;
+    }
+
+    private void deadLetter(OutboxRecord record, String reason) throws IOException {
+        deadLettered.incrementAndGet();
+        log.error(String.format("Notification to topic %s was rejected by SNS and moved to the dead-letter file. %s", record.snsTopic(), reason));
+        Files.write(Paths.get(outboxDirectory, DEAD_LETTER_FILE), (mapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void deadLetter(byte[] body, long offset) throws IOException {
+        deadLettered.incrementAndGet();
+        log.error(String.format("Notification outbox record at %d could not be decoded and was moved to the dead-letter file.", offset));
+        String line = mapper.createObjectNode().put("undecodable", new String(body, StandardCharsets.UTF_8)).toString();
+        Files.write(Paths.get(outboxDirectory, DEAD_LETTER_FILE), (line + "\n").getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private OutboxEntry readEntry(long offset) throws IOException {
+        long size = logChannel.size();
+        if (offset + RECORD_HEADER_BYTES > size) return null;
+
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        readFully(header, offset);
+        int length = header.flip().getInt();
+        if (length < 0 || offset + RECORD_HEADER_BYTES + length > size) return null;
+
+        ByteBuffer body = ByteBuffer.allocate(length);
+        readFully(body, offset + RECORD_HEADER_BYTES);
+        long nextOffset = offset + RECORD_HEADER_BYTES + length;
+        try {
+            return new OutboxEntry(mapper.readValue(body.array(), OutboxRecord.class), body.array(), nextOffset);
+        } catch (JsonProcessingException e) {
+            return new OutboxEntry(null, body.array(), nextOffset);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (logChannel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of the notification outbox.");
+            }
+        }
+    }
+
+    private long findValidLength(long offset) throws IOException {
+        long size = logChannel.size();
+        while (offset + RECORD_HEADER_BYTES <= size) {
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+            readFully(header, offset);
+            int length = header.flip().getInt();
+            if (length < 0 || offset + RECORD_HEADER_BYTES + length > size) break;
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        return Math.min(offset, size);
+    }
+
+    /**
+     * Empties the log once every notification in it has been published, so it does not grow without bound. The log is
+     * truncated before the checkpoint is reset: after a crash in between, {@link #open()} clamps the checkpoint to the
+     * empty log instead of publishing the drained notifications again.
+     */
+    private void compactIfDrained() throws IOException {
+        synchronized (appendLock) {
+            if (relayOffset > 0 && relayOffset == logChannel.size()) {
+                logChannel.truncate(0);
+                logChannel.force(false);
+                logChannel.position(0);
+                relayOffset = 0;
+                saveCheckpoint(0);
+            }
+        }
+    }
+
+    private void saveCheckpoint(long offset) throws IOException {
+        Path directory = Paths.get(outboxDirectory);
+        Path temporaryFile = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel checkpointChannel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(String.valueOf(offset).getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                checkpointChannel.write(buffer);
+            }
+            checkpointChannel.force(false);
+        }
+        Files.move(temporaryFile, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void pause(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("notifications.outbox.pending.bytes", this, NotificationOutbox::getPendingBytes)
+                .description("Bytes of notifications waiting in the outbox")
+                .register(registry);
+        FunctionCounter.builder("notifications.outbox.delivered", delivered, AtomicLong::get)
+                .description("Notifications published from the outbox")
+                .register(registry);
+        FunctionCounter.builder("notifications.outbox.retries", deliveryRetries, AtomicLong::get)
+                .description("Failed attempts to publish an outbox notification")
+                .register(registry);
+        FunctionCounter.builder("notifications.outbox.dead-lettered", deadLettered, AtomicLong::get)
+                .description("Notifications moved to the dead-letter file")
+                .register(registry);
+    }
+
+    /**
+     * A record read from the log. {@code record} is {@code null} when {@code body} could not be decoded.
+     */
+    private record OutboxEntry(OutboxRecord record, byte[] body, long nextOffset) {
+    }
+
+    record OutboxRecord(String message, String snsTopic, Map<String, OutboxAttribute> attributes) {
+        static OutboxRecord build(String message, String snsTopic, Map<String, MessageAttributeValue> messageAttributes) {
+            Map<String, OutboxAttribute> attributes = null;
+            if (messageAttributes != null) {
+                attributes = new HashMap<>();
+                for (Map.Entry<String, MessageAttributeValue> attribute : messageAttributes.entrySet()) {
+                    attributes.put(attribute.getKey(), new OutboxAttribute(attribute.getValue().getDataType(), attribute.getValue().getStringValue()));
+                }
+            }
+            return new OutboxRecord(message, snsTopic, attributes);
+        }
+
+        Map<String, MessageAttributeValue> toMessageAttributes() {
+            if (attributes == null) return null;
+
+            Map<String, MessageAttributeValue> messageAttributes = new HashMap<>();
+            attributes.forEach((name, attribute) -> messageAttributes.put(name, new MessageAttributeValue()
+                    .withDataType(attribute.dataType())
+                    .withStringValue(attribute.stringValue())));
+            return messageAttributes;
+        }
+    }
+
+    record OutboxAttribute(String dataType, String stringValue) {
+    }
+}
@@ -55,59 +55,62 @@ public class NotificationService {
     @Autowired
     SNSHandler snsHandler;
 
+    @Autowired(required = false)
+    NotificationOutbox notificationOutbox;
+
     public void sendAccountRegisteredNotification(@NotNull AccountInfo account, String cipdc) throws JsonProcessingException {
         Objects.requireNonNull(account);
         String accountRegisteredNotificationMessage = AccountInfoHandler.buildRegistrationNotificationPayload(account, cipdc);
-        snsHandler.sendNotification(accountRegisteredNotificationMessage, registrationSNSTopic);
+        publish(accountRegisteredNotificationMessage, registrationSNSTopic);
     }
 
     public void sendNotifyAccountInfoNotification(@NotNull AccountInfo account, String cipdc) throws JsonProcessingException {
         Objects.requireNonNull(account);
         String accountToNotify = AccountInfoHandler.prepareForProfileInfoNotification(account, cipdc);
         Map<String, MessageAttributeValue> messageAttributes = AccountInfoHandler.buildMessageAttributesForAccountInfoSNS(account);
-        snsHandler.sendNotification(accountToNotify, accountInfoSNSTopic, messageAttributes);
+        publish(accountToNotify, accountInfoSNSTopic, messageAttributes);
     }
 
     public void sendAccountMergedNotification(@NotNull MergedAccountNotification mergedAccountNotification) {
         Objects.requireNonNull(mergedAccountNotification);
         String notificationMessage = new GsonBuilder().create().toJson(mergedAccountNotification);
-        snsHandler.sendNotification(notificationMessage, registrationSNSTopic);
+        publish(notificationMessage, registrationSNSTopic);
     }
 
     public void sendPrivateAccountUpdatedNotification(@NotNull AccountUpdatedNotification accountUpdatedNotification) {
         Objects.requireNonNull(accountUpdatedNotification);
         String notificationMessage = new GsonBuilder().create().toJson(accountUpdatedNotification);
-        snsHandler.sendNotification(notificationMessage, registrationSNSTopic);
+        publish(notificationMessage, registrationSNSTopic);
     }
 
     public void sendPublicAccountUpdatedNotification(@NotNull AccountUpdatedNotification accountUpdatedNotification) {
         Objects.requireNonNull(accountUpdatedNotification);
         String notificationMessage = new GsonBuilder().create().toJson(accountUpdatedNotification);
-        snsHandler.sendNotification(notificationMessage, accountUpdatedSNSTopic);
+        publish(notificationMessage, accountUpdatedSNSTopic);
     }
 
     public void sendPublicEmailUpdatedNotification(@NotNull EmailUpdatedNotification emailUpdatedNotification) {
         Objects.requireNonNull(emailUpdatedNotification);
         String notificationMessage = new GsonBuilder().create().toJson(emailUpdatedNotification);
-        snsHandler.sendNotification(notificationMessage, accountUpdatedSNSTopic);
+        publish(notificationMessage, accountUpdatedSNSTopic);
     }
 
     public void sendPrivateEmailUpdatedNotification(@NotNull EmailUpdatedNotification emailUpdatedNotification) {
         Objects.requireNonNull(emailUpdatedNotification);
         String notificationMessage = new GsonBuilder().create().toJson(emailUpdatedNotification);
-        snsHandler.sendNotification(notificationMessage, registrationSNSTopic);
+        publish(notificationMessage, registrationSNSTopic);
     }
 
     public void sendAspireRegistrationNotification(@NotNull AccountInfo accountInfo) throws JsonProcessingException {
         Objects.requireNonNull(accountInfo);
         String accountForAspire = AccountInfoHandler.prepareForAspireNotification(accountInfo);
-        snsHandler.sendNotification(accountForAspire, aspireRegistrationSNSTopic);
+        publish(accountForAspire, aspireRegistrationSNSTopic);
     }
 
     public void sendPasswordUpdateNotification(@NotNull PasswordUpdateNotification passwordUpdateNotification) {
         Objects.requireNonNull(passwordUpdateNotification);
         String notificationMessage = new GsonBuilder().create().toJson(passwordUpdateNotification);
-        snsHandler.sendNotification(notificationMessage, passwordUpdateSNSTopic);
+        publish(notificationMessage, passwordUpdateSNSTopic);
     }
 
     public void sendResetPasswordConfirmationEmailNotification(AccountInfo accountInfo) {
@@ -141,18 +144,34 @@ public class NotificationService {
     private void sendEmailNotification(EmailNotification snsNotificationMessage) {
         Objects.requireNonNull(snsNotificationMessage);
         String emailNotificationBody = new GsonBuilder().create().toJson(snsNotificationMessage);
-        snsHandler.sendNotification(emailNotificationBody, emailServiceSNSTopic);
+        publish(emailNotificationBody, emailServiceSNSTopic);
     }
 
     public void sendPublicMarketingConsentUpdatedNotification(MarketingConsentUpdatedNotification marketingConsentUpdatedNotification) {
         Objects.requireNonNull(marketingConsentUpdatedNotification);
         String notificationMessage = new GsonBuilder().create().toJson(marketingConsentUpdatedNotification);
-        snsHandler.sendNotification(notificationMessage, accountUpdatedSNSTopic);
+        publish(notificationMessage, accountUpdatedSNSTopic);
     }
 
     public void sendPrivateMarketingConsentUpdatedNotification(MarketingConsentUpdatedNotification marketingConsentUpdatedNotification) {
         Objects.requireNonNull(marketingConsentUpdatedNotification);
         String notificationMessage = new GsonBuilder().create().toJson(marketingConsentUpdatedNotification);
-        snsHandler.sendNotification(notificationMessage, registrationSNSTopic);
+        publish(notificationMessage, registrationSNSTopic);
+    }
+
+    private void publish(String message, String snsTopic) {
+        publish(message, snsTopic, null);
+    }
+
+    private void publish(String message, String snsTopic, Map<String, MessageAttributeValue> messageAttributes) {
+        if (notificationOutbox != null && notificationOutbox.append(message, snsTopic, messageAttributes)) {
+            return;
+        }
+
+        if (messageAttributes == null) {
+            snsHandler.sendNotification(message, snsTopic);
+        } else {
+            snsHandler.sendNotification(message, snsTopic, messageAttributes);
+        }
     }
 }
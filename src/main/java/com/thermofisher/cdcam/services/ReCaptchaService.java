@@ -17,8 +17,8 @@ import org.springframework.stereotype.Service;
 @Service
 public class ReCaptchaService {
     public static final String CAPTCHA_TOKEN_HEADER = "x-captcha-token";
-    private String reCaptchaV3Secret;
-    private String reCaptchaV2Secret;
+    private volatile String reCaptchaV3Secret;
+    private volatile String reCaptchaV2Secret;
 
     @Value("${env.name}")
     private String env;
@@ -38,6 +38,11 @@ public class ReCaptchaService {
     @PostConstruct
     public void setup() throws JSONException {
         if (env.equals("local") || env.equals("test")) return;
+        setSecrets();
+        secretsService.addListener(this::setSecrets);
+    }
+
+    private void setSecrets() throws JSONException {
         reCaptchaV3Secret = secretsService.get(CdcamSecrets.RECAPTCHAV3.getKey());
         reCaptchaV2Secret = secretsService.get(CdcamSecrets.RECAPTCHAV2.getKey());
     }
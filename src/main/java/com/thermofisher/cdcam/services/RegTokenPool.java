@@ -0,0 +1,156 @@
+package com.thermofisher.cdcam.services;
+
+import com.gigya.socialize.GSResponse;
+import com.thermofisher.cdcam.config.CDCExecutorConfig;
+import com.thermofisher.cdcam.utils.Utils;
+import com.thermofisher.cdcam.utils.cdc.CDCUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps lite registration tokens ({@code accounts.initRegistration} with {@code isLite=true}) fetched ahead of time,
+ * so a lite registration only needs the {@code accounts.setAccountInfo} round trip. Tokens are discarded once they
+ * get close to the end of their lifetime, and the pool is refilled in the background when it runs low.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "cdc.reg-token-pool.enabled", havingValue = "true")
+public class RegTokenPool implements MeterBinder {
+    private final ConcurrentLinkedQueue<PooledRegToken> tokens = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean isRefilling = new AtomicBoolean(false);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    Clock clock = Clock.systemUTC();
+
+    @Autowired
+    GigyaApi gigyaApi;
+
+    @Autowired
+    @Qualifier(CDCExecutorConfig.CDC_EXECUTOR)
+    Executor cdcExecutor;
+
+    @Value("${cdc.reg-token-pool.size:20}")
+    int targetSize;
+
+    @Value("${cdc.reg-token-pool.refill-threshold:5}")
+    int refillThreshold;
+
+    @Value("${cdc.reg-token-pool.token-ttl:PT1H}")
+    Duration tokenTtl;
+
+    @Value("${cdc.reg-token-pool.expiry-margin:PT10M}")
+    Duration expiryMargin;
+
+    @Value("${env.name}")
+    private String env;
+
+    @PostConstruct
+    public void warmUp() {
+        if (env.equals("local") || env.equals("test")) return;
+
+        log.info(String.format("Registration token pool enabled. Size: %d. Refill threshold: %d.", targetSize, refillThreshold));
+        refillInBackground();
+    }
+
+    /**
+     * Takes a registration token that is still valid from the pool, or returns {@code null} when there is none, in which
+     * case the caller should request one inline. Taking a token refills the pool in the background when it runs low.
+     */
+    public String take() {
+        Instant now = clock.instant();
+        String regToken = null;
+
+        PooledRegToken token;
+        while (regToken == null && (token = tokens.poll()) != null) {
+            size.decrementAndGet();
+            if (now.isBefore(token.usableUntil())) {
+                regToken = token.regToken();
+            } else {
+                expired.incrementAndGet();
+            }
+        }
+
+        if (regToken != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+
+        if (size.get() <= refillThreshold) {
+            refillInBackground();
+        }
+        return regToken;
+    }
+
+    public int getSize() {
+        return size.get();
+    }
+
+    private void refillInBackground() {
+        if (!isRefilling.compareAndSet(false, true)) return;
+
+        cdcExecutor.execute(() -> {
+            try {
+                refill();
+            } catch (Exception e) {
+                log.warn(String.format("Registration token pool refill failed. Lite registrations will request their own token. %s", Utils.stackTraceToString(e)));
+            } finally {
+                isRefilling.set(false);
+            }
+        });
+    }
+
+    private void refill() throws Exception {
+        while (size.get() < targetSize) {
+            Instant requestedAt = clock.instant();
+            GSResponse response = gigyaApi.initLiteRegistration();
+            if (CDCUtils.isErrorResponse(response)) {
+                log.warn(String.format("Registration token pool refill stopped. initRegistration error code: %d. Message: %s", response.getErrorCode(), response.getErrorMessage()));
+                return;
+            }
+
+            Instant usableUntil = requestedAt.plus(tokenTtl).minus(expiryMargin);
+            tokens.add(new PooledRegToken(response.getData().getString("regToken"), usableUntil));
+            size.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cdc.reg-token-pool.size", size, AtomicInteger::get)
+                .description("Registration tokens ready to be used")
+                .register(registry);
+        FunctionCounter.builder("cdc.reg-token-pool.hits", hits, AtomicLong::get)
+                .description("Lite registrations that used a pooled registration token")
+                .register(registry);
+        FunctionCounter.builder("cdc.reg-token-pool.misses", misses, AtomicLong::get)
+                .description("Lite registrations that found the pool empty and requested their own token")
+                .register(registry);
+        FunctionCounter.builder("cdc.reg-token-pool.expired", expired, AtomicLong::get)
+                .description("Pooled registration tokens discarded because they were about to expire")
+                .register(registry);
+    }
+
+    private record PooledRegToken(String regToken, Instant usableUntil) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.thermofisher.cdcam.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.gigya.socialize.GSKeyNotFoundException;
+import com.thermofisher.cdcam.config.CDCExecutorConfig;
+import com.thermofisher.cdcam.model.cdc.CustomGigyaErrorException;
+import com.thermofisher.cdcam.model.cdc.OpenIdRelyingParty;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Cached access to the OIDC relying party configuration stored in CDC.
+ * Entries are served for up to {@code cdc.rp-cache.ttl}; after that the cached entry keeps being served while it is
+ * reloaded in the background, until it reaches {@code cdc.rp-cache.max-stale} and has to be loaded again.
+ */
+@Slf4j
+@Service
+public class RelyingPartyService {
+    private final GigyaService gigyaService;
+    private final LoadingCache<String, OpenIdRelyingParty> relyingParties;
+
+    @Autowired
+    public RelyingPartyService(
+            GigyaService gigyaService,
+            @Qualifier(CDCExecutorConfig.CDC_EXECUTOR) Executor cdcExecutor,
+            @Value("${cdc.rp-cache.ttl:5m}") Duration ttl,
+            @Value("${cdc.rp-cache.max-stale:1h}") Duration maxStale,
+            @Value("${cdc.rp-cache.max-size:500}") long maxSize
+    ) {
+        this.gigyaService = gigyaService;
+        this.relyingParties = Caffeine.newBuilder()
+                .refreshAfterWrite(ttl)
+                .expireAfterWrite(maxStale)
+                .maximumSize(maxSize)
+                .executor(cdcExecutor)
+                .build(this::loadRP);
+    }
+
+    public OpenIdRelyingParty getRP(String clientId) throws CustomGigyaErrorException, GSKeyNotFoundException {
+        try {
+            return relyingParties.get(clientId);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CustomGigyaErrorException) throw (CustomGigyaErrorException) e.getCause();
+            if (e.getCause() instanceof GSKeyNotFoundException) throw (GSKeyNotFoundException) e.getCause();
+            throw e;
+        }
+    }
+
+    private OpenIdRelyingParty loadRP(String clientId) throws CustomGigyaErrorException, GSKeyNotFoundException {
+        log.info(String.format("Loading RP configuration for clientId: %s", clientId));
+        OpenIdRelyingParty openIdRelyingParty = gigyaService.getRP(clientId);
+        openIdRelyingParty.getNormalizedRedirectUris();
+        return openIdRelyingParty;
+    }
+}
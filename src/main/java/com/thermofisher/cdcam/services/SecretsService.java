@@ -1,20 +1,43 @@
 package com.thermofisher.cdcam.services;
 
 import com.thermofisher.cdcam.aws.SecretsManager;
+import com.thermofisher.cdcam.aws.SecretsManager.SecretVersion;
+import com.thermofisher.cdcam.utils.Utils;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the {@code cdcam.secrets} secret from an in-memory snapshot. The snapshot is reloaded in the background every
+ * {@code cdcam.secrets-refresh-interval}; when Secrets Manager returns a new version it replaces the snapshot and the
+ * registered listeners are notified, so rotated credentials are picked up without a restart.
+ */
+@Slf4j
 @Service
 public class SecretsService {
-    private JSONObject cdcamSecrets;
+    private final List<SecretsListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile SecretsSnapshot snapshot;
+    private ScheduledExecutorService refresher;
 
     @Value("${cdcam.secrets}")
     private String cdcamSecretsName;
 
+    @Value("${cdcam.secrets-refresh-interval:PT5M}")
+    private Duration refreshInterval;
+
     @Value("${env.name}")
     private String env;
 
@@ -24,11 +47,76 @@ public class SecretsService {
     @PostConstruct
     public void setup() throws JSONException {
         if (env.equals("local") || env.equals("test")) return;
-        String secret = secretsManager.getSecret(cdcamSecretsName);
-        cdcamSecrets = new JSONObject(secret);
+        snapshot = load();
+
+        if (refreshInterval.isZero() || refreshInterval.isNegative()) return;
+        refresher = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("secrets-refresher").factory());
+        refresher.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
     }
 
     public String get(String secretKey) throws JSONException {
-        return secretsManager.getProperty(cdcamSecrets, secretKey);
+        SecretsSnapshot currentSnapshot = snapshot;
+        return secretsManager.getProperty(currentSnapshot == null ? null : currentSnapshot.secrets(), secretKey);
+    }
+
+    public String getVersion() {
+        SecretsSnapshot currentSnapshot = snapshot;
+        return currentSnapshot == null ? null : currentSnapshot.versionId();
+    }
+
+    /**
+     * Registers a listener to be called every time a new version of the secrets is loaded. Listeners read the values
+     * they need through {@link #get(String)}.
+     */
+    public void addListener(SecretsListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Reloads the secrets and notifies the listeners when their version changed. Failures are logged and the current
+     * snapshot is kept.
+     */
+    public void refresh() {
+        try {
+            SecretsSnapshot refreshedSnapshot = load();
+            SecretsSnapshot currentSnapshot = snapshot;
+            if (currentSnapshot != null && Objects.equals(currentSnapshot.versionId(), refreshedSnapshot.versionId())) return;
+
+            snapshot = refreshedSnapshot;
+            log.info(String.format("Secrets %s rotated. Version: %s", cdcamSecretsName, refreshedSnapshot.versionId()));
+            notifyListeners();
+        } catch (Exception e) {
+            log.error(String.format("Secrets %s could not be refreshed. Keeping version %s. Error: %s", cdcamSecretsName, getVersion(), Utils.stackTraceToString(e)));
+        }
+    }
+
+    private SecretsSnapshot load() throws JSONException {
+        SecretVersion secretVersion = secretsManager.getSecretVersion(cdcamSecretsName);
+        return new SecretsSnapshot(secretVersion.versionId(), new JSONObject(secretVersion.value()));
+    }
+
+    private void notifyListeners() {
+        for (SecretsListener listener : listeners) {
+            try {
+                listener.onSecretsChanged();
+            } catch (Exception e) {
+                log.error(String.format("A secrets listener failed to apply version %s. Error: %s", getVersion(), Utils.stackTraceToString(e)));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface SecretsListener {
+        void onSecretsChanged() throws Exception;
+    }
+
+    private record SecretsSnapshot(String versionId, JSONObject secrets) {
     }
 }
@@ -0,0 +1,235 @@
+package com.thermofisher.cdcam.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the CDC webhook events that were already received, so the events CDC delivers again after a timeout are
+ * acknowledged without being processed twice. Events are keyed by their id, or by type, UID and timestamp when CDC
+ * sends no id, and are forgotten after {@code webhooks.dedup.ttl}. When a persistence file is configured the seen
+ * events are also appended to it and reloaded on startup, so a restart does not reprocess recent deliveries. The file
+ * is rewritten with the events not yet expired every {@code webhooks.dedup.compaction-interval}, so it stays bounded.
+ */
+@Slf4j
+@Service
+public class WebhookDeduplicationService implements MeterBinder {
+    private static final String FIELD_SEPARATOR = "\t";
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong firstDeliveries = new AtomicLong();
+    private Cache<String, Long> seenEvents;
+    private BufferedWriter persistenceWriter;
+    private Path persistencePath;
+    private ScheduledExecutorService compactor;
+
+    @Value("${webhooks.dedup.enabled:true}")
+    boolean isEnabled;
+
+    @Value("${webhooks.dedup.ttl:PT24H}")
+    Duration ttl;
+
+    @Value("${webhooks.dedup.max-size:100000}")
+    long maxSize;
+
+    @Value("${webhooks.dedup.persistence-file:}")
+    String persistenceFile;
+
+    @Value("${webhooks.dedup.compaction-interval:PT1H}")
+    Duration compactionInterval;
+
+    @PostConstruct
+    public void init() throws IOException {
+        seenEvents = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new SeenAtExpiry(ttl))
+                .build();
+
+        if (StringUtils.isNotBlank(persistenceFile)) {
+            persistencePath = Paths.get(persistenceFile);
+            load(persistencePath);
+            persistenceWriter = openPersistenceWriter();
+
+            compactor = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("webhook-dedup-compactor").factory());
+            compactor.scheduleWithFixedDelay(this::compactPersistenceFile, compactionInterval.toMillis(), compactionInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+        if (persistenceWriter == null) return;
+
+        synchronized (this) {
+            try {
+                persistenceWriter.close();
+            } catch (IOException e) {
+                log.warn(String.format("Webhook de-duplication file did not close cleanly. %s", e.getMessage()));
+            }
+            persistenceWriter = null;
+        }
+    }
+
+    /**
+     * Records the given webhook event and returns whether it had already been received.
+     */
+    public boolean isDuplicate(JSONObject event) {
+        if (!isEnabled) return false;
+
+        String eventKey = getEventKey(event);
+        long seenAt = System.currentTimeMillis();
+        if (seenEvents.asMap().putIfAbsent(eventKey, seenAt) != null) {
+            duplicates.incrementAndGet();
+            log.info(String.format("Duplicate webhook event received. Key: %s", eventKey));
+            return true;
+        }
+
+        firstDeliveries.incrementAndGet();
+        persist(eventKey, seenAt);
+        return false;
+    }
+
+    public long getSeenEvents() {
+        return seenEvents.estimatedSize();
+    }
+
+    static String getEventKey(JSONObject event) {
+        String eventId = event.optString("id");
+        if (StringUtils.isNotBlank(eventId)) return eventId;
+
+        JSONObject data = event.optJSONObject("data");
+        String uid = data == null ? "" : data.optString("uid", data.optString("newUid"));
+        return String.join(":", event.optString("type"), uid, event.optString("timestamp"));
+    }
+
+    private void load(Path path) throws IOException {
+        if (!Files.exists(path)) return;
+
+        long expiredBefore = System.currentTimeMillis() - ttl.toMillis();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            String[] fields = line.split(FIELD_SEPARATOR);
+            if (fields.length != 2 || !StringUtils.isNumeric(fields[1])) continue;
+
+            long seenAt = Long.parseLong(fields[1]);
+            if (seenAt > expiredBefore) {
+                seenEvents.put(fields[0], seenAt);
+            }
+        }
+        compact(path);
+        log.info(String.format("Webhook de-duplication state loaded. Events: %d", seenEvents.estimatedSize()));
+    }
+
+    /**
+     * Rewrites the persistence file with the events that have not expired yet. Deliveries wait for it to finish.
+     */
+    synchronized void compactPersistenceFile() {
+        if (persistenceWriter == null) return;
+
+        try {
+            persistenceWriter.close();
+            seenEvents.cleanUp();
+            compact(persistencePath);
+            log.info(String.format("Webhook de-duplication file compacted. Events: %d", seenEvents.estimatedSize()));
+        } catch (IOException e) {
+            log.warn(String.format("Webhook de-duplication file could not be compacted. %s", e.getMessage()));
+        }
+
+        try {
+            persistenceWriter = openPersistenceWriter();
+        } catch (IOException e) {
+            persistenceWriter = null;
+            log.error(String.format("Webhook de-duplication file could not be reopened. Events will not be persisted. %s", e.getMessage()));
+        }
+    }
+
+    private BufferedWriter openPersistenceWriter() throws IOException {
+        return Files.newBufferedWriter(persistencePath, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void compact(Path path) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : seenEvents.asMap().entrySet()) {
+            lines.add(entry.getKey() + FIELD_SEPARATOR + entry.getValue());
+        }
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(compacted, lines, StandardCharsets.UTF_8);
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private synchronized void persist(String eventKey, long seenAt) {
+        if (persistenceWriter == null) return;
+
+        try {
+            persistenceWriter.write(eventKey + FIELD_SEPARATOR + seenAt);
+            persistenceWriter.newLine();
+            persistenceWriter.flush();
+        } catch (IOException e) {
+            log.warn(String.format("Webhook event %s could not be persisted. %s", eventKey, e.getMessage()));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("webhooks.dedup.events", duplicates, AtomicLong::get)
+                .tag("result", "duplicate")
+                .description("Webhook events received")
+                .register(registry);
+        FunctionCounter.builder("webhooks.dedup.events", firstDeliveries, AtomicLong::get)
+                .tag("result", "first")
+                .description("Webhook events received")
+                .register(registry);
+        Gauge.builder("webhooks.dedup.size", this, WebhookDeduplicationService::getSeenEvents)
+                .description("Webhook events remembered for de-duplication")
+                .register(registry);
+    }
+
+    /**
+     * Expires each event {@code ttl} after it was first seen, including events reloaded from the persistence file.
+     */
+    private record SeenAtExpiry(Duration ttl) implements Expiry<String, Long> {
+        @Override
+        public long expireAfterCreate(String eventKey, Long seenAt, long currentTime) {
+            long remainingMillis = seenAt + ttl.toMillis() - System.currentTimeMillis();
+            return Duration.ofMillis(Math.max(0, remainingMillis)).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String eventKey, Long seenAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String eventKey, Long seenAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.thermofisher.cdcam.services;
+
+import com.thermofisher.cdcam.config.AsyncConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Merges the webhook events CDC emits in bursts. The first event of a type for a UID opens a window of
+ * {@code webhooks.coalescing.window}; events of the same type for that UID arriving within the window replace the
+ * pending one, and only the latest is handled once the window closes. Pending events are handled right away on
+ * shutdown, so none is lost. The handlers hand their work to the webhook executor, so this bean is destroyed before it
+ * and the flushed events are still accepted and drained.
+ */
+@Slf4j
+@Service
+@DependsOn(AsyncConfig.WEBHOOK_EXECUTOR)
+public class WebhookEventCoalescer implements MeterBinder {
+    private final Map<String, PendingEvent> pendingEvents = new ConcurrentHashMap<>();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong addedDelayNanos = new AtomicLong();
+    private volatile boolean isShuttingDown = false;
+    ScheduledExecutorService scheduler;
+
+    @Value("${webhooks.coalescing.enabled:true}")
+    boolean isEnabled;
+
+    @Value("${webhooks.coalescing.window:PT2S}")
+    Duration window;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("webhook-coalescer").factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        isShuttingDown = true;
+        scheduler.shutdownNow();
+        flush();
+    }
+
+    /**
+     * Handles the event once its coalescing window closes, unless a later event of the same type for the same UID
+     * replaces it first. The handler runs right away when coalescing is disabled or the service is shutting down.
+     */
+    public void submit(String eventType, String uid, Runnable handler) {
+        received.incrementAndGet();
+        if (!isEnabled || isShuttingDown || window.isZero() || window.isNegative()) {
+            dispatched.incrementAndGet();
+            handler.run();
+            return;
+        }
+
+        String eventKey = String.format("%s:%s", eventType, uid);
+        AtomicBoolean isFirstEvent = new AtomicBoolean(false);
+        // A later event keeps the window opened by the first one, so a steady stream of events cannot postpone the
+        // handling forever.
+        pendingEvents.compute(eventKey, (key, pending) -> {
+            isFirstEvent.set(pending == null);
+            return new PendingEvent(handler, pending == null ? System.nanoTime() : pending.receivedAt());
+        });
+
+        if (!isFirstEvent.get()) {
+            coalesced.incrementAndGet();
+            log.info(String.format("%s event for UID %s coalesced with a pending one.", eventType, uid));
+            return;
+        }
+
+        try {
+            scheduler.schedule(() -> dispatch(eventKey), window.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // The scheduler was shut down after the check above, possibly after the pending events were flushed.
+            dispatch(eventKey);
+        }
+    }
+
+    public int getPendingEvents() {
+        return pendingEvents.size();
+    }
+
+    /**
+     * Handles every pending event without waiting for its window to close.
+     */
+    void flush() {
+        new ArrayList<>(pendingEvents.keySet()).forEach(this::dispatch);
+    }
+
+    private void dispatch(String eventKey) {
+        PendingEvent event = pendingEvents.remove(eventKey);
+        if (event == null) return;
+
+        dispatched.incrementAndGet();
+        addedDelayNanos.addAndGet(System.nanoTime() - event.receivedAt());
+        try {
+            event.handler().run();
+        } catch (Exception e) {
+            log.error(String.format("Coalesced webhook event %s could not be handled. Error: %s", eventKey, e.getMessage()));
+        }
+    }
+
+    private double getCoalesceRatio() {
+        long total = received.get();
+        return total == 0 ? 0 : (double) coalesced.get() / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("webhooks.coalescing.events", coalesced, AtomicLong::get)
+                .tag("result", "coalesced")
+                .description("Webhook events merged into a pending event")
+                .register(registry);
+        FunctionCounter.builder("webhooks.coalescing.events", dispatched, AtomicLong::get)
+                .tag("result", "dispatched")
+                .description("Webhook events handled")
+                .register(registry);
+        Gauge.builder("webhooks.coalescing.ratio", this, WebhookEventCoalescer::getCoalesceRatio)
+                .description("Share of received webhook events that were merged into a pending event")
+                .register(registry);
+        Gauge.builder("webhooks.coalescing.pending", this, WebhookEventCoalescer::getPendingEvents)
+                .description("Webhook events waiting for their coalescing window to close")
+                .register(registry);
+        FunctionTimer.builder("webhooks.coalescing.delay", this, coalescer -> coalescer.dispatched.get(),
+                        coalescer -> coalescer.addedDelayNanos.get(), TimeUnit.NANOSECONDS)
+                .description("Delay added to webhook events by the coalescing window")
+                .register(registry);
+    }
+
+    private record PendingEvent(Runnable handler, long receivedAt) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.thermofisher.cdcam.utils;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+/**
+ * {@link Executor} that runs each task on its own thread of the given delegate while limiting how many tasks
+ * run at the same time. Tasks over the limit wait for a permit on their own (virtual) thread, so submitting
+ * never blocks the caller.
+ */
+public class BoundedExecutor implements Executor, AutoCloseable {
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    public BoundedExecutor(ExecutorService delegate, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException(String.format("Max concurrency must be positive. Got: %d", maxConcurrency));
+        }
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        delegate.execute(() -> {
+            boolean hasPermit = false;
+            try {
+                permits.acquire();
+                hasPermit = true;
+            } catch (InterruptedException e) {
+                // Still run the task, with the interrupt flag set, so whoever waits on its result is completed
+                // (usually with the interruption) instead of hanging. This only happens while shutting down.
+                Thread.currentThread().interrupt();
+            }
+            try {
+                task.run();
+            } finally {
+                if (hasPermit) {
+                    permits.release();
+                }
+            }
+        });
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public int getQueuedCount() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
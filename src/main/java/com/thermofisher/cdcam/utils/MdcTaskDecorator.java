@@ -0,0 +1,35 @@
+package com.thermofisher.cdcam.utils;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+/**
+ * Copies the submitting thread's MDC, including the request id set by the request filter, into the worker that runs
+ * the task, and restores the worker's previous context once the task is done.
+ */
+public class MdcTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Map<String, String> submitterContext = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> workerContext = MDC.getCopyOfContextMap();
+            setContext(submitterContext);
+            try {
+                runnable.run();
+            } finally {
+                setContext(workerContext);
+            }
+        };
+    }
+
+    private static void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.thermofisher.cdcam.utils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller executes the call while the callers arriving
+ * before it finishes wait for, and share, its result or exception. Nothing is kept once the call completes.
+ *
+ * @param <K> Key identifying identical calls.
+ * @param <V> Result of the call.
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public <E extends Exception> V execute(K key, Call<V, E> call) throws E {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, future);
+
+        if (leader != null) {
+            coalescedCalls.increment();
+            try {
+                return leader.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw (E) cause;
+            }
+        }
+
+        try {
+            V value = call.execute();
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * @return Number of calls that were served by an in-flight call instead of being executed.
+     */
+    public long getCoalescedCalls() {
+        return coalescedCalls.sum();
+    }
+
+    @FunctionalInterface
+    public interface Call<V, E extends Exception> {
+        V execute() throws E;
+    }
+}
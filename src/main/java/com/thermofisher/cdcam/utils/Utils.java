@@ -8,10 +8,16 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class Utils {
     private final static String VALID_EMAIL_REGEX = "^(?!.*[.]{2})([a-zA-Z0-9])+([a-zA-Z0-9_.\\-])+@(([a-zA-Z0-9\\-])+\\.)+([a-zA-Z0-9]{2,6})$";
@@ -108,4 +114,26 @@ public class Utils {
     public static boolean isAValidEmail(String email) {
         return email.matches(VALID_EMAIL_REGEX);
     }
+
+    /**
+     * Whether the directory is inside {@code java.io.tmpdir}. Pods without a volume lose its content on restart.
+     */
+    public static boolean isTemporaryDirectory(String directory) {
+        Path temporaryDirectory = Paths.get(System.getProperty("java.io.tmpdir")).toAbsolutePath().normalize();
+        return Paths.get(directory).toAbsolutePath().normalize().startsWith(temporaryDirectory);
+    }
+
+    /**
+     * Waits for the future and rethrows the failure it completed with: an {@link UncheckedIOException} as its
+     * {@link IOException} and any other runtime exception as is.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) throw ((UncheckedIOException) e.getCause()).getCause();
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
 }
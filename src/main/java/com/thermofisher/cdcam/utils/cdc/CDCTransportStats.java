@@ -0,0 +1,78 @@
+package com.thermofisher.cdcam.utils.cdc;
+
+import com.thermofisher.cdcam.enums.cdc.GigyaCodes;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per data center statistics of the requests sent to CDC. Populated by {@link com.thermofisher.cdcam.builders.CDCRequest}.
+ */
+public class CDCTransportStats {
+    private static final String UNKNOWN_DATA_CENTER = "unknown";
+    private static final Map<String, DataCenterStats> dataCenters = new ConcurrentHashMap<>();
+
+    public static DataCenterStats forDataCenter(String apiDomain) {
+        String key = Objects.requireNonNullElse(apiDomain, UNKNOWN_DATA_CENTER);
+        return dataCenters.computeIfAbsent(key, k -> new DataCenterStats());
+    }
+
+    public static Map<String, DataCenterStats> getDataCenters() {
+        return Collections.unmodifiableMap(dataCenters);
+    }
+
+    public static class DataCenterStats {
+        private final AtomicInteger activeRequests = new AtomicInteger();
+        private final AtomicInteger peakActiveRequests = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+
+        public void requestStarted() {
+            int active = activeRequests.incrementAndGet();
+            peakActiveRequests.accumulateAndGet(active, Math::max);
+        }
+
+        public void requestCompleted(long latencyNanos, int errorCode) {
+            activeRequests.decrementAndGet();
+            requests.increment();
+            totalLatencyNanos.add(latencyNanos);
+
+            if (errorCode == GigyaCodes.REQUEST_TIMEOUT.getValue()) {
+                timeouts.increment();
+            } else if (errorCode != GigyaCodes.SUCCESS.getValue()) {
+                errors.increment();
+            }
+        }
+
+        public int getActiveRequests() {
+            return activeRequests.get();
+        }
+
+        public int getPeakActiveRequests() {
+            return peakActiveRequests.get();
+        }
+
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        public double getTotalLatencyMillis() {
+            return (double) totalLatencyNanos.sum() / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.thermofisher.cdcam.utils.cdc;
 
 import com.gigya.socialize.GSKeyNotFoundException;
 import com.thermofisher.cdcam.enums.ResponseCode;
+import com.thermofisher.cdcam.enums.cdc.GigyaCodes;
 import com.thermofisher.cdcam.model.EECUser;
 import com.thermofisher.cdcam.model.EECUserV1;
 import com.thermofisher.cdcam.model.EECUserV2;
@@ -24,7 +25,21 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -45,11 +60,33 @@ public class LiteRegistrationService {
     @Value("${eec.v3.request.limit}")
     public int requestLimitV3;
 
+    @Value("${cdc.lite-registration.parallelism:1}")
+    int registrationParallelism;
+
     @Autowired
     GigyaService gigyaService;
 
     public List<EECUserV3> registerLiteAccounts(List<LiteAccountDTO> liteAccountList) throws IllegalArgumentException {
+        List<EECUserV3> liteAccounts = new ArrayList<>();
+        registerLiteAccounts(liteAccountList, liteAccounts::add);
+        return liteAccounts;
+    }
+
+    /**
+     * Streaming variant of {@link #registerLiteAccounts(List)}. Each user is handed to {@code onResult}, in the order of
+     * the request, as soon as it and the users before it are processed.
+     */
+    public void registerLiteAccounts(List<LiteAccountDTO> liteAccountList, Consumer<EECUserV3> onResult) throws IllegalArgumentException {
         log.info(String.format("Lite registration initiated. %d users requested", liteAccountList.size()));
+        validateLiteAccountList(liteAccountList);
+
+        List<String> emails = liteAccountList.stream().map(LiteAccountDTO::getEmail).collect(Collectors.toList());
+        Map<String, SearchResponse> existingAccounts = searchExistingAccounts(emails);
+
+        registerInOrder(liteAccountList, account -> emailKey(account.getEmail()), account -> registerLiteAccountOrInvalidUser(account, existingAccounts), onResult);
+    }
+
+    public void validateLiteAccountList(List<LiteAccountDTO> liteAccountList) throws IllegalArgumentException {
         String errorMessage = "";
 
         if (Utils.isNullOrEmpty(liteAccountList)) {
@@ -61,77 +98,87 @@ public class LiteRegistrationService {
             log.error(errorMessage);
             throw new IllegalArgumentException(errorMessage);
         }
+    }
 
-        List<EECUserV3> liteAccounts = new ArrayList<>();
-
-        for (LiteAccountDTO account : liteAccountList) {
-            try {
-                if (Utils.isNullOrEmpty(account.getEmail())) {
-                    throw new IllegalArgumentException("Email is null or empty.");
-                }
-                if (!Utils.isValidEmail(account.getEmail())) {
-                    throw new IllegalArgumentException("Email is invalid.");
-                }
-                EECUserV3 user = registerLiteAccount(account);
-                liteAccounts.add(user);
-            } catch (CustomGigyaErrorException e) {
-                log.error(String.format("Error with email: %s. CDC Error code: %d. CDC Error message: %s", account.getEmail(), e.getErrorCode(), e.getMessage()));
-                EECUserV3 invalidEECUser = EECUserV3.buildInvalidUser(account.getEmail(), e.getErrorCode(), e.getMessage());
-                liteAccounts.add(invalidEECUser);
-            } catch (IllegalArgumentException e) {
-                log.error(String.format("Error with email: %s. Cause: %s", account.getEmail(), e.getMessage()));
-                EECUserV3 invalidEECUser = EECUserV3.buildInvalidUser(account.getEmail(), BAD_REQUEST_ERROR_CODE, e.getMessage());
-                liteAccounts.add(invalidEECUser);
-            } catch (Throwable e) {
-                log.error(String.format("Error with email: %s. Cause: %s", account.getEmail(), e.getMessage()));
-                EECUserV3 invalidEECUser = EECUserV3.buildInvalidUser(account.getEmail(), GENERIC_ERROR_CODE, ERROR_MSG);
-                liteAccounts.add(invalidEECUser);
+    private EECUserV3 registerLiteAccountOrInvalidUser(LiteAccountDTO account, Map<String, SearchResponse> existingAccounts) {
+        try {
+            if (Utils.isNullOrEmpty(account.getEmail())) {
+                throw new IllegalArgumentException("Email is null or empty.");
             }
+            if (!Utils.isValidEmail(account.getEmail())) {
+                throw new IllegalArgumentException("Email is invalid.");
+            }
+            return registerLiteAccount(account, existingAccounts);
+        } catch (CustomGigyaErrorException e) {
+            log.error(String.format("Error with email: %s. CDC Error code: %d. CDC Error message: %s", account.getEmail(), e.getErrorCode(), e.getMessage()));
+            return EECUserV3.buildInvalidUser(account.getEmail(), e.getErrorCode(), e.getMessage());
+        } catch (IllegalArgumentException e) {
+            log.error(String.format("Error with email: %s. Cause: %s", account.getEmail(), e.getMessage()));
+            return EECUserV3.buildInvalidUser(account.getEmail(), BAD_REQUEST_ERROR_CODE, e.getMessage());
+        } catch (Throwable e) {
+            log.error(String.format("Error with email: %s. Cause: %s", account.getEmail(), e.getMessage()));
+            return EECUserV3.buildInvalidUser(account.getEmail(), GENERIC_ERROR_CODE, ERROR_MSG);
         }
-
-        return liteAccounts;
     }
 
     public List<EECUserV2> registerEmailAccounts(EmailList emailList) throws IOException {
+        List<EECUserV2> emailAccounts = new ArrayList<>();
+        registerEmailAccounts(emailList, emailAccounts::add);
+        return emailAccounts;
+    }
+
+    /**
+     * Streaming variant of {@link #registerEmailAccounts(EmailList)}. Each user is handed to {@code onResult}, in the
+     * order of the request, as soon as it and the users before it are processed.
+     */
+    public void registerEmailAccounts(EmailList emailList, Consumer<EECUserV2> onResult) throws IllegalArgumentException {
         log.info(String.format("Lite registration initiated. %d users requested.", emailList.getEmails().size()));
 
-        List<EECUserV2> emailAccounts = new ArrayList<>();
         List<String> emails = emailList.getEmails();
+        validateEmailList(emails);
+
+        Map<String, SearchResponse> existingAccounts = searchExistingAccounts(emails);
+        AtomicInteger processedUsers = new AtomicInteger();
+        registerInOrder(emails, this::emailKey, email -> registerEmailAccountOrInvalidUser(email, existingAccounts), user -> {
+            processedUsers.incrementAndGet();
+            onResult.accept(user);
+        });
 
+        log.info(String.format("%d lite registration users processed.", processedUsers.get()));
+    }
+
+    public void validateEmailList(List<String> emails) throws IllegalArgumentException {
         if (Utils.hasNullOrEmptyValues(emails)) {
             String error = "Email list has null or empty values.";
             throw new IllegalArgumentException(error);
         }
+    }
 
-        for (String email : emails) {
-            try {
-                if (isEmailValidationEnabled && !Utils.isValidEmail(email)) {
-                    String error = "Email is invalid.";
-                    throw new IllegalArgumentException(error);
-                }
-                EECUserV2 user = registerEmailAccount(email);
-                emailAccounts.add(user);
-            } catch (CustomGigyaErrorException e) {
-                log.error(String.format("Error with email: %s. CDC Error code: %d. CDC Error message: %s", email, e.getErrorCode(), e.getMessage()));
-                EECUserV2 invalidEECUser = EECUserV2.buildInvalidUser(email, e.getErrorCode(), e.getMessage());
-                emailAccounts.add(invalidEECUser);
-            } catch (IllegalArgumentException e) {
-                log.error(String.format("Error with email: %s. Cause: %s", email, e));
-                EECUserV2 invalidEECUser = EECUserV2.buildInvalidUser(email, BAD_REQUEST_ERROR_CODE, e.getMessage());
-                emailAccounts.add(invalidEECUser);
-            } catch (Throwable e) {
-                log.error(String.format("Error with email: %s. Cause: %s", email, e));
-                EECUserV2 invalidEECUser = EECUserV2.buildInvalidUser(email, GENERIC_ERROR_CODE, ERROR_MSG);
-                emailAccounts.add(invalidEECUser);
+    private EECUserV2 registerEmailAccountOrInvalidUser(String email, Map<String, SearchResponse> existingAccounts) {
+        try {
+            if (isEmailValidationEnabled && !Utils.isValidEmail(email)) {
+                String error = "Email is invalid.";
+                throw new IllegalArgumentException(error);
             }
+            return registerEmailAccount(email, existingAccounts);
+        } catch (CustomGigyaErrorException e) {
+            log.error(String.format("Error with email: %s. CDC Error code: %d. CDC Error message: %s", email, e.getErrorCode(), e.getMessage()));
+            return EECUserV2.buildInvalidUser(email, e.getErrorCode(), e.getMessage());
+        } catch (IllegalArgumentException e) {
+            log.error(String.format("Error with email: %s. Cause: %s", email, e));
+            return EECUserV2.buildInvalidUser(email, BAD_REQUEST_ERROR_CODE, e.getMessage());
+        } catch (Throwable e) {
+            log.error(String.format("Error with email: %s. Cause: %s", email, e));
+            return EECUserV2.buildInvalidUser(email, GENERIC_ERROR_CODE, ERROR_MSG);
         }
-
-        log.info(String.format("%d lite registration users processed.", emailAccounts.size()));
-        return emailAccounts;
     }
 
     public EECUserV2 registerEmailAccount(String email) throws IOException, GSKeyNotFoundException, CustomGigyaErrorException {
-        SearchResponse searchResponse = gigyaService.searchInBothDC(email);
+        return registerEmailAccount(email, Collections.emptyMap());
+    }
+
+    private EECUserV2 registerEmailAccount(String email, Map<String, SearchResponse> existingAccounts) throws IOException, GSKeyNotFoundException, CustomGigyaErrorException {
+        SearchResponse searchResponse = findExistingAccounts(email, existingAccounts);
         CDCSearchResponse cdcSearchResponse = searchResponse.getCdcSearchResponse();
         List<CDCAccount> accounts = cdcSearchResponse.getResults();
 
@@ -149,8 +196,8 @@ public class LiteRegistrationService {
         return user;
     }
 
-    private EECUserV3 registerLiteAccount(LiteAccountDTO liteAccountDTO) throws CustomGigyaErrorException, IOException, GSKeyNotFoundException, JSONException {
-        SearchResponse searchResponse = gigyaService.searchInBothDC(liteAccountDTO.getEmail());
+    private EECUserV3 registerLiteAccount(LiteAccountDTO liteAccountDTO, Map<String, SearchResponse> existingAccounts) throws CustomGigyaErrorException, IOException, GSKeyNotFoundException, JSONException {
+        SearchResponse searchResponse = findExistingAccounts(liteAccountDTO.getEmail(), existingAccounts);
         CDCSearchResponse cdcSearchResponse = searchResponse.getCdcSearchResponse();
         List<CDCAccount> accounts = cdcSearchResponse.getResults();
 
@@ -180,6 +227,155 @@ public class LiteRegistrationService {
         return EECUserV2.buildLiteRegisteredUser(UID, email);
     }
 
+    /**
+     * Registers every item and hands the results to {@code onResult} in the order of the items, each one as soon as it
+     * and all the ones before it are ready. Items with the same key are registered once and share the result. With
+     * {@code cdc.lite-registration.parallelism} above 1, up to that many registrations run at the same time on virtual
+     * threads. Once CDC answers with a rate limit error the rest of the batch runs one registration at a time, and the
+     * throttled items are retried once at the end.
+     */
+    private <T, R extends EECUser> void registerInOrder(List<T> items, Function<T, String> keyOf, Function<T, R> registration, Consumer<R> onResult) {
+        List<Integer> firstOccurrences = new ArrayList<>();
+        int[] sourceIndexes = new int[items.size()];
+        Map<String, Integer> indexByKey = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            String key = keyOf.apply(items.get(i));
+            Integer firstIndex = key == null ? null : indexByKey.putIfAbsent(key, i);
+            sourceIndexes[i] = firstIndex == null ? i : firstIndex;
+            if (firstIndex == null) {
+                firstOccurrences.add(i);
+            }
+        }
+
+        OrderedResults<R> results = new OrderedResults<>(sourceIndexes, onResult);
+        if (registrationParallelism <= 1 || firstOccurrences.size() <= 1) {
+            for (int index : firstOccurrences) {
+                results.complete(index, registration.apply(items.get(index)));
+            }
+        } else {
+            registerInParallel(items, firstOccurrences, registration, results);
+        }
+    }
+
+    private <T, R extends EECUser> void registerInParallel(List<T> items, List<Integer> indexes, Function<T, R> registration, OrderedResults<R> results) {
+        log.info(String.format("Registering %d lite accounts with parallelism %d.", indexes.size(), registrationParallelism));
+        Semaphore permits = new Semaphore(registrationParallelism);
+        AtomicBoolean isThrottled = new AtomicBoolean(false);
+        Queue<Integer> throttledIndexes = new ConcurrentLinkedQueue<>();
+
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("lite-registration-", 0).factory())) {
+            for (int index : indexes) {
+                int permitsTaken = isThrottled.get() ? registrationParallelism : 1;
+                permits.acquireUninterruptibly(permitsTaken);
+                executor.execute(() -> {
+                    try {
+                        R result = registration.apply(items.get(index));
+                        if (isRateLimited(result)) {
+                            if (isThrottled.compareAndSet(false, true)) {
+                                log.warn("CDC rate limit reached during lite registration. Continuing one registration at a time.");
+                            }
+                            throttledIndexes.add(index);
+                        } else {
+                            results.complete(index, result);
+                        }
+                    } finally {
+                        permits.release(permitsTaken);
+                    }
+                });
+            }
+        }
+
+        throttledIndexes.stream().sorted().forEach(index -> {
+            log.info("Retrying lite registration throttled by CDC.");
+            results.complete(index, registration.apply(items.get(index)));
+        });
+    }
+
+    private boolean isRateLimited(EECUser user) {
+        return user != null && user.getResponseCode() == GigyaCodes.RATE_LIMIT_EXCEEDED.getValue();
+    }
+
+    private String emailKey(String email) {
+        return email == null ? null : email.toLowerCase();
+    }
+
+    /**
+     * Collects results completed in any order and releases them in item order. Repeated items point to the index of
+     * their first occurrence. Results are handed to {@code onResult} outside the lock by one thread at a time: a
+     * thread completing a result while another one is writing returns right away, and the writing thread also
+     * writes its result, so registrations never wait behind a slow client.
+     */
+    private static class OrderedResults<R> {
+        private final AtomicReferenceArray<R> results;
+        private final int[] sourceIndexes;
+        private final Consumer<R> onResult;
+        private int nextIndex = 0;
+        private boolean isWriting = false;
+
+        OrderedResults(int[] sourceIndexes, Consumer<R> onResult) {
+            this.results = new AtomicReferenceArray<>(sourceIndexes.length);
+            this.sourceIndexes = sourceIndexes;
+            this.onResult = onResult;
+        }
+
+        void complete(int index, R result) {
+            results.set(index, result);
+            synchronized (this) {
+                if (isWriting) return;
+                isWriting = true;
+            }
+
+            try {
+                for (List<R> ready = takeReady(); !ready.isEmpty(); ready = takeReady()) {
+                    ready.forEach(onResult);
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    isWriting = false;
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Takes the results that are next in item order. Stops writing when there are none.
+         */
+        private synchronized List<R> takeReady() {
+            List<R> ready = new ArrayList<>();
+            while (nextIndex < sourceIndexes.length && results.get(sourceIndexes[nextIndex]) != null) {
+                ready.add(results.get(sourceIndexes[nextIndex]));
+                nextIndex++;
+            }
+            if (ready.isEmpty()) {
+                isWriting = false;
+            }
+            return ready;
+        }
+    }
+
+    /**
+     * Resolves the existing accounts of all the well-formed emails of the request with batched searches, so only the
+     * emails left out of the result need an individual search.
+     */
+    private Map<String, SearchResponse> searchExistingAccounts(List<String> emails) {
+        List<String> validEmails = emails.stream()
+                .filter(email -> !Utils.isNullOrEmpty(email) && Utils.isValidEmail(email))
+                .collect(Collectors.toList());
+
+        if (validEmails.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return gigyaService.searchEmailsInBothDC(validEmails);
+    }
+
+    private SearchResponse findExistingAccounts(String email, Map<String, SearchResponse> existingAccounts) throws IOException, CustomGigyaErrorException {
+        SearchResponse searchResponse = existingAccounts.get(email.toLowerCase());
+        if (searchResponse != null) {
+            return searchResponse;
+        }
+        return gigyaService.searchInBothDC(email);
+    }
+
     private CDCAccount findFullRegisteredAccountOrFirstFrom(List<CDCAccount> accounts) {
         return accounts.stream().filter(account -> BooleanUtils.isTrue(account.getIsRegistered())).findFirst().orElse(accounts.get(0));
     }
@@ -2,6 +2,7 @@ package com.thermofisher.cdcam.utils.cdc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gigya.socialize.GSResponse;
+import com.thermofisher.cdcam.config.CDCExecutorConfig;
 import com.thermofisher.cdcam.enums.cdc.AccountType;
 import com.thermofisher.cdcam.model.AccountInfo;
 import com.thermofisher.cdcam.model.UserDetails;
@@ -12,19 +13,30 @@ import com.thermofisher.cdcam.model.cdc.Profile;
 import com.thermofisher.cdcam.model.dto.ProfileInfoDTO;
 import com.thermofisher.cdcam.services.GigyaApi;
 import com.thermofisher.cdcam.services.GigyaService;
+import com.thermofisher.cdcam.utils.Utils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Configuration
 public class UsersHandler {
+    private static final int ONE_ACCOUNT = 1;
+    private static final int TWO_ACCOUNTS = 2;
+    private static final int MAX_ACCOUNTS_PER_UID = 2;
 
     @Value("${cdc.main.datacenter}")
     private String mainApiDomain;
@@ -35,53 +47,91 @@ public class UsersHandler {
     @Autowired
     GigyaService gigyaService;
 
-    public List<UserDetails> getUsers(List<String> uids) throws IOException {
-        final int ONE_ACCOUNT = 1;
-        final int TWO_ACCOUNTS = 2;
+    @Autowired
+    @Qualifier(CDCExecutorConfig.CDC_EXECUTOR)
+    Executor cdcExecutor;
+
+    @Value("${cdc.users.lookup.chunk-size:100}")
+    int lookupChunkSize;
 
+    /**
+     * Looks up the users with the given UIDs. Large lists are split into chunks of {@code cdc.users.lookup.chunk-size}
+     * UIDs that are searched in parallel, and each search follows the CDC cursor until every page has been read. Full and
+     * lite accounts sharing a UID are merged into a single user, in the order CDC returned them.
+     */
+    public List<UserDetails> getUsers(List<String> uids) throws IOException {
         log.info(String.format("Requested user details for one or multiple users. Count: %d", uids.size()));
 
-        List<UserDetails> userDetails = new ArrayList<>();
+        List<String> distinctUids = new ArrayList<>(new LinkedHashSet<>(uids));
+        int chunkSize = Math.max(1, lookupChunkSize);
+        List<CompletableFuture<List<CDCAccount>>> chunkSearches = new ArrayList<>();
+        for (int start = 0; start < distinctUids.size(); start += chunkSize) {
+            List<String> chunk = distinctUids.subList(start, Math.min(start + chunkSize, distinctUids.size()));
+            chunkSearches.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return searchByUids(chunk);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, cdcExecutor));
+        }
+
+        Map<String, UserDetails> userDetails = new LinkedHashMap<>();
+        for (CompletableFuture<List<CDCAccount>> chunkSearch : chunkSearches) {
+            for (CDCAccount result : Utils.await(chunkSearch)) {
+                userDetails.merge(result.getUID(), buildUserDetails(result), UsersHandler::mergeAccounts);
+            }
+        }
+
+        return new ArrayList<>(userDetails.values());
+    }
 
+    private List<CDCAccount> searchByUids(List<String> uids) throws IOException {
         String joinedUids = uids.stream()
                 .map(s -> "'" + s + "'")
                 .collect(Collectors.joining(", "));
-        String query = String.format("SELECT UID, profile.email, profile.firstName, profile.lastName, isRegistered FROM accounts WHERE UID in (%s) ", joinedUids);
-        GSResponse response = gigyaApi.search(query, AccountType.FULL_LITE, mainApiDomain);
-
-        CDCSearchResponse cdcSearchResponse = new ObjectMapper().readValue(response.getResponseText(), CDCSearchResponse.class);
-        if (cdcSearchResponse.getErrorCode() == 0) {
-            if (cdcSearchResponse.getTotalCount() > 0) {
-                for (CDCAccount result : cdcSearchResponse.getResults()) {
-
-                    Profile profile = result.getProfile();
-                    Object isReg = result.getIsRegistered();
-                    UserDetails user = UserDetails.builder()
-                            .uid(result.getUID())
-                            .email(profile.getEmail())
-                            .firstName(profile.getFirstName())
-                            .lastName(profile.getLastName())
-                            .isEmailOnly(isReg == null)
-                            .build();
-
-                    UserDetails existingUser = userDetails.stream().filter(usr -> result.getUID().equals(usr.getUid())).findAny().orElse(null);
-                    if (existingUser != null) {
-                        if (user.getFirstName() != null) {
-                            int indexOfUser = userDetails.indexOf(existingUser);
-                            user.setAssociatedAccounts(TWO_ACCOUNTS);
-                            userDetails.set(indexOfUser, user);
-                        }
-                    } else {
-                        user.setAssociatedAccounts(ONE_ACCOUNT);
-                        userDetails.add(user);
-                    }
-                }
+        String query = String.format("SELECT UID, profile.email, profile.firstName, profile.lastName, isRegistered FROM accounts WHERE UID in (%s) LIMIT %d", joinedUids, uids.size() * MAX_ACCOUNTS_PER_UID);
+
+        List<CDCAccount> accounts = new ArrayList<>();
+        String cursorId = null;
+        do {
+            GSResponse response = gigyaApi.searchWithCursor(query, cursorId, AccountType.FULL_LITE, mainApiDomain);
+            CDCSearchResponse cdcSearchResponse = new ObjectMapper().readValue(response.getResponseText(), CDCSearchResponse.class);
+            if (cdcSearchResponse.getErrorCode() != 0) {
+                log.error(String.format("An error occurred when searching users. Error: %s", cdcSearchResponse.getStatusReason()));
+                break;
             }
-        } else {
-            log.error(String.format("An error occurred when searching users. Error: %s", cdcSearchResponse.getStatusReason()));
-        }
 
-        return userDetails;
+            if (cdcSearchResponse.getResults() != null) {
+                accounts.addAll(cdcSearchResponse.getResults());
+            }
+            cursorId = Utils.isNullOrEmpty(cdcSearchResponse.getNextCursorId()) || Utils.isNullOrEmpty(cdcSearchResponse.getResults())
+                    ? null
+                    : cdcSearchResponse.getNextCursorId();
+        } while (cursorId != null);
+
+        return accounts;
+    }
+
+    private static UserDetails buildUserDetails(CDCAccount result) {
+        Profile profile = result.getProfile();
+        Object isReg = result.getIsRegistered();
+        return UserDetails.builder()
+                .uid(result.getUID())
+                .email(profile.getEmail())
+                .firstName(profile.getFirstName())
+                .lastName(profile.getLastName())
+                .isEmailOnly(isReg == null)
+                .associatedAccounts(ONE_ACCOUNT)
+                .build();
+    }
+
+    private static UserDetails mergeAccounts(UserDetails existingUser, UserDetails user) {
+        if (user.getFirstName() != null) {
+            user.setAssociatedAccounts(TWO_ACCOUNTS);
+            return user;
+        }
+        return existingUser;
     }
 
     public ProfileInfoDTO getUserProfileByUID(String uid) throws IOException {
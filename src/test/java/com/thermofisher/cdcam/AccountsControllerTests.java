@@ -7,6 +7,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -18,6 +19,7 @@ import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import com.thermofisher.cdcam.model.dto.*;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -66,12 +68,14 @@ import com.thermofisher.cdcam.services.DataProtectionService;
 import com.thermofisher.cdcam.services.EmailVerificationService;
 import com.thermofisher.cdcam.services.GigyaService;
 import com.thermofisher.cdcam.services.InvitationService;
+import com.thermofisher.cdcam.services.JWTPublicKeyService;
 import com.thermofisher.cdcam.services.JWTService;
-import com.thermofisher.cdcam.services.JWTValidator;
 import com.thermofisher.cdcam.services.NotificationService;
 import com.thermofisher.cdcam.services.ReCaptchaService;
 import com.thermofisher.cdcam.services.SecretsService;
 import com.thermofisher.cdcam.services.UpdateAccountService;
+import com.thermofisher.cdcam.services.WebhookDeduplicationService;
+import com.thermofisher.cdcam.services.WebhookEventCoalescer;
 import com.thermofisher.cdcam.services.hashing.HashingService;
 import com.thermofisher.cdcam.utils.AccountUtils;
 import com.thermofisher.cdcam.utils.EmailRequestBuilderUtils;
@@ -135,6 +139,9 @@ public class AccountsControllerTests {
     @Mock
     InvitationService invitationService;
 
+    @Mock
+    JWTPublicKeyService jwtPublicKeyService;
+
     @Mock
     JWTService jwtService;
 
@@ -153,6 +160,12 @@ public class AccountsControllerTests {
     @Mock
     UsersHandler usersHandler;
 
+    @Mock
+    WebhookDeduplicationService webhookDeduplicationService;
+
+    @Mock
+    WebhookEventCoalescer webhookEventCoalescer;
+
     @Captor
     ArgumentCaptor<String> reCaptchaSecretCaptor;
 
@@ -182,6 +195,12 @@ public class AccountsControllerTests {
     @Before
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(accountsController, "remoteCallExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(accountsController, "sideEffectExecutor", (Executor) Runnable::run);
+        doAnswer(invocation -> {
+            invocation.getArgument(2, Runnable.class).run();
+            return null;
+        }).when(webhookEventCoalescer).submit(anyString(), anyString(), any());
         reCaptchaResponse = new JSONObject();
         uids.add("001");
         uids.add("002");
@@ -262,18 +281,14 @@ public class AccountsControllerTests {
         int numberOfWebhookEvents = 1;
         String jwt = Utils.getAlphaNumericString(20);
         String body = CDCTestsUtils.getWebhookEventBody(WebhookEvent.REGISTRATION, numberOfWebhookEvents);
-        when(gigyaService.getJWTPublicKey()).thenReturn(null);
         doNothing().when(accountsService).onAccountRegistered(any());
+        when(jwtPublicKeyService.isValidSignature(anyString())).thenReturn(true);
 
-        try (MockedStatic<JWTValidator> jwtValidatorMock = Mockito.mockStatic(JWTValidator.class)) {
-            jwtValidatorMock.when(() -> JWTValidator.isValidSignature(anyString(), any())).thenReturn(true);
-
-            // when
-            ResponseEntity<String> response = accountsController.onAccountRegistered(jwt, body);
+        // when
+        ResponseEntity<String> response = accountsController.onAccountRegistered(jwt, body);
 
-            // then
-            Assert.assertEquals(HttpStatus.OK, response.getStatusCode());
-        }
+        // then
+        Assert.assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
     @Test
@@ -282,18 +297,14 @@ public class AccountsControllerTests {
         int numberOfWebhookEvents = 1;
         String jwt = Utils.getAlphaNumericString(20);
         String body = CDCTestsUtils.getWebhookEventBody(WebhookEvent.REGISTRATION, numberOfWebhookEvents);
-        when(gigyaService.getJWTPublicKey()).thenReturn(null);
         doNothing().when(accountsService).onAccountRegistered(any());
+        when(jwtPublicKeyService.isValidSignature(anyString())).thenReturn(false);
 
-        try (MockedStatic<JWTValidator> jwtValidatorMock = Mockito.mockStatic(JWTValidator.class)) {
-            jwtValidatorMock.when(() -> JWTValidator.isValidSignature(anyString(), any())).thenReturn(false);
-
-            // when
-            accountsController.onAccountRegistered(jwt, body);
+        // when
+        accountsController.onAccountRegistered(jwt, body);
 
-            // then
-            verify(accountsService, times(0)).onAccountRegistered(body);
-        }
+        // then
+        verify(accountsService, times(0)).onAccountRegistered(body);
     }
 
     @Test
@@ -302,18 +313,30 @@ public class AccountsControllerTests {
         int numberOfWebhookEvents = 2;
         String jwt = Utils.getAlphaNumericString(20);
         String body = CDCTestsUtils.getWebhookEventBody(WebhookEvent.REGISTRATION, numberOfWebhookEvents);
-        when(gigyaService.getJWTPublicKey()).thenReturn(null);
         doNothing().when(accountsService).onAccountRegistered(anyString());
+        when(jwtPublicKeyService.isValidSignature(anyString())).thenReturn(true);
 
-        try (MockedStatic<JWTValidator> jwtValidatorMock = Mockito.mockStatic(JWTValidator.class)) {
-            jwtValidatorMock.when(() -> JWTValidator.isValidSignature(anyString(), any())).thenReturn(true);
+        // when
+        accountsController.onAccountRegistered(jwt, body);
 
-            // when
-            accountsController.onAccountRegistered(jwt, body);
+        // then
+        verify(accountsService, times(numberOfWebhookEvents)).onAccountRegistered(anyString());
+    }
 
-            // then
-            verify(accountsService, times(numberOfWebhookEvents)).onAccountRegistered(anyString());
-        }
+    @Test
+    public void onAccountRegistered_GivenTheEventsWereAlreadyReceived_ThenOnAccountRegisteredShouldNotBeCalled() throws GSKeyNotFoundException, CustomGigyaErrorException {
+        // given
+        String jwt = Utils.getAlphaNumericString(20);
+        String body = CDCTestsUtils.getWebhookEventBody(WebhookEvent.REGISTRATION, 2);
+        when(jwtPublicKeyService.isValidSignature(anyString())).thenReturn(true);
+        when(webhookDeduplicationService.isDuplicate(any())).thenReturn(true);
+
+        // when
+        ResponseEntity<String> response = accountsController.onAccountRegistered(jwt, body);
+
+        // then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(accountsService, never()).onAccountRegistered(anyString());
     }
 
     @Test
@@ -322,18 +345,14 @@ public class AccountsControllerTests {
         int numberOfWebhookEvents = 1;
         String jwt = Utils.getAlphaNumericString(20);
         String body = CDCTestsUtils.getWebhookEventBody(WebhookEvent.REGISTRATION, numberOfWebhookEvents);
-        when(gigyaService.getJWTPublicKey()).thenThrow(new CustomGigyaErrorException(""));
+        when(jwtPublicKeyService.isValidSignature(anyString())).thenThrow(new CustomGigyaErrorException(""));
         doNothing().when(accountsService).onAccountRegistered(any());
 
-        try (MockedStatic<JWTValidator> jwtValidatorMock = Mockito.mockStatic(JWTValidator.class)) {
-            jwtValidatorMock.when(() -> JWTValidator.isValidSignature(anyString(), any())).thenReturn(false);
-
-            // when
-            accountsController.onAccountRegistered(jwt, body);
+        // when
+        accountsController.onAccountRegistered(jwt, body);
 
-            // then
-            verify(accountsService, times(0)).onAccountRegistered(body);
-        }
+        // then
+        verify(accountsService, times(0)).onAccountRegistered(body);
     }
 
     @Test
@@ -685,6 +704,27 @@ public class AccountsControllerTests {
         verify(emailVerificationService, times(0)).sendVerificationByLinkEmail(any());
     }
 
+    @Test
+    public void newAccount_givenANotificationFails_thenTheRemainingSideEffectsShouldRunAndTheAccountShouldBeReturned() throws IOException,
+            JSONException, ReCaptchaLowScoreException, ReCaptchaUnsuccessfulResponseException, NoSuchAlgorithmException, CustomGigyaErrorException {
+        // given
+        ReflectionTestUtils.setField(accountsController, "isRegistrationNotificationEnabled", true);
+        AccountInfoDTO accountDTO = AccountUtils.getAccountInfoDTO();
+        CDCResponseData cdcResponseData = getValidCDCResponse(AccountUtils.uid);
+        when(reCaptchaService.verifyToken(any(), any())).thenReturn(reCaptchaResponse);
+        when(accountsService.createAccount(any())).thenReturn(cdcResponseData);
+        doThrow(new RuntimeException("SNS unavailable")).when(notificationService).sendAccountRegisteredNotification(any(), any());
+
+        // when
+        ResponseEntity<CDCResponseData> response = accountsController.newAccount(accountDTO, COOKIE_CIP_AUTHDATA_VALID, null);
+
+        // then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(AccountUtils.uid, response.getBody().getUID());
+        verify(notificationService).sendNotifyAccountInfoNotification(any(), any());
+        verify(emailVerificationService).sendVerificationByLinkEmail(AccountUtils.uid);
+    }
+
     @Test
     public void newAccount_givenRegistrationNotSuccessfulAndEmailVerificationIsDisabled_sendVerificationByLinkEmailShouldNotBeCalled() throws IOException,
             JSONException, ReCaptchaLowScoreException, ReCaptchaUnsuccessfulResponseException, NoSuchAlgorithmException, CustomGigyaErrorException {
@@ -888,20 +928,20 @@ public class AccountsControllerTests {
     public void sendUsernameRecoveryEmail_shouldSearchForAccountInfoByEmail() throws IOException, CustomGigyaErrorException {
         // given
         AccountInfo accountInfo = AccountUtils.getSiteAccount();
-        when(gigyaService.getAccountInfoByEmail(anyString())).thenReturn(accountInfo);
+        when(gigyaService.getNotificationAccountByEmail(anyString())).thenReturn(accountInfo);
 
         // when
         accountsController.sendRecoverUsernameEmail(usernameRecoveryDTO);
 
         // then
-        verify(gigyaService).getAccountInfoByEmail(anyString());
+        verify(gigyaService).getNotificationAccountByEmail(anyString());
     }
 
     @Test
     public void sendUsernameRecoveryEmail_shouldSendUsernameRecoveryEmail() throws IOException, CustomGigyaErrorException {
         // given
         AccountInfo accountInfo = AccountUtils.getSiteAccount();
-        when(gigyaService.getAccountInfoByEmail(anyString())).thenReturn(accountInfo);
+        when(gigyaService.getNotificationAccountByEmail(anyString())).thenReturn(accountInfo);
 
         // when
         accountsController.sendRecoverUsernameEmail(usernameRecoveryDTO);
@@ -913,7 +953,7 @@ public class AccountsControllerTests {
     @Test
     public void sendUsernameRecoveryEmail_shouldReturnBadRequest_whenAccountIsNull() throws IOException, CustomGigyaErrorException {
         // given
-        when(gigyaService.getAccountInfoByEmail(anyString())).thenReturn(null);
+        when(gigyaService.getNotificationAccountByEmail(anyString())).thenReturn(null);
 
         // when
         ResponseEntity<String> resp = accountsController.sendRecoverUsernameEmail(usernameRecoveryDTO);
@@ -925,7 +965,7 @@ public class AccountsControllerTests {
     @Test
     public void sendUsernameRecoveryEmail_shouldReturnInternalServerError_whenAnExceptionIsThrown() throws IOException, CustomGigyaErrorException {
         // given
-        when(gigyaService.getAccountInfoByEmail(anyString())).thenThrow(new CustomGigyaErrorException(""));
+        when(gigyaService.getNotificationAccountByEmail(anyString())).thenThrow(new CustomGigyaErrorException(""));
 
         // when
         ResponseEntity<String> resp = accountsController.sendRecoverUsernameEmail(usernameRecoveryDTO);
@@ -1130,20 +1170,16 @@ public class AccountsControllerTests {
         int numberOfWebhookEvents = 1;
         String jwt = Utils.getAlphaNumericString(20);
         String body = CDCTestsUtils.getWebhookEventBody(WebhookEvent.MERGE, numberOfWebhookEvents);
-        when(gigyaService.getJWTPublicKey()).thenReturn(null);
         doNothing().when(accountsService).onAccountMerged(anyString());
         doNothing().when(accountsService).onAccountUpdated(anyString());
+        when(jwtPublicKeyService.isValidSignature(anyString())).thenReturn(false);
 
-        try (MockedStatic<JWTValidator> jwtValidatorMock = Mockito.mockStatic(JWTValidator.class)) {
-            jwtValidatorMock.when(() -> JWTValidator.isValidSignature(anyString(), any())).thenReturn(false);
-
-            // when
-            accountsController.onAccountsMerge(jwt, body);
+        // when
+        accountsController.onAccountsMerge(jwt, body);
 
-            // then
-            verify(accountsService, never()).onAccountMerged(anyString());
-            verify(accountsService, never()).onAccountUpdated(anyString());
-        }
+        // then
+        verify(accountsService, never()).onAccountMerged(anyString());
+        verify(accountsService, never()).onAccountUpdated(anyString());
     }
 
     @Test
@@ -1152,18 +1188,14 @@ public class AccountsControllerTests {
         int numberOfWebhookEvents = 1;
         String jwt = Utils.getAlphaNumericString(20);
         String body = CDCTestsUtils.getWebhookEventBody(WebhookEvent.REGISTRATION, numberOfWebhookEvents);
-        when(gigyaService.getJWTPublicKey()).thenReturn(null);
         doNothing().when(accountsService).onAccountMerged(anyString());
+        when(jwtPublicKeyService.isValidSignature(anyString())).thenReturn(false);
 
-        try (MockedStatic<JWTValidator> jwtValidatorMock = Mockito.mockStatic(JWTValidator.class)) {
-            jwtValidatorMock.when(() -> JWTValidator.isValidSignature(anyString(), any())).thenReturn(false);
-
-            // when
-            accountsController.onAccountsMerge(jwt, body);
+        // when
+        accountsController.onAccountsMerge(jwt, body);
 
-            // then
-            verify(accountsService, never()).onAccountMerged(anyString());
-        }
+        // then
+        verify(accountsService, never()).onAccountMerged(anyString());
     }
 
     @Test
@@ -1172,18 +1204,15 @@ public class AccountsControllerTests {
         int numberOfWebhookEvents = 2;
         String jwt = Utils.getAlphaNumericString(20);
         String body = CDCTestsUtils.getWebhookEventBody(WebhookEvent.MERGE, numberOfWebhookEvents);
-        when(gigyaService.getJWTPublicKey()).thenReturn(null);
         doNothing().when(accountsService).onAccountMerged(anyString());
+        when(jwtPublicKeyService.isValidSignature(anyString())).thenReturn(true);
 
-        try (MockedStatic<JWTValidator> jwtValidatorMock = Mockito.mockStatic(JWTValidator.class)) {
-            jwtValidatorMock.when(() -> JWTValidator.isValidSignature(anyString(), any())).thenReturn(true);
-
-            // when
-            accountsController.onAccountsMerge(jwt, body);
+        // when
+        accountsController.onAccountsMerge(jwt, body);
 
-            // then
-            verify(accountsService, times(numberOfWebhookEvents)).onAccountMerged(anyString());
-        }
+        // then
+        verify(gigyaService, times(numberOfWebhookEvents)).evictAccountInfo(anyString());
+        verify(accountsService, times(numberOfWebhookEvents)).onAccountMerged(anyString());
     }
 
     @Test
@@ -1192,18 +1221,14 @@ public class AccountsControllerTests {
         int numberOfWebhookEvents = 2;
         String jwt = Utils.getAlphaNumericString(20);
         String body = CDCTestsUtils.getWebhookEventBody(WebhookEvent.MERGE, numberOfWebhookEvents);
-        when(gigyaService.getJWTPublicKey()).thenThrow(new CustomGigyaErrorException(""));
+        when(jwtPublicKeyService.isValidSignature(anyString())).thenThrow(new CustomGigyaErrorException(""));
         doNothing().when(accountsService).onAccountMerged(anyString());
 
-        try (MockedStatic<JWTValidator> jwtValidatorMock = Mockito.mockStatic(JWTValidator.class)) {
-            jwtValidatorMock.when(() -> JWTValidator.isValidSignature(anyString(), any())).thenReturn(true);
-
-            // when
-            accountsController.onAccountsMerge(jwt, body);
+        // when
+        accountsController.onAccountsMerge(jwt, body);
 
-            // then
-            verify(accountsService, never()).onAccountMerged(anyString());
-        }
+        // then
+        verify(accountsService, never()).onAccountMerged(anyString());
     }
 
     @Test
@@ -1212,18 +1237,14 @@ public class AccountsControllerTests {
         int numberOfWebhookEvents = 1;
         String jwt = Utils.getAlphaNumericString(20);
         String body = CDCTestsUtils.getWebhookEventBody(WebhookEvent.REGISTRATION, numberOfWebhookEvents);
-        when(gigyaService.getJWTPublicKey()).thenReturn(null);
         doNothing().when(accountsService).onAccountUpdated(anyString());
+        when(jwtPublicKeyService.isValidSignature(anyString())).thenReturn(false);
 
-        try (MockedStatic<JWTValidator> jwtValidatorMock = Mockito.mockStatic(JWTValidator.class)) {
-            jwtValidatorMock.when(() -> JWTValidator.isValidSignature(anyString(), any())).thenReturn(false);
-
-            // when
-            accountsController.onAccountsMerge(jwt, body);
+        // when
+        accountsController.onAccountsMerge(jwt, body);
 
-            // then
-            verify(accountsService, never()).onAccountUpdated(anyString());
-        }
+        // then
+        verify(accountsService, never()).onAccountUpdated(anyString());
     }
 
     @Test
@@ -1232,18 +1253,14 @@ public class AccountsControllerTests {
         int numberOfWebhookEvents = 2;
         String jwt = Utils.getAlphaNumericString(20);
         String body = CDCTestsUtils.getWebhookEventBody(WebhookEvent.UPDATE, numberOfWebhookEvents);
-        when(gigyaService.getJWTPublicKey()).thenReturn(null);
         doNothing().when(accountsService).onAccountUpdated(anyString());
+        when(jwtPublicKeyService.isValidSignature(anyString())).thenReturn(true);
 
-        try (MockedStatic<JWTValidator> jwtValidatorMock = Mockito.mockStatic(JWTValidator.class)) {
-            jwtValidatorMock.when(() -> JWTValidator.isValidSignature(anyString(), any())).thenReturn(true);
-
-            // when
-            accountsController.onAccountsMerge(jwt, body);
+        // when
+        accountsController.onAccountsMerge(jwt, body);
 
-            // then
-            verify(accountsService, times(numberOfWebhookEvents)).onAccountUpdated(anyString());
-        }
+        // then
+        verify(accountsService, times(numberOfWebhookEvents)).onAccountUpdated(anyString());
     }
 
     @Test
@@ -10,6 +10,7 @@ import com.thermofisher.cdcam.services.CookieService;
 import com.thermofisher.cdcam.services.EncodeService;
 import com.thermofisher.cdcam.services.GigyaService;
 import com.thermofisher.cdcam.services.LoginService;
+import com.thermofisher.cdcam.services.RelyingPartyService;
 import com.thermofisher.cdcam.services.URLService;
 import com.thermofisher.cdcam.utils.Utils;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -57,6 +58,9 @@ public class RegistrationControllerTests {
     @Mock
     GigyaService gigyaService;
 
+    @Mock
+    RelyingPartyService relyingPartyService;
+
     @Mock
     CookieService cookieService;
 
@@ -92,7 +96,7 @@ public class RegistrationControllerTests {
                 .build();
         String params = "?state=state&redirect_uri=redirect";
 //        when(encodeService.encodeUTF8(anyString())).thenReturn(URLDecoder.decode(params, StandardCharsets.UTF_8.toString()));
-        when(gigyaService.getRP(anyString())).thenReturn(openIdRelyingParty);
+        when(relyingPartyService.getRP(anyString())).thenReturn(openIdRelyingParty);
         when(cookieService.createCIPAuthDataCookie(any(CIPAuthDataDTO.class), anyString())).thenReturn(RandomStringUtils.randomAlphanumeric(10));
 
         // when
@@ -118,7 +122,7 @@ public class RegistrationControllerTests {
                 .build();
         String params = "?state=state&redirect_uri=redirect";
         //    when(encodeService.encodeUTF8(anyString())).thenReturn(URLDecoder.decode(params, StandardCharsets.UTF_8.toString()));
-        when(gigyaService.getRP(anyString())).thenReturn(openIdRelyingParty);
+        when(relyingPartyService.getRP(anyString())).thenReturn(openIdRelyingParty);
 
         // when
         ResponseEntity<?> response = registrationController.getRPRegistrationConfig(CLIENT_ID, redirectUtl, STATE, RESPONSE_TYPE, SCOPE);
@@ -132,7 +136,7 @@ public class RegistrationControllerTests {
         //given
         String params = "?state=state&redirect_uri=redirect";
         //    when(encodeService.encodeUTF8(anyString())).thenReturn(URLDecoder.decode(params, StandardCharsets.UTF_8.toString()));
-        when(gigyaService.getRP(anyString())).thenThrow(new CustomGigyaErrorException("404000"));
+        when(relyingPartyService.getRP(anyString())).thenThrow(new CustomGigyaErrorException("404000"));
 
         // when
         ResponseEntity<?> response = registrationController.getRPRegistrationConfig(CLIENT_ID, REDIRECT_URL, STATE, RESPONSE_TYPE, SCOPE);
@@ -146,7 +150,7 @@ public class RegistrationControllerTests {
         //given
         String params = "?state=state&redirect_uri=redirect";
         //    when(encodeService.encodeUTF8(anyString())).thenReturn(URLDecoder.decode(params, StandardCharsets.UTF_8.toString()));
-        when(gigyaService.getRP(anyString())).thenThrow(new CustomGigyaErrorException("599999"));
+        when(relyingPartyService.getRP(anyString())).thenThrow(new CustomGigyaErrorException("599999"));
 
         // when
         ResponseEntity<?> response = registrationController.getRPRegistrationConfig(CLIENT_ID, REDIRECT_URL, STATE, RESPONSE_TYPE, SCOPE);
@@ -188,7 +192,7 @@ public class RegistrationControllerTests {
         ReflectionTestUtils.setField(registrationController, "getOidcLoginEndpointPath", GET_LOGIN_ENDPOINT_PATH);
         String params = "?state=state&redirect_uri=redirect";
         //   when(encodeService.encodeUTF8(anyString())).thenReturn(URLDecoder.decode(params, StandardCharsets.UTF_8.toString()));
-        when(gigyaService.getRP(anyString())).thenThrow(new GSKeyNotFoundException(""));
+        when(relyingPartyService.getRP(anyString())).thenThrow(new GSKeyNotFoundException(""));
         //  when(cookieService.createCIPAuthDataCookie(any(CIPAuthDataDTO.class), anyString())).thenReturn(RandomStringUtils.randomAlphanumeric(10));
 
         // when
@@ -2,12 +2,16 @@ package com.thermofisher.cdcam;
 
 import com.gigya.socialize.GSKeyNotFoundException;
 import com.thermofisher.cdcam.controller.ResetPasswordController;
+import com.thermofisher.cdcam.model.AccountInfo;
 import com.thermofisher.cdcam.model.ResetPasswordRequest;
 import com.thermofisher.cdcam.model.ResetPasswordResponse;
 import com.thermofisher.cdcam.model.ResetPasswordSubmit;
+import com.thermofisher.cdcam.model.cdc.CDCAccount;
+import com.thermofisher.cdcam.model.cdc.CDCSearchResponse;
 import com.thermofisher.cdcam.model.cdc.CustomGigyaErrorException;
 import com.thermofisher.cdcam.model.cdc.LoginIdDoesNotExistException;
 import com.thermofisher.cdcam.model.cdc.OpenIdRelyingParty;
+import com.thermofisher.cdcam.model.cdc.Profile;
 import com.thermofisher.cdcam.model.reCaptcha.ReCaptchaLowScoreException;
 import com.thermofisher.cdcam.model.reCaptcha.ReCaptchaUnsuccessfulResponseException;
 import com.thermofisher.cdcam.services.CookieService;
@@ -17,6 +21,7 @@ import com.thermofisher.cdcam.services.JWTService;
 import com.thermofisher.cdcam.services.LoginService;
 import com.thermofisher.cdcam.services.NotificationService;
 import com.thermofisher.cdcam.services.ReCaptchaService;
+import com.thermofisher.cdcam.services.RelyingPartyService;
 import com.thermofisher.cdcam.services.SecretsService;
 import com.thermofisher.cdcam.utils.Utils;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -33,11 +38,13 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -63,6 +70,9 @@ public class ResetPasswordControllerTests {
     @Mock
     GigyaService gigyaService;
 
+    @Mock
+    RelyingPartyService relyingPartyService;
+
     @Mock
     CookieService cookieService;
 
@@ -91,6 +101,7 @@ public class ResetPasswordControllerTests {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(resetPasswordController, "cdcExecutor", (Executor) Runnable::run);
         reCaptchaResponse = new JSONObject();
         resetPasswordRequestBody = mock(ResetPasswordRequest.class);
         resetPasswordResponseMock = mock(ResetPasswordResponse.class);
@@ -185,7 +196,7 @@ public class ResetPasswordControllerTests {
         setSendResetPasswordEmailMocks();
         when(reCaptchaService.verifyToken(any(), any())).thenReturn(reCaptchaResponse);
         when(gigyaService.getEmailByUsername(username)).thenReturn(email);
-        when(gigyaService.resetPasswordRequest(username)).thenReturn("");
+        when(gigyaService.requestPasswordReset(eq(username), any())).thenReturn("");
 
         //when
         ResponseEntity<?> result = resetPasswordController.sendResetPasswordEmail(resetPasswordRequestBody, COOKIE_CIP_AUTHDATA_VALID, null);
@@ -194,6 +205,53 @@ public class ResetPasswordControllerTests {
         assertEquals(result.getStatusCode(), HttpStatus.OK);
     }
 
+    @Test
+    public void sendResetPasswordEmail_WhenTheAccountSearchRanDuringReCaptchaVerification_ThenItsResultShouldBeUsedForTheResetRequest()
+            throws JSONException, IOException, CustomGigyaErrorException, LoginIdDoesNotExistException,
+            ReCaptchaLowScoreException, ReCaptchaUnsuccessfulResponseException, GSKeyNotFoundException {
+        // given
+        setSendResetPasswordEmailMocks();
+        CDCSearchResponse searchResponse = new CDCSearchResponse();
+        when(gigyaService.searchAccountsByUsername(username)).thenReturn(searchResponse);
+        when(reCaptchaService.verifyToken(any(), any())).thenReturn(reCaptchaResponse);
+        when(gigyaService.requestPasswordReset(username, searchResponse)).thenReturn("");
+
+        // when
+        ResponseEntity<?> result = resetPasswordController.sendResetPasswordEmail(resetPasswordRequestBody, COOKIE_CIP_AUTHDATA_VALID, null);
+
+        // then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        verify(gigyaService).searchAccountsByUsername(username);
+        verify(gigyaService).requestPasswordReset(username, searchResponse);
+        verify(gigyaService, never()).resetPasswordRequest(anyString());
+    }
+
+    @Test
+    public void sendResetPasswordEmail_WhenTheAccountSearchFoundTheAccount_ThenTheEmailShouldBeSentWithoutFurtherLookups()
+            throws JSONException, IOException, CustomGigyaErrorException, LoginIdDoesNotExistException,
+            ReCaptchaLowScoreException, ReCaptchaUnsuccessfulResponseException, GSKeyNotFoundException {
+        // given
+        setSendResetPasswordEmailMocks();
+        Profile profile = Profile.builder().username(username).email(email).firstName("first").lastName("last").build();
+        CDCAccount account = CDCAccount.builder().UID("uid").profile(profile).build();
+        CDCSearchResponse searchResponse = CDCSearchResponse.builder().results(List.of(account)).build();
+        when(gigyaService.searchAccountsByUsername(username)).thenReturn(searchResponse);
+        when(reCaptchaService.verifyToken(any(), any())).thenReturn(reCaptchaResponse);
+        when(gigyaService.requestPasswordReset(username, searchResponse)).thenReturn("");
+
+        // when
+        ResponseEntity<?> result = resetPasswordController.sendResetPasswordEmail(resetPasswordRequestBody, COOKIE_CIP_AUTHDATA_VALID, null);
+
+        // then
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        ArgumentCaptor<AccountInfo> accountCaptor = ArgumentCaptor.forClass(AccountInfo.class);
+        verify(notificationService).sendRequestResetPasswordEmailNotification(accountCaptor.capture(), any());
+        assertEquals(email, accountCaptor.getValue().getEmailAddress());
+        assertEquals("uid", accountCaptor.getValue().getUid());
+        verify(gigyaService, never()).getEmailByUsername(anyString());
+        verify(gigyaService, never()).getAccountInfoByEmail(anyString());
+    }
+
     @Test
     public void sendResetPasswordEmail_WhenCIPAuthDataDoesntExists_ThenADefaultCookieShouldBeBuildAndReturnOK()
             throws JSONException, IOException, CustomGigyaErrorException, LoginIdDoesNotExistException,
@@ -202,7 +260,7 @@ public class ResetPasswordControllerTests {
         setSendResetPasswordEmailMocks();
         when(reCaptchaService.verifyToken(any(), any())).thenReturn(reCaptchaResponse);
         when(gigyaService.getEmailByUsername(username)).thenReturn(email);
-        when(gigyaService.resetPasswordRequest(username)).thenReturn("");
+        when(gigyaService.requestPasswordReset(eq(username), any())).thenReturn("");
 //        when(encodeService.encodeBase64(anyString())).thenReturn(COOKIE_CIP_AUTHDATA_VALID.getBytes());
 
         //when
@@ -220,7 +278,7 @@ public class ResetPasswordControllerTests {
         setSendResetPasswordEmailMocks();
         when(reCaptchaService.verifyToken(any(), any())).thenReturn(reCaptchaResponse);
 //        when(gigyaService.getEmailByUsername(username)).thenReturn(email);
-        when(gigyaService.resetPasswordRequest(username)).thenThrow(new LoginIdDoesNotExistException(""));
+        when(gigyaService.requestPasswordReset(eq(username), any())).thenThrow(new LoginIdDoesNotExistException(""));
 //        when(encodeService.encodeBase64(anyString())).thenReturn(COOKIE_CIP_AUTHDATA_VALID.getBytes());
 
         //when
@@ -238,7 +296,7 @@ public class ResetPasswordControllerTests {
         setSendResetPasswordEmailMocks();
         when(reCaptchaService.verifyToken(any(), any())).thenReturn(reCaptchaResponse);
 //        when(gigyaService.getEmailByUsername(username)).thenReturn(email);
-        when(gigyaService.resetPasswordRequest(username)).thenThrow(new CustomGigyaErrorException(""));
+        when(gigyaService.requestPasswordReset(eq(username), any())).thenThrow(new CustomGigyaErrorException(""));
         //       when(encodeService.encodeBase64(anyString())).thenReturn(COOKIE_CIP_AUTHDATA_VALID.getBytes());
 
         //when
@@ -256,7 +314,7 @@ public class ResetPasswordControllerTests {
         setSendResetPasswordEmailMocks();
         when(reCaptchaService.verifyToken(any(), any())).thenReturn(reCaptchaResponse);
 //        when(gigyaService.getEmailByUsername(username)).thenReturn(email);
-        when(gigyaService.resetPasswordRequest(username)).thenThrow(new NullPointerException(""));
+        when(gigyaService.requestPasswordReset(eq(username), any())).thenThrow(new NullPointerException(""));
 //        when(encodeService.encodeBase64(anyString())).thenReturn(COOKIE_CIP_AUTHDATA_VALID.getBytes());
 
         //when
@@ -369,7 +427,7 @@ public class ResetPasswordControllerTests {
                 .description(description)
                 .redirectUris(redirectUris)
                 .build();
-        when(gigyaService.getRP(anyString())).thenReturn(openIdRelyingParty);
+        when(relyingPartyService.getRP(anyString())).thenReturn(openIdRelyingParty);
 //        when(encodeService.encodeUTF8(anyString())).thenReturn(URLDecoder.decode(params, StandardCharsets.UTF_8.toString()));
         when(cookieService.createCIPAuthDataCookie(any(), any())).thenReturn(anyString());
         // when
@@ -392,7 +450,7 @@ public class ResetPasswordControllerTests {
                 .description(description)
                 .redirectUris(redirectUris)
                 .build();
-        when(gigyaService.getRP(anyString())).thenReturn(openIdRelyingParty);
+        when(relyingPartyService.getRP(anyString())).thenReturn(openIdRelyingParty);
 
         // when
         ResponseEntity<?> response = resetPasswordController.getRPResetPasswordConfig(CLIENT_ID, redirectUtl, STATE, RESPONSE_TYPE, SCOPE);
@@ -404,7 +462,7 @@ public class ResetPasswordControllerTests {
     @Test
     public void getRPResetPasswordConfig_GivenMethodCalled_WhenParametersAreValidAndClientIdDoesNotExists_ThenShouldReturnBadRequest() throws Exception {
         // given
-        when(gigyaService.getRP(anyString())).thenThrow(new CustomGigyaErrorException("404000"));
+        when(relyingPartyService.getRP(anyString())).thenThrow(new CustomGigyaErrorException("404000"));
 
         // when
         ResponseEntity<?> response = resetPasswordController.getRPResetPasswordConfig(CLIENT_ID, REDIRECT_URL, STATE, RESPONSE_TYPE, SCOPE);
@@ -416,7 +474,7 @@ public class ResetPasswordControllerTests {
     @Test
     public void getRPResetPasswordConfig_GivenMethodCalled_WhenParametersAreValidAndAErrorOccurred_ThenShouldReturnBadRequest() throws Exception {
         // given
-        when(gigyaService.getRP(anyString())).thenThrow(new CustomGigyaErrorException("599999"));
+        when(relyingPartyService.getRP(anyString())).thenThrow(new CustomGigyaErrorException("599999"));
 
         // when
         ResponseEntity<?> response = resetPasswordController.getRPResetPasswordConfig(CLIENT_ID, REDIRECT_URL, STATE, RESPONSE_TYPE, SCOPE);
@@ -445,7 +503,7 @@ public class ResetPasswordControllerTests {
 
     @Test
     public void getRPResetPasswordConfig_WhenExceptionJSONExceptionIsThrown_ThenReturnHttpStatusInternalServerError() throws Exception {
-        when(gigyaService.getRP(anyString())).thenThrow(new GSKeyNotFoundException(""));
+        when(relyingPartyService.getRP(anyString())).thenThrow(new GSKeyNotFoundException(""));
 
         // when
         ResponseEntity<?> response = resetPasswordController.getRPResetPasswordConfig(CLIENT_ID, REDIRECT_URL, STATE, RESPONSE_TYPE, SCOPE);
@@ -11,8 +11,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -276,4 +278,39 @@ public class UtilsTests {
         // then
         assertFalse(result);
     }
+
+    @Test
+    public void await_GivenTheFutureFailedWithAnUncheckedIOException_ThenItShouldThrowTheIOException() {
+        // given
+        IOException cause = new IOException("failed");
+        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> {
+            throw new UncheckedIOException(cause);
+        }, Runnable::run);
+
+        // when
+        IOException exception = assertThrows(IOException.class, () -> Utils.await(future));
+
+        // then
+        assertSame(cause, exception);
+    }
+
+    @Test
+    public void await_GivenTheFutureFailedWithARuntimeException_ThenItShouldThrowIt() {
+        // given
+        CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> {
+            throw new IllegalStateException("failed");
+        }, Runnable::run);
+
+        // when / then
+        assertThrows(IllegalStateException.class, () -> Utils.await(future));
+    }
+
+    @Test
+    public void await_GivenTheFutureCompleted_ThenItShouldReturnItsValue() throws IOException {
+        // when
+        String value = Utils.await(CompletableFuture.completedFuture("value"));
+
+        // then
+        assertEquals("value", value);
+    }
 }
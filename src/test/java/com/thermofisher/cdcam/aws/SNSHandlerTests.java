@@ -0,0 +1,135 @@
+package com.thermofisher.cdcam.aws;
+
+import com.amazonaws.services.sns.AmazonSNS;
+import com.amazonaws.services.sns.model.BatchResultErrorEntry;
+import com.amazonaws.services.sns.model.PublishBatchRequest;
+import com.amazonaws.services.sns.model.PublishBatchResult;
+import com.amazonaws.services.sns.model.PublishBatchResultEntry;
+import com.amazonaws.services.sns.model.PublishRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SNSHandlerTests {
+    private static final String SNS_TOPIC = "topic";
+    private final List<Runnable> scheduledTasks = new ArrayList<>();
+
+    @InjectMocks
+    SNSHandler snsHandler;
+
+    @Mock
+    AmazonSNS snsClient;
+
+    @BeforeEach
+    public void setup() {
+        ReflectionTestUtils.setField(snsHandler, "snsClient", snsClient);
+        ReflectionTestUtils.setField(snsHandler, "publisherExecutor", (Executor) scheduledTasks::add);
+        ReflectionTestUtils.setField(snsHandler, "isAsyncEnabled", true);
+        ReflectionTestUtils.setField(snsHandler, "queueCapacity", 20);
+        ReflectionTestUtils.setField(snsHandler, "maxAttempts", 2);
+        ReflectionTestUtils.setField(snsHandler, "retryBackoffMillis", 0L);
+    }
+
+    private void runScheduledTasks() {
+        while (!scheduledTasks.isEmpty()) {
+            scheduledTasks.remove(0).run();
+        }
+    }
+
+    private PublishBatchResult buildSuccessfulResult(PublishBatchRequest request) {
+        PublishBatchResult result = new PublishBatchResult();
+        request.getPublishBatchRequestEntries().forEach(entry -> result.withSuccessful(new PublishBatchResultEntry().withId(entry.getId())));
+        return result;
+    }
+
+    @Test
+    public void sendNotification_GivenAsyncPublishingIsEnabled_ThenMessagesShouldBePublishedInBatchesOfTen() {
+        // given
+        when(snsClient.publishBatch(any())).thenAnswer(invocation -> buildSuccessfulResult(invocation.getArgument(0)));
+
+        // when
+        for (int i = 0; i < 12; i++) {
+            snsHandler.sendNotification("message" + i, SNS_TOPIC);
+        }
+        runScheduledTasks();
+
+        // then
+        ArgumentCaptor<PublishBatchRequest> captor = ArgumentCaptor.forClass(PublishBatchRequest.class);
+        verify(snsClient, times(2)).publishBatch(captor.capture());
+        assertEquals(10, captor.getAllValues().get(0).getPublishBatchRequestEntries().size());
+        assertEquals(2, captor.getAllValues().get(1).getPublishBatchRequestEntries().size());
+        assertEquals(0, snsHandler.getQueuedMessages());
+        verify(snsClient, never()).publish(any(PublishRequest.class));
+    }
+
+    @Test
+    public void sendNotification_GivenAnEntryFailsWithAServerError_ThenOnlyThatEntryShouldBeRetried() {
+        // given
+        PublishBatchResult partialResult = new PublishBatchResult()
+                .withSuccessful(new PublishBatchResultEntry().withId("0"))
+                .withFailed(new BatchResultErrorEntry().withId("1").withCode("InternalError").withSenderFault(false));
+        when(snsClient.publishBatch(any()))
+                .thenReturn(partialResult)
+                .thenAnswer(invocation -> buildSuccessfulResult(invocation.getArgument(0)));
+
+        // when
+        snsHandler.sendNotification("first", SNS_TOPIC);
+        snsHandler.sendNotification("second", SNS_TOPIC);
+        runScheduledTasks();
+
+        // then
+        ArgumentCaptor<PublishBatchRequest> captor = ArgumentCaptor.forClass(PublishBatchRequest.class);
+        verify(snsClient, times(2)).publishBatch(captor.capture());
+        assertEquals(1, captor.getAllValues().get(1).getPublishBatchRequestEntries().size());
+        assertEquals("second", captor.getAllValues().get(1).getPublishBatchRequestEntries().get(0).getMessage());
+    }
+
+    @Test
+    public void sendNotification_GivenTheTopicQueueIsFull_ThenTheMessageShouldBePublishedSynchronously() {
+        // given
+        ReflectionTestUtils.setField(snsHandler, "queueCapacity", 1);
+
+        // when
+        snsHandler.sendNotification("queued", SNS_TOPIC);
+        snsHandler.sendNotification("overflow", SNS_TOPIC);
+
+        // then
+        ArgumentCaptor<PublishRequest> captor = ArgumentCaptor.forClass(PublishRequest.class);
+        verify(snsClient).publish(captor.capture());
+        assertEquals("overflow", captor.getValue().getMessage());
+        assertEquals(1, snsHandler.getQueuedMessages());
+    }
+
+    @Test
+    public void sendNotification_GivenAsyncPublishingIsDisabled_ThenTheMessageShouldBePublishedSynchronously() {
+        // given
+        ReflectionTestUtils.setField(snsHandler, "isAsyncEnabled", false);
+
+        // when
+        snsHandler.sendNotification("message", SNS_TOPIC);
+
+        // then
+        verify(snsClient).publish(any(PublishRequest.class));
+        verify(snsClient, never()).publishBatch(any());
+    }
+}
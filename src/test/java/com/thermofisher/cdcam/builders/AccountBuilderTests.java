@@ -382,7 +382,7 @@ public class  AccountBuilderTests {
     }
 
     @Test
-    public void getAccountInfo_ifGivenAInvalidObj_returnNull() throws Exception {
+    public void getAccountInfo_ifGivenAnObjWithoutData_returnAccountInfoFromTheProfile() throws Exception {
         // given
         when(accountBuilder.getAccountInfo(any(GSObject.class))).thenCallRealMethod();
         GSObject jsonObj = new GSObject(invalidCdcResponse);
@@ -391,7 +391,28 @@ public class  AccountBuilderTests {
         AccountInfo res = accountBuilder.getAccountInfo(jsonObj);
 
         // then
-        Assertions.assertThat(res).isNull();
+        Assertions.assertThat(res.getEmailAddress()).isEqualTo("test@gmail.com");
+        Assertions.assertThat(res.isMarketingConsent()).isFalse();
+        Assertions.assertThat(res.getOpenIdProviderId()).isEqualTo("");
+    }
+
+    @Test
+    public void getAccountInfo_ifGivenAFederationCheckProjection_returnAccountInfoWithTheFederationFlag() throws Exception {
+        // given
+        when(accountBuilder.getAccountInfo(any(GSObject.class))).thenCallRealMethod();
+        GSObject jsonObj = new GSObject();
+        jsonObj.put("UID", "uid");
+        jsonObj.put("loginProvider", "saml-idp");
+        jsonObj.put("socialProviders", "site,saml-idp");
+
+        // when
+        AccountInfo res = accountBuilder.getAccountInfo(jsonObj);
+
+        // then
+        Assertions.assertThat(res.getUid()).isEqualTo("uid");
+        Assertions.assertThat(res.isFederatedAccount()).isTrue();
+        Assertions.assertThat(res.getEmailAddress()).isEqualTo("");
+        Assertions.assertThat(res.getPassword()).isEqualTo("");
     }
 
     @Test
@@ -436,7 +457,7 @@ public class  AccountBuilderTests {
     }
 
     @Test
-    public void getAccountInfoV2_ifGivenAInvalidObj_returnNull() throws Exception {
+    public void getAccountInfoV2_ifGivenAnObjWithoutData_returnAccountInfoFromTheProfile() throws Exception {
         // given
         when(accountBuilder.getAccountInfoV2(any(GSObject.class))).thenCallRealMethod();
         GSObject jsonObj = new GSObject(invalidCdcResponse);
@@ -445,7 +466,9 @@ public class  AccountBuilderTests {
         AccountInfo res = accountBuilder.getAccountInfoV2(jsonObj);
 
         // then
-        Assertions.assertThat(res).isNull();
+        Assertions.assertThat(res.getEmailAddress()).isEqualTo("test@gmail.com");
+        Assertions.assertThat(res.isMarketingConsent()).isFalse();
+        Assertions.assertThat(res.getLegacyUserName()).isNull();
     }
 
     @Test
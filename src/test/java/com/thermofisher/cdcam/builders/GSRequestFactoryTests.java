@@ -0,0 +1,42 @@
+package com.thermofisher.cdcam.builders;
+
+import com.gigya.socialize.GSObject;
+import com.gigya.socialize.GSRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GSRequestFactoryTests {
+    private final String apiKey = "apiKey";
+    private final String secretKey = "secretKey";
+    private final String dataCenter = "us1.gigya.com";
+
+    @Test
+    public void create_ShouldReturnAPooledCDCRequestForTheGivenDataCenter() {
+        // given
+        String apiMethod = "accounts.getAccountInfo";
+
+        // when
+        GSRequest request = GSRequestFactory.create(apiKey, secretKey, dataCenter, apiMethod);
+
+        // then
+        assertTrue(request instanceof CDCRequest);
+        assertEquals(apiMethod, request.getMethod());
+    }
+
+    @Test
+    public void createWithParams_ShouldReturnAPooledCDCRequestWithTheGivenParams() {
+        // given
+        String apiMethod = "accounts.search";
+        GSObject params = new GSObject();
+        params.put("query", "SELECT * FROM accounts");
+
+        // when
+        GSRequest request = GSRequestFactory.createWithParams(apiKey, secretKey, dataCenter, apiMethod, params);
+
+        // then
+        assertTrue(request instanceof CDCRequest);
+        assertEquals("SELECT * FROM accounts", request.getParams().getString("query", null));
+    }
+}
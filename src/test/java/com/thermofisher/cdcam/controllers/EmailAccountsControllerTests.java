@@ -1,11 +1,14 @@
 package com.thermofisher.cdcam.controllers;
 
 import com.thermofisher.cdcam.controller.EmailAccountsController;
+import com.thermofisher.cdcam.enums.LiteRegistrationJobStatus;
 import com.thermofisher.cdcam.model.EECUser;
 import com.thermofisher.cdcam.model.EECUserV2;
 import com.thermofisher.cdcam.model.EECUserV3;
 import com.thermofisher.cdcam.model.EmailList;
+import com.thermofisher.cdcam.model.LiteRegistrationJob;
 import com.thermofisher.cdcam.model.dto.LiteAccountDTO;
+import com.thermofisher.cdcam.services.LiteRegistrationJobService;
 import com.thermofisher.cdcam.utils.cdc.LiteRegistrationService;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -15,15 +18,24 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +48,9 @@ public class EmailAccountsControllerTests {
     @Mock
     LiteRegistrationService liteRegistrationService;
 
+    @Mock
+    LiteRegistrationJobService liteRegistrationJobService;
+
     private void setProperties() {
         ReflectionTestUtils.setField(emailAccountsController, "requestLimit", 1000);
     }
@@ -309,4 +324,97 @@ public class EmailAccountsControllerTests {
         // then
         Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    @Test
+    public void addLiteAccountStreaming_WhenUsersAreProcessed_ThenEachUserShouldBeWrittenAsAJsonLineInOrder() throws IOException {
+        // given
+        List<LiteAccountDTO> accounts = List.of(
+                LiteAccountDTO.builder().email("first@test.com").build(),
+                LiteAccountDTO.builder().email("second@test.com").build()
+        );
+        doAnswer(invocation -> {
+            Consumer<EECUserV3> onResult = invocation.getArgument(1);
+            onResult.accept(EECUserV3.builder().email("first@test.com").responseCode(200).build());
+            onResult.accept(EECUserV3.builder().email("second@test.com").responseCode(4001).build());
+            return null;
+        }).when(liteRegistrationService).registerLiteAccounts(anyList(), any());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // when
+        ResponseEntity<StreamingResponseBody> res = emailAccountsController.addLiteAccountStreaming(accounts);
+        res.getBody().writeTo(outputStream);
+
+        // then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(res.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        Assertions.assertThat(lines).hasSize(2);
+        Assertions.assertThat(lines[0]).contains("first@test.com");
+        Assertions.assertThat(lines[1]).contains("second@test.com");
+    }
+
+    @Test
+    public void addLiteAccountStreaming_WhenTheRequestIsInvalid_ThenReturnBadRequestBeforeStreaming() {
+        // given
+        doThrow(new IllegalArgumentException("No users requested.")).when(liteRegistrationService).validateLiteAccountList(anyList());
+
+        // when
+        ResponseEntity<StreamingResponseBody> res = emailAccountsController.addLiteAccountStreaming(Collections.emptyList());
+
+        // then
+        Assertions.assertThat(res.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        Assertions.assertThat(res.getBody()).isNull();
+    }
+
+    @Test
+    public void registerStreaming_WhenRequestLimitExceeded_ThenReturnBadRequest() {
+        // given
+        ReflectionTestUtils.setField(emailAccountsController, "requestLimit", 1);
+        EmailList emailList = EmailList.builder().emails(List.of("email1", "email2")).build();
+
+        // when
+        ResponseEntity<StreamingResponseBody> res = emailAccountsController.registerStreaming(emailList);
+
+        // then
+        Assertions.assertThat(res.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    public void submitLiteAccountJob_WhenTheJobIsSubmitted_ThenReturnAccepted() throws IOException {
+        // given
+        List<LiteAccountDTO> accounts = List.of(LiteAccountDTO.builder().email("first@test.com").build());
+        LiteRegistrationJob job = LiteRegistrationJob.builder().jobId("jobId").status(LiteRegistrationJobStatus.PENDING).totalUsers(1).build();
+        when(liteRegistrationJobService.submit(accounts)).thenReturn(job);
+
+        // when
+        ResponseEntity<LiteRegistrationJob> res = emailAccountsController.submitLiteAccountJob(accounts);
+
+        // then
+        Assertions.assertThat(res.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        Assertions.assertThat(res.getBody().getJobId()).isEqualTo("jobId");
+    }
+
+    @Test
+    public void submitLiteAccountJob_WhenIllegalArgumentExceptionIsThrown_ThenReturnBadRequest() throws IOException {
+        // given
+        doThrow(new IllegalArgumentException("No users requested.")).when(liteRegistrationJobService).submit(anyList());
+
+        // when
+        ResponseEntity<LiteRegistrationJob> res = emailAccountsController.submitLiteAccountJob(Collections.emptyList());
+
+        // then
+        Assertions.assertThat(res.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    public void getLiteAccountJob_WhenTheJobDoesNotExist_ThenReturnNotFound() throws IOException {
+        // given
+        when(liteRegistrationJobService.getJob(eq("unknown"), eq(true))).thenReturn(null);
+
+        // when
+        ResponseEntity<LiteRegistrationJob> res = emailAccountsController.getLiteAccountJob("unknown", true);
+
+        // then
+        Assertions.assertThat(res.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
 }
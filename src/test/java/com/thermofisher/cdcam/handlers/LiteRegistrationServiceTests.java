@@ -4,6 +4,7 @@ package com.thermofisher.cdcam.handlers;
 import com.gigya.socialize.GSKeyNotFoundException;
 import com.thermofisher.cdcam.enums.ResponseCode;
 import com.thermofisher.cdcam.enums.cdc.DataCenter;
+import com.thermofisher.cdcam.enums.cdc.GigyaCodes;
 import com.thermofisher.cdcam.model.EECUser;
 import com.thermofisher.cdcam.model.EECUserV1;
 import com.thermofisher.cdcam.model.EECUserV2;
@@ -33,10 +34,18 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -678,4 +687,171 @@ public class LiteRegistrationServiceTests {
         });
         
     }
+
+    @Test
+    public void registerLiteAccounts_givenTheBatchedSearchResolvedTheEmails_thenTheyShouldNotBeSearchedOneByOne() throws Exception {
+        // given
+        setProperties();
+        final String existingEmail = "existing@test.com";
+        SearchResponse existingAccountResponse = SearchResponse.builder()
+                .cdcSearchResponse(CDCSearchResponse.builder()
+                        .results(Collections.singletonList(CDCAccount.builder().UID("existing-uid").isRegistered(true).profile(Profile.builder().email(existingEmail).build()).build()))
+                        .build())
+                .dataCenter(DataCenter.US)
+                .build();
+        SearchResponse missingAccountResponse = SearchResponse.builder()
+                .cdcSearchResponse(CDCSearchResponse.builder().results(Collections.emptyList()).build())
+                .build();
+        Map<String, SearchResponse> existingAccounts = new HashMap<>();
+        existingAccounts.put(existingEmail, existingAccountResponse);
+        existingAccounts.put(MOCKED_EMAIL_1, missingAccountResponse);
+        when(gigyaService.searchEmailsInBothDC(anyList())).thenReturn(existingAccounts);
+        when(gigyaService.registerLiteAccount(any(LiteAccountDTO.class))).thenReturn(CDCResponseData.builder().UID(MOCKED_UID).build());
+
+        List<LiteAccountDTO> request = Arrays.asList(
+                LiteAccountDTO.builder().email(MOCKED_EMAIL_1).build(),
+                LiteAccountDTO.builder().email(existingEmail).build()
+        );
+
+        // when
+        List<EECUserV3> result = liteRegistrationService.registerLiteAccounts(request);
+
+        // then
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(MOCKED_UID, result.get(0).getUid());
+        Assertions.assertEquals(RESPONSE_CODE_SUCCESS, result.get(0).getResponseCode());
+        Assertions.assertEquals("existing-uid", result.get(1).getUid());
+        Assertions.assertEquals(RESPONSE_CODE_ACCOUNT_AREADY_EXISTS, result.get(1).getResponseCode());
+        verify(gigyaService, never()).searchInBothDC(anyString());
+    }
+
+    @Test
+    public void registerLiteAccounts_givenARepeatedEmail_thenTheAccountShouldOnlyBeRegisteredOnce() throws Exception {
+        // given
+        setProperties();
+        when(gigyaService.searchInBothDC(MOCKED_EMAIL_1))
+                .thenReturn(SearchResponse.builder()
+                        .cdcSearchResponse(CDCSearchResponse.builder().results(Collections.emptyList()).build())
+                        .build());
+        when(gigyaService.registerLiteAccount(any(LiteAccountDTO.class))).thenReturn(CDCResponseData.builder().UID(MOCKED_UID).build());
+
+        List<LiteAccountDTO> request = Arrays.asList(
+                LiteAccountDTO.builder().email(MOCKED_EMAIL_1).build(),
+                LiteAccountDTO.builder().email(MOCKED_EMAIL_1.toUpperCase()).build()
+        );
+
+        // when
+        List<EECUserV3> result = liteRegistrationService.registerLiteAccounts(request);
+
+        // then
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(MOCKED_UID, result.get(0).getUid());
+        Assertions.assertEquals(MOCKED_UID, result.get(1).getUid());
+        verify(gigyaService, times(1)).registerLiteAccount(any(LiteAccountDTO.class));
+    }
+
+    @Test
+    public void registerLiteAccounts_givenParallelRegistrationIsEnabled_thenTheResultsShouldKeepTheRequestOrder() throws Exception {
+        // given
+        setProperties();
+        ReflectionTestUtils.setField(liteRegistrationService, "registrationParallelism", 3);
+        SearchResponse missingAccountResponse = SearchResponse.builder()
+                .cdcSearchResponse(CDCSearchResponse.builder().results(Collections.emptyList()).build())
+                .build();
+        when(gigyaService.searchInBothDC(anyString())).thenReturn(missingAccountResponse);
+        when(gigyaService.registerLiteAccount(any(LiteAccountDTO.class))).thenAnswer(invocation -> {
+            LiteAccountDTO account = invocation.getArgument(0);
+            return CDCResponseData.builder().UID(account.getEmail()).build();
+        });
+
+        List<LiteAccountDTO> request = Arrays.asList(
+                LiteAccountDTO.builder().email("first@test.com").build(),
+                LiteAccountDTO.builder().email("second@test.com").build(),
+                LiteAccountDTO.builder().email("third@test.com").build()
+        );
+
+        // when
+        List<EECUserV3> result = liteRegistrationService.registerLiteAccounts(request);
+
+        // then
+        Assertions.assertEquals(3, result.size());
+        Assertions.assertEquals("first@test.com", result.get(0).getUid());
+        Assertions.assertEquals("second@test.com", result.get(1).getUid());
+        Assertions.assertEquals("third@test.com", result.get(2).getUid());
+        verify(gigyaService, times(3)).registerLiteAccount(any(LiteAccountDTO.class));
+    }
+
+    @Test
+    public void registerLiteAccounts_givenParallelRegistrationIsEnabled_AndTheClientIsSlow_thenRegistrationsShouldNotWaitForIt() throws Exception {
+        // given
+        setProperties();
+        ReflectionTestUtils.setField(liteRegistrationService, "registrationParallelism", 2);
+        SearchResponse missingAccountResponse = SearchResponse.builder()
+                .cdcSearchResponse(CDCSearchResponse.builder().results(Collections.emptyList()).build())
+                .build();
+        when(gigyaService.searchInBothDC(anyString())).thenReturn(missingAccountResponse);
+        CountDownLatch lastRegistrationStarted = new CountDownLatch(1);
+        when(gigyaService.registerLiteAccount(any(LiteAccountDTO.class))).thenAnswer(invocation -> {
+            LiteAccountDTO account = invocation.getArgument(0);
+            if ("third@test.com".equals(account.getEmail())) {
+                lastRegistrationStarted.countDown();
+            }
+            return CDCResponseData.builder().UID(account.getEmail()).build();
+        });
+
+        List<LiteAccountDTO> request = Arrays.asList(
+                LiteAccountDTO.builder().email("first@test.com").build(),
+                LiteAccountDTO.builder().email("second@test.com").build(),
+                LiteAccountDTO.builder().email("third@test.com").build()
+        );
+        List<EECUserV3> result = new ArrayList<>();
+        AtomicBoolean wasBlocked = new AtomicBoolean(false);
+
+        // when
+        liteRegistrationService.registerLiteAccounts(request, user -> {
+            try {
+                if (result.isEmpty() && !lastRegistrationStarted.await(5, TimeUnit.SECONDS)) {
+                    wasBlocked.set(true);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            result.add(user);
+        });
+
+        // then
+        Assertions.assertFalse(wasBlocked.get());
+        Assertions.assertEquals(3, result.size());
+        Assertions.assertEquals("first@test.com", result.get(0).getUid());
+        Assertions.assertEquals("second@test.com", result.get(1).getUid());
+        Assertions.assertEquals("third@test.com", result.get(2).getUid());
+    }
+
+    @Test
+    public void registerLiteAccounts_givenParallelRegistrationIsEnabled_AndCDCRateLimitsARegistration_thenItShouldBeRetried() throws Exception {
+        // given
+        setProperties();
+        ReflectionTestUtils.setField(liteRegistrationService, "registrationParallelism", 2);
+        SearchResponse missingAccountResponse = SearchResponse.builder()
+                .cdcSearchResponse(CDCSearchResponse.builder().results(Collections.emptyList()).build())
+                .build();
+        when(gigyaService.searchInBothDC(anyString())).thenReturn(missingAccountResponse);
+        when(gigyaService.registerLiteAccount(any(LiteAccountDTO.class)))
+                .thenThrow(new CustomGigyaErrorException(MOCKED_GIGYA_ERROR_MSG, GigyaCodes.RATE_LIMIT_EXCEEDED.getValue()))
+                .thenReturn(CDCResponseData.builder().UID(MOCKED_UID).build());
+
+        List<LiteAccountDTO> request = Arrays.asList(
+                LiteAccountDTO.builder().email(MOCKED_EMAIL_1).build(),
+                LiteAccountDTO.builder().email("account-test2@test.com").build()
+        );
+
+        // when
+        List<EECUserV3> result = liteRegistrationService.registerLiteAccounts(request);
+
+        // then
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(RESPONSE_CODE_SUCCESS, result.get(0).getResponseCode());
+        Assertions.assertEquals(RESPONSE_CODE_SUCCESS, result.get(1).getResponseCode());
+        verify(gigyaService, times(3)).registerLiteAccount(any(LiteAccountDTO.class));
+    }
 }
@@ -21,13 +21,20 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,6 +55,8 @@ public class UsersHandlerTests {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(usersHandler, "cdcExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(usersHandler, "lookupChunkSize", 100);
     }
 
     @Test
@@ -77,7 +86,7 @@ public class UsersHandlerTests {
                 "}";
 
         when(mockSearchResponse.getResponseText()).thenReturn(searchResponse);
-        when(gigyaApi.search(anyString(), any(), any())).thenReturn(mockSearchResponse);
+        when(gigyaApi.searchWithCursor(anyString(), any(), any(), any())).thenReturn(mockSearchResponse);
 
         //execution
         List<UserDetails> userDetails = usersHandler.getUsers(uids);
@@ -122,7 +131,7 @@ public class UsersHandlerTests {
                 "}";
 
         when(mockSearchResponse.getResponseText()).thenReturn(searchResponse);
-        when(gigyaApi.search(anyString(), any(), any())).thenReturn(mockSearchResponse);
+        when(gigyaApi.searchWithCursor(anyString(), any(), any(), any())).thenReturn(mockSearchResponse);
 
         //execution
         List<UserDetails> userDetails = usersHandler.getUsers(uids);
@@ -150,7 +159,7 @@ public class UsersHandlerTests {
                 "}";
 
         when(mockSearchResponse.getResponseText()).thenReturn(searchResponse);
-        when(gigyaApi.search(anyString(), any(), any())).thenReturn(mockSearchResponse);
+        when(gigyaApi.searchWithCursor(anyString(), any(), any(), any())).thenReturn(mockSearchResponse);
 
         // when
         List<UserDetails> userDetails = usersHandler.getUsers(uids);
@@ -159,6 +168,56 @@ public class UsersHandlerTests {
         Assertions.assertEquals(userDetails.size(), 0);
     }
 
+    @Test
+    public void getUsers_GivenMoreUIDsThanTheChunkSize_ThenItShouldSearchEachChunkAndMergeTheResults() throws IOException {
+        // given
+        ReflectionTestUtils.setField(usersHandler, "lookupChunkSize", 2);
+        List<String> uids = List.of("001", "002", "003");
+
+        GSResponse firstChunkResponse = Mockito.mock(GSResponse.class);
+        when(firstChunkResponse.getResponseText()).thenReturn("{\"totalCount\": 3, \"results\": [" +
+                "{\"UID\": \"001\", \"profile\": {\"email\": \"first@test.com\"}}," +
+                "{\"UID\": \"002\", \"isRegistered\": true, \"profile\": {\"email\": \"second@test.com\", \"firstName\": \"second\"}}," +
+                "{\"UID\": \"001\", \"isRegistered\": true, \"profile\": {\"email\": \"first@test.com\", \"firstName\": \"first\"}}]}");
+        GSResponse secondChunkResponse = Mockito.mock(GSResponse.class);
+        when(secondChunkResponse.getResponseText()).thenReturn("{\"totalCount\": 1, \"results\": [" +
+                "{\"UID\": \"003\", \"isRegistered\": true, \"profile\": {\"email\": \"third@test.com\", \"firstName\": \"third\"}}]}");
+        when(gigyaApi.searchWithCursor(contains("'001', '002'"), isNull(), any(), any())).thenReturn(firstChunkResponse);
+        when(gigyaApi.searchWithCursor(contains("'003'"), isNull(), any(), any())).thenReturn(secondChunkResponse);
+
+        // when
+        List<UserDetails> userDetails = usersHandler.getUsers(uids);
+
+        // then
+        Assertions.assertEquals(3, userDetails.size());
+        Assertions.assertEquals("001", userDetails.get(0).getUid());
+        Assertions.assertEquals(2, userDetails.get(0).getAssociatedAccounts());
+        Assertions.assertFalse(userDetails.get(0).isEmailOnly());
+        Assertions.assertEquals("003", userDetails.get(2).getUid());
+    }
+
+    @Test
+    public void getUsers_GivenTheSearchReturnsACursor_ThenItShouldReadEveryPage() throws IOException {
+        // given
+        List<String> uids = List.of("001", "002");
+
+        GSResponse firstPage = Mockito.mock(GSResponse.class);
+        when(firstPage.getResponseText()).thenReturn("{\"totalCount\": 2, \"nextCursorId\": \"cursor\", \"results\": [" +
+                "{\"UID\": \"001\", \"isRegistered\": true, \"profile\": {\"email\": \"first@test.com\", \"firstName\": \"first\"}}]}");
+        GSResponse lastPage = Mockito.mock(GSResponse.class);
+        when(lastPage.getResponseText()).thenReturn("{\"totalCount\": 2, \"results\": [" +
+                "{\"UID\": \"002\", \"isRegistered\": true, \"profile\": {\"email\": \"second@test.com\", \"firstName\": \"second\"}}]}");
+        when(gigyaApi.searchWithCursor(anyString(), isNull(), any(), any())).thenReturn(firstPage);
+        when(gigyaApi.searchWithCursor(anyString(), eq("cursor"), any(), any())).thenReturn(lastPage);
+
+        // when
+        List<UserDetails> userDetails = usersHandler.getUsers(uids);
+
+        // then
+        Assertions.assertEquals(2, userDetails.size());
+        verify(gigyaApi, times(2)).searchWithCursor(anyString(), any(), any(), any());
+    }
+
     @Test
     public void getUserProfileByUID_GivenAValidUID_returnUserProfile() throws IOException, CustomGigyaErrorException {
         //setup
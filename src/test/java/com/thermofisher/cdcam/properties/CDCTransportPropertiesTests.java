@@ -0,0 +1,40 @@
+package com.thermofisher.cdcam.properties;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class CDCTransportPropertiesTests {
+
+    @Test
+    public void parseMethodTimeouts_ShouldIgnoreInvalidEntries() {
+        // given
+        List<String> methodTimeouts = List.of("accounts.search=30000", "accounts.getJWTPublicKey", "fidm.oidc.op.getRP=fast", " ");
+
+        // when
+        Map<String, Integer> result = CDCTransportProperties.parseMethodTimeouts(methodTimeouts);
+
+        // then
+        assertEquals(1, result.size());
+        assertEquals(30000, result.get("accounts.search"));
+        assertFalse(result.containsKey("accounts.getJWTPublicKey"));
+    }
+
+    @Test
+    public void getTimeout_ShouldFallBackToTheDefaultTimeout_WhenTheMethodHasNoSpecificTimeout() {
+        // given
+        new CDCTransportProperties(true, 20, 15000, List.of("accounts.search=30000"));
+
+        // when
+        int searchTimeout = CDCTransportProperties.getTimeout("accounts.search");
+        int defaultTimeout = CDCTransportProperties.getTimeout("accounts.getAccountInfo");
+
+        // then
+        assertEquals(30000, searchTimeout);
+        assertEquals(15000, defaultTimeout);
+    }
+}
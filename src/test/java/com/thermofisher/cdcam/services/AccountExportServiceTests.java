@@ -0,0 +1,160 @@
+package com.thermofisher.cdcam.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thermofisher.cdcam.enums.cdc.AccountType;
+import com.thermofisher.cdcam.utils.cdc.CDCUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class AccountExportServiceTests {
+    private final String mainApiDomain = "main-domain";
+    private final String secondaryApiDomain = "secondary-domain";
+
+    @InjectMocks
+    AccountExportService accountExportService;
+
+    @Mock
+    GigyaService gigyaService;
+
+    @BeforeEach
+    public void setup() {
+        ReflectionTestUtils.setField(accountExportService, "cdcExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(accountExportService, "mainApiDomain", mainApiDomain);
+        ReflectionTestUtils.setField(accountExportService, "secondaryApiDomain", secondaryApiDomain);
+        ReflectionTestUtils.setField(accountExportService, "pageSize", 500);
+        ReflectionTestUtils.setField(accountExportService, "allowedFields", List.of("UID", "profile.email", "isActive"));
+        ReflectionTestUtils.setField(accountExportService, "env", "prod");
+    }
+
+    private void mockSearchResults(String apiDomain, String... uids) throws Exception {
+        doAnswer(invocation -> {
+            Consumer<JsonNode> onResult = invocation.getArgument(3);
+            for (String uid : uids) {
+                onResult.accept(new ObjectMapper().readTree(String.format("{\"UID\":\"%s\"}", uid)));
+            }
+            return (long) uids.length;
+        }).when(gigyaService).forEachSearchResult(anyString(), any(), eq(apiDomain), any());
+    }
+
+    @Test
+    public void export_GivenAQueryWithoutLimit_ThenItShouldBePagedAndWrittenAsNdjson() throws Exception {
+        // given
+        mockSearchResults(mainApiDomain, "first", "second");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // when
+        long exported = accountExportService.export("SELECT UID FROM accounts", AccountType.FULL, false, outputStream);
+
+        // then
+        assertEquals(2, exported);
+        assertArrayEquals(new String[]{"{\"UID\":\"first\",\"dataCenter\":\"main-domain\"}", "{\"UID\":\"second\",\"dataCenter\":\"main-domain\"}"}, outputStream.toString(StandardCharsets.UTF_8).split("\n"));
+        verify(gigyaService).forEachSearchResult(eq("SELECT UID FROM accounts LIMIT 500"), eq(AccountType.FULL), eq(mainApiDomain), any());
+        verify(gigyaService, never()).forEachSearchResult(anyString(), any(), eq(secondaryApiDomain), any());
+    }
+
+    @Test
+    public void export_GivenAllDataCentersAreRequested_ThenBothShouldBeExported() throws Exception {
+        // given
+        mockSearchResults(mainApiDomain, "main");
+        mockSearchResults(secondaryApiDomain, "secondary");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (MockedStatic<CDCUtils> cdcUtilsMock = Mockito.mockStatic(CDCUtils.class)) {
+            cdcUtilsMock.when(() -> CDCUtils.isSecondaryDCSupported(any())).thenReturn(true);
+
+            // when
+            long exported = accountExportService.export("SELECT UID FROM accounts LIMIT 100", AccountType.FULL_LITE, true, outputStream);
+
+            // then
+            assertEquals(2, exported);
+            String output = outputStream.toString(StandardCharsets.UTF_8);
+            assertEquals(2, output.split("\n").length);
+            assertTrue(output.contains("{\"UID\":\"main\",\"dataCenter\":\"main-domain\"}"));
+            assertTrue(output.contains("{\"UID\":\"secondary\",\"dataCenter\":\"secondary-domain\"}"));
+            verify(gigyaService).forEachSearchResult(eq("SELECT UID FROM accounts LIMIT 100"), eq(AccountType.FULL_LITE), eq(secondaryApiDomain), any());
+        }
+    }
+
+    @Test
+    public void export_GivenAQueryThatIsNotASelect_ThenItShouldThrowIllegalArgumentException() {
+        // when / then
+        assertThrows(IllegalArgumentException.class, () -> accountExportService.export("DELETE FROM accounts", AccountType.FULL, false, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void export_GivenAQueryWithAFieldThatIsNotAllowed_ThenItShouldThrowIllegalArgumentException() throws Exception {
+        // when / then
+        assertThrows(IllegalArgumentException.class, () -> accountExportService.export("SELECT UID, password FROM accounts", AccountType.FULL, false, new ByteArrayOutputStream()));
+        assertThrows(IllegalArgumentException.class, () -> accountExportService.export("SELECT * FROM accounts", AccountType.FULL, false, new ByteArrayOutputStream()));
+        verify(gigyaService, never()).forEachSearchResult(anyString(), any(), anyString(), any());
+    }
+
+    @Test
+    public void validateQuery_GivenOnlyAllowedFields_ThenItShouldBeAccepted() {
+        // when / then
+        accountExportService.validateQuery("select UID, profile.email from accounts where isActive = true");
+    }
+
+    @Test
+    public void validateQuery_GivenAFilterOrSortOnAFieldThatIsNotAllowed_ThenItShouldThrowIllegalArgumentException() {
+        // when / then
+        assertThrows(IllegalArgumentException.class, () -> accountExportService.validateQuery("SELECT UID FROM accounts WHERE password.hash = 'hash'"));
+        assertThrows(IllegalArgumentException.class, () -> accountExportService.validateQuery("SELECT UID FROM accounts ORDER BY data.registration"));
+        assertThrows(IllegalArgumentException.class, () -> accountExportService.validateQuery("SELECT UID FROM accounts WHERE profile.email CONTAINS 'unterminated"));
+    }
+
+    @Test
+    public void export_GivenAStringLiteralThatContainsLimit_ThenTheQueryShouldStillBePaged() throws Exception {
+        // given
+        mockSearchResults(mainApiDomain);
+        String query = "SELECT UID FROM accounts WHERE profile.email CONTAINS ' limit ' ORDER BY UID DESC";
+
+        // when
+        accountExportService.export(query, AccountType.FULL, false, new ByteArrayOutputStream());
+
+        // then
+        verify(gigyaService).forEachSearchResult(eq(query + " LIMIT 500"), eq(AccountType.FULL), eq(mainApiDomain), any());
+    }
+
+    @Test
+    public void export_GivenALimitOnItsOwnLine_ThenAnotherLimitShouldNotBeAppended() throws Exception {
+        // given
+        mockSearchResults(mainApiDomain);
+        String query = "SELECT UID FROM accounts\nLIMIT 100";
+
+        // when
+        accountExportService.export(query, AccountType.FULL, false, new ByteArrayOutputStream());
+
+        // then
+        verify(gigyaService).forEachSearchResult(eq(query), eq(AccountType.FULL), eq(mainApiDomain), any());
+    }
+}
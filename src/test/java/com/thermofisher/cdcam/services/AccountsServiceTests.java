@@ -3,6 +3,7 @@ package com.thermofisher.cdcam.services;
 
 import com.gigya.socialize.GSKeyNotFoundException;
 import com.thermofisher.cdcam.aws.SNSHandler;
+import com.thermofisher.cdcam.enums.cdc.AccountProjection;
 import com.thermofisher.cdcam.model.AccountInfo;
 import com.thermofisher.cdcam.model.cdc.CDCAccount;
 import com.thermofisher.cdcam.model.cdc.CDCNewAccount;
@@ -57,6 +58,9 @@ public class AccountsServiceTests {
     @Mock
     NotificationService notificationService;
 
+    @Mock
+    RelyingPartyService relyingPartyService;
+
     @Mock
     SNSHandler snsHandler;
 
@@ -132,7 +136,7 @@ public class AccountsServiceTests {
         String providerClientId = RandomStringUtils.random(10);
         String providerDescriptionMock = RandomStringUtils.random(10);
         OpenIdRelyingParty rpMock = OpenIdRelyingParty.builder().clientId(providerClientId).description(providerDescriptionMock).build();
-        when(gigyaService.getRP(anyString())).thenReturn(rpMock);
+        when(relyingPartyService.getRP(anyString())).thenReturn(rpMock);
 
         federationAccount.setOpenIdProviderId(providerClientId);
         when(gigyaService.getAccountInfo(anyString())).thenReturn(federationAccount);
@@ -155,7 +159,7 @@ public class AccountsServiceTests {
     public void onAccountRegistered_GivenAccountDoesntHaveProvider_ThenShouldNotFetchRPData_AndSavedProviderShouldBeNull() throws IOException, CustomGigyaErrorException, JSONException, GSKeyNotFoundException {
         // given
         String uid = UUID.randomUUID().toString();
-//        when(gigyaService.getRP(anyString())).thenCallRealMethod();
+//        when(relyingPartyService.getRP(anyString())).thenCallRealMethod();
 
         when(gigyaService.getAccountInfo(anyString())).thenReturn(federationAccount);
         doNothing().when(gigyaService).setAccountInfo(any(CDCAccount.class));
@@ -164,7 +168,7 @@ public class AccountsServiceTests {
         accountsService.onAccountRegistered(uid);
 
         // then
-        verify(gigyaService, never()).getRP(anyString());
+        verify(relyingPartyService, never()).getRP(anyString());
         verify(gigyaService).setAccountInfo(cdcAccountCaptor.capture());
         CDCAccount capturedCdcAccount = cdcAccountCaptor.getValue();
         OpenIdProvider openIdProviderResult = capturedCdcAccount.getData()
@@ -297,6 +301,7 @@ public class AccountsServiceTests {
         String uid = AccountUtils.uid;
         AccountInfo accountMock = AccountUtils.getFederatedAccount();
         MergedAccountNotification mergedAccountNotification = MergedAccountNotification.build(accountMock);
+        when(gigyaService.getAccountInfo(uid, AccountProjection.FEDERATION_CHECK)).thenReturn(accountMock);
         when(gigyaService.getAccountInfo(uid)).thenReturn(accountMock);
         doNothing().when(notificationService).sendAccountMergedNotification(any());
 
@@ -316,7 +321,7 @@ public class AccountsServiceTests {
         String uid = AccountUtils.uid;
         AccountInfo accountMock = AccountUtils.getFederatedAccount();
         MergedAccountNotification mergedAccountNotification = MergedAccountNotification.build(accountMock);
-        when(gigyaService.getAccountInfo(uid)).thenThrow(new CustomGigyaErrorException(("")));
+        when(gigyaService.getAccountInfo(uid, AccountProjection.FEDERATION_CHECK)).thenThrow(new CustomGigyaErrorException(("")));
 //        doNothing().when(notificationService).sendAccountMergedNotification(any());
 
         // when
@@ -332,7 +337,7 @@ public class AccountsServiceTests {
         String uid = AccountUtils.uid;
         AccountInfo accountMock = AccountUtils.getSiteAccount();
         MergedAccountNotification mergedAccountNotification = MergedAccountNotification.build(accountMock);
-        when(gigyaService.getAccountInfo(uid)).thenReturn(accountMock);
+        when(gigyaService.getAccountInfo(uid, AccountProjection.FEDERATION_CHECK)).thenReturn(accountMock);
 //        doNothing().when(notificationService).sendAccountMergedNotification(any());
 
         try (MockedStatic<MergedAccountNotification> mergedAccountNotificationStatic = Mockito.mockStatic(MergedAccountNotification.class)) {
@@ -342,6 +347,7 @@ public class AccountsServiceTests {
 
             // then
             verify(notificationService, never()).sendAccountMergedNotification(any());
+            verify(gigyaService, never()).getAccountInfo(uid);
         }
     }
 
@@ -349,6 +355,7 @@ public class AccountsServiceTests {
     public void onAccountUpdated_GivenAccountIsFederated_ThenTheAccountUpdatedNotificationShouldBeSent() throws IOException, CustomGigyaErrorException {
         // given
         String uid = UUID.randomUUID().toString();
+        when(gigyaService.getAccountInfo(anyString(), eq(AccountProjection.FEDERATION_CHECK))).thenReturn(AccountUtils.getFederatedAccount());
         when(gigyaService.getAccountInfo(anyString())).thenReturn(AccountUtils.getFederatedAccount());
         doNothing().when(notificationService).sendPrivateAccountUpdatedNotification(any());
 
@@ -363,7 +370,7 @@ public class AccountsServiceTests {
     public void onAccountUpdated_GivenAccountIsFederated_ThenTheAccountUpdatedNotificationShouldNotBeSent() throws IOException, CustomGigyaErrorException {
         // given
         String uid = UUID.randomUUID().toString();
-        when(gigyaService.getAccountInfo(anyString())).thenReturn(AccountUtils.getSiteAccount());
+        when(gigyaService.getAccountInfo(anyString(), eq(AccountProjection.FEDERATION_CHECK))).thenReturn(AccountUtils.getSiteAccount());
 //        doNothing().when(notificationService).sendPrivateAccountUpdatedNotification(any());
 
         // when
@@ -371,13 +378,14 @@ public class AccountsServiceTests {
 
         // then
         verify(notificationService, never()).sendPrivateAccountUpdatedNotification(any());
+        verify(gigyaService, never()).getAccountInfo(uid);
     }
 
     @Test
     public void onAccountUpdated_WhenCustomGigyaErrorExceptionIsThrown_ThenAccountUpdatedNotificationShouldNotBeSent() throws CustomGigyaErrorException {
         // given
         String uid = AccountUtils.uid;
-        when(gigyaService.getAccountInfo(uid)).thenThrow(new CustomGigyaErrorException(("")));
+        when(gigyaService.getAccountInfo(uid, AccountProjection.FEDERATION_CHECK)).thenThrow(new CustomGigyaErrorException(("")));
 //        doNothing().when(notificationService).sendPrivateAccountUpdatedNotification(any());
 
         // when
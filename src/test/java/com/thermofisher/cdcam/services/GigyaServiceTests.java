@@ -9,6 +9,8 @@ import com.gigya.socialize.GSResponse;
 import com.google.gson.JsonParseException;
 import com.thermofisher.cdcam.builders.AccountBuilder;
 import com.thermofisher.cdcam.builders.IdentityProviderBuilder;
+import com.thermofisher.cdcam.config.CacheConfig;
+import com.thermofisher.cdcam.enums.cdc.AccountProjection;
 import com.thermofisher.cdcam.enums.cdc.AccountType;
 import com.thermofisher.cdcam.enums.cdc.GigyaCodes;
 import com.thermofisher.cdcam.model.AccountInfo;
@@ -47,6 +49,7 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -56,6 +59,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -98,6 +107,9 @@ public class GigyaServiceTests {
     @Mock
     IdentityProviderBuilder identityProviderBuilder;
 
+    @Mock
+    RegTokenPool regTokenPool;
+
     @Captor
     ArgumentCaptor<GSObject> gsObjectCaptor;
 
@@ -107,6 +119,7 @@ public class GigyaServiceTests {
         // ReflectionTestUtils.setField(accountBuilder, "log", LoggerFactory.getLogger(AccountBuilder.class));
         loginIdAvailable.put("totalCount", 0);
         loginIdNotAvailable.put("totalCount", 1);
+        ReflectionTestUtils.setField(gigyaService, "cdcExecutor", (Executor) Runnable::run);
     }
 
     private void setProperties() {
@@ -156,6 +169,27 @@ public class GigyaServiceTests {
         assertTrue(_accountInfo.equals(_account));
     }
 
+    @Test
+    public void getAccountInfo_GivenAFederationCheckProjection_ThenOnlyTheProjectedFieldsShouldBeRead() throws Exception {
+        // given
+        ReflectionTestUtils.setField(gigyaService, "isNewMarketingConsentEnabled", true);
+        GSResponse gsResponse = Mockito.mock(GSResponse.class);
+        GSObject projectedAccount = new GSObject();
+        projectedAccount.put("UID", uid);
+        projectedAccount.put("socialProviders", "site,saml-idp");
+        when(gigyaApi.getAccount(uid, AccountProjection.FEDERATION_CHECK)).thenReturn(gsResponse);
+        when(gsResponse.getData()).thenReturn(projectedAccount);
+        when(accountBuilder.getAccountInfoV2(any(GSObject.class))).thenCallRealMethod();
+
+        // when
+        AccountInfo account = gigyaService.getAccountInfo(uid, AccountProjection.FEDERATION_CHECK);
+
+        // then
+        assertTrue(account.isFederatedAccount());
+        verify(gigyaApi).getAccount(uid, AccountProjection.FEDERATION_CHECK);
+        verify(gigyaApi, never()).getAccountV2(anyString());
+    }
+
     @Test
     public void getAccountInfo_WhenAGetAccountRequestInfoRequestIsResolvedWithError_ShouldThrowCustomGigyaErrorException() throws Exception {
         // given
@@ -856,6 +890,25 @@ public class GigyaServiceTests {
         assertEquals(uid, cdcResponse.getUID());
     }
 
+    @Test
+    public void liteRegisterUser_V3_GivenThePoolHasARegToken_ThenTheAccountShouldBeRegisteredWithIt() throws GSKeyNotFoundException, CustomGigyaErrorException, IOException, JSONException {
+        // given
+        String uid = "9f6f2133e57144d787574d49c0b9908e";
+        String regToken = "pooled-reg-token";
+        LiteAccountDTO liteAccountDTO = LiteAccountDTO.builder().build();
+        GSResponse cdcMockResponse = Mockito.mock(GSResponse.class);
+        when(cdcMockResponse.getResponseText()).thenReturn(AccountUtils.getLiteRegistrationResponseJsonString());
+        when(regTokenPool.take()).thenReturn(regToken);
+        when(gigyaApi.registerLiteAccount(any(LiteAccountDTO.class), eq(regToken))).thenReturn(cdcMockResponse);
+
+        // when
+        CDCResponseData cdcResponse = gigyaService.registerLiteAccount(liteAccountDTO);
+
+        // then
+        assertEquals(uid, cdcResponse.getUID());
+        verify(gigyaApi, never()).registerLiteAccount(any(LiteAccountDTO.class));
+    }
+
     @Test
     public void liteRegisterUser_V3_GivenTheresAnError_ItShouldThrowCustomGigyaErrorException() throws CustomGigyaErrorException, GSKeyNotFoundException, IOException, JSONException {
         // given
@@ -1402,4 +1455,429 @@ public class GigyaServiceTests {
             gigyaService.finalizeRegistration(regToken);
         });
     }
+
+    @Test
+    public void getAccountInfoAsync_ShouldCompleteWithTheAccountInfo() throws Exception {
+        // given
+        ReflectionTestUtils.setField(gigyaService, "isNewMarketingConsentEnabled", false);
+        GSResponse gsResponse = Mockito.mock(GSResponse.class);
+        when(gigyaApi.getAccount(anyString())).thenReturn(gsResponse);
+        when(gsResponse.getData()).thenReturn(new GSObject(obj));
+        when(accountBuilder.getAccountInfo(any(GSObject.class))).thenCallRealMethod();
+
+        // when
+        CompletableFuture<AccountInfo> result = gigyaService.getAccountInfoAsync(uid);
+
+        // then
+        assertEquals(uid, result.join().getUid());
+    }
+
+    @Test
+    public void getAccountInfoAsync_GivenTheresAnErrorFromCDC_ShouldCompleteExceptionallyWithCustomGigyaErrorException() {
+        // given
+        ReflectionTestUtils.setField(gigyaService, "isNewMarketingConsentEnabled", false);
+        GSResponse gsResponse = Mockito.mock(GSResponse.class);
+        when(gigyaApi.getAccount(anyString())).thenReturn(gsResponse);
+        when(gsResponse.getErrorCode()).thenReturn(GigyaCodes.UID_NOT_FOUND.getValue());
+
+        // when
+        CompletableFuture<AccountInfo> result = gigyaService.getAccountInfoAsync(uid);
+
+        // then
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertTrue(exception.getCause() instanceof CustomGigyaErrorException);
+    }
+
+    @Test
+    public void searchAsync_GivenTheresAValidResponse_ShouldCompleteWithTheSearchResults() {
+        // given
+        String uid = "18f6f06762725175ab3fa121d32d8992";
+        GSResponse mockSearchResponse = Mockito.mock(GSResponse.class);
+        String searchResponseJson = "{\"totalCount\": 1,\"statusCode\":200,\"statusReason\":\"OK\",\"results\":[{\"UID\":\"" + uid + "\",\"isRegistered\":true,\"profile\":{\"username\":\"armatest\",\"country\":\"MX\"}}]}";
+        when(mockSearchResponse.getResponseText()).thenReturn(searchResponseJson);
+        when(gigyaApi.search(anyString(), any(), any())).thenReturn(mockSearchResponse);
+
+        // when
+        CDCSearchResponse searchResponse = gigyaService.searchAsync("", AccountType.FULL_LITE, mainApiDomain).join();
+
+        // then
+        assertEquals(1, searchResponse.getResults().size());
+        assertEquals(uid, searchResponse.getResults().get(0).getUID());
+    }
+
+    @Test
+    public void setAccountInfoAsync_ShouldSetCDCAccountData() {
+        // given
+        CDCAccount cdcAccount = CDCAccount.builder().build();
+        GSResponse gsResponseMock = mock(GSResponse.class);
+        when(gigyaApi.setAccountInfo(any(CDCAccount.class))).thenReturn(gsResponseMock);
+
+        // when
+        gigyaService.setAccountInfoAsync(cdcAccount).join();
+
+        // then
+        verify(gigyaApi).setAccountInfo(cdcAccount);
+    }
+
+    @Test
+    public void searchInBothDC_GivenConcurrentSearchIsEnabled_AndTheEmailExistsInTheMainApiDomain_ItShouldReturnTheMainDataCenterAccount() throws CustomGigyaErrorException, IOException {
+        // given
+        setProperties();
+        ReflectionTestUtils.setField(gigyaService, "isConcurrentDataCenterSearchEnabled", true);
+        String username = "armatest@test.com";
+        GSResponse mainDCSearchResponse = Mockito.mock(GSResponse.class);
+        GSResponse secondaryDCSearchResponse = Mockito.mock(GSResponse.class);
+        when(mainDCSearchResponse.getResponseText()).thenReturn("{\"totalCount\": 1,\"statusCode\":200,\"statusReason\":\"OK\",\"results\":[{\"UID\":\"" + uid + "\",\"isRegistered\":true,\"profile\":{\"username\":\"" + username + "\",\"country\":\"US\"}}]}");
+        when(secondaryDCSearchResponse.getResponseText()).thenReturn("{\"totalCount\": 1,\"statusCode\":200,\"statusReason\":\"OK\",\"results\":[{\"UID\":\"secondaryUid\",\"isRegistered\":true,\"profile\":{\"username\":\"" + username + "\",\"country\":\"CN\"}}]}");
+        when(gigyaApi.search(anyString(), any(), eq(mainApiDomain))).thenReturn(mainDCSearchResponse);
+        when(gigyaApi.search(anyString(), any(), eq(secondaryApiDomain))).thenReturn(secondaryDCSearchResponse);
+
+        try (MockedStatic<CDCUtils> cdcUtilsMock = Mockito.mockStatic(CDCUtils.class)) {
+            cdcUtilsMock.when(() -> CDCUtils.isSecondaryDCSupported(any())).thenReturn(true);
+
+            // when
+            SearchResponse searchResponse = gigyaService.searchInBothDC(username);
+
+            // then
+            assertEquals(mainDataCenter, searchResponse.getDataCenter().getValue());
+            assertEquals(uid, searchResponse.getCdcSearchResponse().getResults().get(0).getUID());
+        }
+    }
+
+    @Test
+    public void searchInBothDC_GivenConcurrentSearchIsEnabled_AndTheEmailOnlyExistsInTheSecondaryApiDomain_ItShouldReturnTheSecondaryDataCenterAccount() throws CustomGigyaErrorException, IOException {
+        // given
+        setProperties();
+        ReflectionTestUtils.setField(gigyaService, "isConcurrentDataCenterSearchEnabled", true);
+        String username = "armatest@test.com";
+        GSResponse mainDCSearchResponse = Mockito.mock(GSResponse.class);
+        GSResponse secondaryDCSearchResponse = Mockito.mock(GSResponse.class);
+        when(mainDCSearchResponse.getResponseText()).thenReturn("{\"totalCount\": 0,\"statusCode\":200,\"statusReason\":\"OK\",\"results\":[]}");
+        when(secondaryDCSearchResponse.getResponseText()).thenReturn("{\"totalCount\": 1,\"statusCode\":200,\"statusReason\":\"OK\",\"results\":[{\"UID\":\"" + uid + "\",\"isRegistered\":true,\"profile\":{\"username\":\"" + username + "\",\"country\":\"CN\"}}]}");
+        when(gigyaApi.search(anyString(), any(), eq(mainApiDomain))).thenReturn(mainDCSearchResponse);
+        when(gigyaApi.search(anyString(), any(), eq(secondaryApiDomain))).thenReturn(secondaryDCSearchResponse);
+
+        try (MockedStatic<CDCUtils> cdcUtilsMock = Mockito.mockStatic(CDCUtils.class)) {
+            cdcUtilsMock.when(() -> CDCUtils.isSecondaryDCSupported(any())).thenReturn(true);
+
+            // when
+            SearchResponse searchResponse = gigyaService.searchInBothDC(username);
+
+            // then
+            assertEquals(secondaryDataCenter, searchResponse.getDataCenter().getValue());
+            assertEquals(uid, searchResponse.getCdcSearchResponse().getResults().get(0).getUID());
+        }
+    }
+
+    @Test
+    public void searchInBothDC_GivenConcurrentSearchIsEnabled_AndTheMainDataCenterFails_ThenItShouldThrowCustomGigyaErrorException() {
+        // given
+        setProperties();
+        ReflectionTestUtils.setField(gigyaService, "isConcurrentDataCenterSearchEnabled", true);
+        GSResponse mainDCSearchResponse = Mockito.mock(GSResponse.class);
+        when(mainDCSearchResponse.getErrorCode()).thenReturn(500001);
+        when(gigyaApi.search(anyString(), any(), any())).thenReturn(mainDCSearchResponse);
+
+        try (MockedStatic<CDCUtils> cdcUtilsMock = Mockito.mockStatic(CDCUtils.class)) {
+            cdcUtilsMock.when(() -> CDCUtils.isSecondaryDCSupported(any())).thenReturn(true);
+
+            // then
+            assertThrows(CustomGigyaErrorException.class, () -> gigyaService.searchInBothDC("armatest@test.com"));
+        }
+    }
+
+    @Test
+    public void isAvailableLoginId_GivenConcurrentSearchIsEnabled_AndTheLoginIdIsTakenInTheSecondaryDC_ShouldReturnFalse() throws Exception {
+        // given
+        setProperties();
+        ReflectionTestUtils.setField(gigyaService, "isConcurrentDataCenterSearchEnabled", true);
+        GSResponse mainGsResponse = Mockito.mock(GSResponse.class);
+        when(mainGsResponse.getData()).thenReturn(new GSObject(loginIdAvailable.toString()));
+        GSResponse secondaryGsResponse = Mockito.mock(GSResponse.class);
+        when(secondaryGsResponse.getData()).thenReturn(new GSObject(loginIdNotAvailable.toString()));
+        when(gigyaApi.search(any(), any(), eq(mainApiDomain))).thenReturn(mainGsResponse);
+        when(gigyaApi.search(any(), any(), eq(secondaryApiDomain))).thenReturn(secondaryGsResponse);
+
+        try (MockedStatic<CDCUtils> cdcUtilsMock = Mockito.mockStatic(CDCUtils.class)) {
+            cdcUtilsMock.when(() -> CDCUtils.isSecondaryDCSupported(any())).thenReturn(true);
+
+            // when
+            boolean response = gigyaService.isAvailableLoginId("test");
+
+            // then
+            assertFalse(response);
+            verify(gigyaApi).search(any(), any(), eq(secondaryApiDomain));
+        }
+    }
+
+    @Test
+    public void searchEmailsInBothDC_GivenSeveralEmails_ThenTheyShouldBeSearchedInASingleQueryPerDataCenter_AndMappedBackToEachEmail() {
+        // given
+        setProperties();
+        ReflectionTestUtils.setField(gigyaService, "searchBatchSize", 50);
+        ReflectionTestUtils.setField(gigyaService, "searchBatchMaxResults", 1000);
+        String mainDCEmail = "main@test.com";
+        String secondaryDCEmail = "secondary@test.com";
+        String missingEmail = "missing@test.com";
+        GSResponse mainGsResponse = Mockito.mock(GSResponse.class);
+        when(mainGsResponse.getResponseText()).thenReturn("{\"totalCount\": 1,\"statusCode\":200,\"statusReason\":\"OK\",\"results\":[{\"UID\":\"" + uid + "\",\"isRegistered\":true,\"profile\":{\"email\":\"Main@Test.com\"}}]}");
+        GSResponse secondaryGsResponse = Mockito.mock(GSResponse.class);
+        when(secondaryGsResponse.getResponseText()).thenReturn("{\"totalCount\": 1,\"statusCode\":200,\"statusReason\":\"OK\",\"results\":[{\"UID\":\"secondary-uid\",\"isRegistered\":false,\"profile\":{\"email\":\"" + secondaryDCEmail + "\"}}]}");
+        when(gigyaApi.search(anyString(), eq(AccountType.FULL_LITE), eq(mainApiDomain))).thenReturn(mainGsResponse);
+        when(gigyaApi.search(anyString(), eq(AccountType.FULL_LITE), eq(secondaryApiDomain))).thenReturn(secondaryGsResponse);
+
+        try (MockedStatic<CDCUtils> cdcUtilsMock = Mockito.mockStatic(CDCUtils.class)) {
+            cdcUtilsMock.when(() -> CDCUtils.isSecondaryDCSupported(any())).thenReturn(true);
+
+            // when
+            Map<String, SearchResponse> responses = gigyaService.searchEmailsInBothDC(List.of(mainDCEmail, secondaryDCEmail, missingEmail));
+
+            // then
+            assertEquals(mainDataCenter, responses.get(mainDCEmail).getDataCenter().getValue());
+            assertEquals(uid, responses.get(mainDCEmail).getCdcSearchResponse().getResults().get(0).getUID());
+            assertEquals(secondaryDataCenter, responses.get(secondaryDCEmail).getDataCenter().getValue());
+            assertEquals("secondary-uid", responses.get(secondaryDCEmail).getCdcSearchResponse().getResults().get(0).getUID());
+            assertNull(responses.get(missingEmail).getDataCenter());
+            assertEquals(0, responses.get(missingEmail).getCdcSearchResponse().getResults().size());
+            verify(gigyaApi, times(1)).search(anyString(), eq(AccountType.FULL_LITE), eq(mainApiDomain));
+            verify(gigyaApi, times(1)).search(anyString(), eq(AccountType.FULL_LITE), eq(secondaryApiDomain));
+        }
+    }
+
+    @Test
+    public void searchEmailsInBothDC_GivenMoreEmailsThanTheBatchSize_ThenTheyShouldBeSearchedInChunks() {
+        // given
+        setProperties();
+        ReflectionTestUtils.setField(gigyaService, "searchBatchSize", 2);
+        ReflectionTestUtils.setField(gigyaService, "searchBatchMaxResults", 1000);
+        GSResponse gsResponse = Mockito.mock(GSResponse.class);
+        when(gsResponse.getResponseText()).thenReturn("{\"totalCount\": 0,\"statusCode\":200,\"statusReason\":\"OK\",\"results\":[]}");
+        when(gigyaApi.search(anyString(), eq(AccountType.FULL_LITE), eq(mainApiDomain))).thenReturn(gsResponse);
+
+        try (MockedStatic<CDCUtils> cdcUtilsMock = Mockito.mockStatic(CDCUtils.class)) {
+            cdcUtilsMock.when(() -> CDCUtils.isSecondaryDCSupported(any())).thenReturn(false);
+
+            // when
+            Map<String, SearchResponse> responses = gigyaService.searchEmailsInBothDC(List.of("a@test.com", "b@test.com", "c@test.com", "A@test.com"));
+
+            // then
+            assertEquals(3, responses.size());
+            verify(gigyaApi, times(2)).search(anyString(), eq(AccountType.FULL_LITE), eq(mainApiDomain));
+        }
+    }
+
+    @Test
+    public void searchEmailsInBothDC_GivenTheBatchedSearchFails_ThenTheEmailsOfTheChunkShouldBeLeftOutOfTheResult() {
+        // given
+        setProperties();
+        ReflectionTestUtils.setField(gigyaService, "searchBatchSize", 50);
+        ReflectionTestUtils.setField(gigyaService, "searchBatchMaxResults", 1000);
+        GSResponse gsResponse = Mockito.mock(GSResponse.class);
+        when(gsResponse.getErrorCode()).thenReturn(400006);
+        when(gigyaApi.search(anyString(), eq(AccountType.FULL_LITE), eq(mainApiDomain))).thenReturn(gsResponse);
+
+        try (MockedStatic<CDCUtils> cdcUtilsMock = Mockito.mockStatic(CDCUtils.class)) {
+            cdcUtilsMock.when(() -> CDCUtils.isSecondaryDCSupported(any())).thenReturn(true);
+
+            // when
+            Map<String, SearchResponse> responses = gigyaService.searchEmailsInBothDC(List.of("a@test.com", "b@test.com"));
+
+            // then
+            assertTrue(responses.isEmpty());
+            verify(gigyaApi, times(0)).search(anyString(), any(), eq(secondaryApiDomain));
+        }
+    }
+
+    @Test
+    public void searchEmailsInBothDC_GivenTheBatchedSearchIsTruncated_ThenTheEmailsOfTheChunkShouldBeLeftOutOfTheResult() {
+        // given
+        setProperties();
+        ReflectionTestUtils.setField(gigyaService, "searchBatchSize", 50);
+        ReflectionTestUtils.setField(gigyaService, "searchBatchMaxResults", 1);
+        GSResponse gsResponse = Mockito.mock(GSResponse.class);
+        when(gsResponse.getResponseText()).thenReturn("{\"totalCount\": 2,\"statusCode\":200,\"statusReason\":\"OK\",\"results\":[{\"UID\":\"" + uid + "\",\"profile\":{\"email\":\"a@test.com\"}}]}");
+        when(gigyaApi.search(anyString(), eq(AccountType.FULL_LITE), eq(mainApiDomain))).thenReturn(gsResponse);
+
+        try (MockedStatic<CDCUtils> cdcUtilsMock = Mockito.mockStatic(CDCUtils.class)) {
+            cdcUtilsMock.when(() -> CDCUtils.isSecondaryDCSupported(any())).thenReturn(false);
+
+            // when
+            Map<String, SearchResponse> responses = gigyaService.searchEmailsInBothDC(List.of("a@test.com", "b@test.com"));
+
+            // then
+            assertTrue(responses.isEmpty());
+        }
+    }
+
+    @Test
+    public void getAccountInfo_GivenTheAccountIsCached_ThenCDCShouldNotBeCalledAgain_AndACopyShouldBeReturned() throws Exception {
+        // given
+        ReflectionTestUtils.setField(gigyaService, "isNewMarketingConsentEnabled", false);
+        ReflectionTestUtils.setField(gigyaService, "cacheManager", new ConcurrentMapCacheManager(CacheConfig.ACCOUNT_INFO_CACHE));
+        GSResponse gsResponse = Mockito.mock(GSResponse.class);
+        when(gigyaApi.getAccount(anyString())).thenReturn(gsResponse);
+        when(gsResponse.getData()).thenReturn(new GSObject(obj));
+        when(accountBuilder.getAccountInfo(any(GSObject.class))).thenCallRealMethod();
+
+        // when
+        AccountInfo firstAccountInfo = gigyaService.getAccountInfo(uid);
+        firstAccountInfo.setPassword("hashedPassword");
+        AccountInfo secondAccountInfo = gigyaService.getAccountInfo(uid);
+
+        // then
+        verify(gigyaApi, times(1)).getAccount(uid);
+        assertNotSame(firstAccountInfo, secondAccountInfo);
+        assertNotEquals("hashedPassword", secondAccountInfo.getPassword());
+        assertEquals(firstAccountInfo.getEmailAddress(), secondAccountInfo.getEmailAddress());
+    }
+
+    @Test
+    public void getAccountInfo_GivenTheAccountWasUpdated_ThenItShouldBeRetrievedFromCDCAgain() throws Exception {
+        // given
+        ReflectionTestUtils.setField(gigyaService, "isNewMarketingConsentEnabled", false);
+        ReflectionTestUtils.setField(gigyaService, "cacheManager", new ConcurrentMapCacheManager(CacheConfig.ACCOUNT_INFO_CACHE));
+        GSResponse gsResponse = Mockito.mock(GSResponse.class);
+        when(gigyaApi.getAccount(anyString())).thenReturn(gsResponse);
+        when(gsResponse.getData()).thenReturn(new GSObject(obj));
+        when(accountBuilder.getAccountInfo(any(GSObject.class))).thenCallRealMethod();
+        when(gigyaApi.setAccountInfo(any(CDCAccount.class))).thenReturn(mock(GSResponse.class));
+        gigyaService.getAccountInfo(uid);
+
+        // when
+        gigyaService.setAccountInfo(CDCAccount.builder().UID(uid).build());
+        gigyaService.getAccountInfo(uid);
+
+        // then
+        verify(gigyaApi, times(2)).getAccount(uid);
+    }
+
+    @Test
+    public void getAccountInfo_GivenTheAccountWasEvicted_ThenItShouldBeRetrievedFromCDCAgain() throws Exception {
+        // given
+        ReflectionTestUtils.setField(gigyaService, "isNewMarketingConsentEnabled", false);
+        ReflectionTestUtils.setField(gigyaService, "cacheManager", new ConcurrentMapCacheManager(CacheConfig.ACCOUNT_INFO_CACHE));
+        GSResponse gsResponse = Mockito.mock(GSResponse.class);
+        when(gigyaApi.getAccount(anyString())).thenReturn(gsResponse);
+        when(gsResponse.getData()).thenReturn(new GSObject(obj));
+        when(accountBuilder.getAccountInfo(any(GSObject.class))).thenCallRealMethod();
+        gigyaService.getAccountInfo(uid);
+
+        // when
+        gigyaService.evictAccountInfo(uid);
+        gigyaService.getAccountInfo(uid);
+
+        // then
+        verify(gigyaApi, times(2)).getAccount(uid);
+    }
+
+    @Test
+    public void getAccountInfo_GivenAnotherAccountIsEvictedDuringTheLoad_ThenTheAccountShouldStillBeCached() throws Exception {
+        // given
+        ReflectionTestUtils.setField(gigyaService, "isNewMarketingConsentEnabled", false);
+        ReflectionTestUtils.setField(gigyaService, "cacheManager", new ConcurrentMapCacheManager(CacheConfig.ACCOUNT_INFO_CACHE));
+        GSResponse gsResponse = Mockito.mock(GSResponse.class);
+        when(gigyaApi.getAccount(anyString())).thenAnswer(invocation -> {
+            gigyaService.evictAccountInfo("other-uid");
+            return gsResponse;
+        });
+        when(gsResponse.getData()).thenReturn(new GSObject(obj));
+        when(accountBuilder.getAccountInfo(any(GSObject.class))).thenCallRealMethod();
+
+        // when
+        gigyaService.getAccountInfo(uid);
+        gigyaService.getAccountInfo(uid);
+
+        // then
+        verify(gigyaApi, times(1)).getAccount(uid);
+    }
+
+    @Test
+    public void getAccountInfo_GivenTheAccountIsEvictedDuringTheLoad_ThenItShouldNotBeCached() throws Exception {
+        // given
+        ReflectionTestUtils.setField(gigyaService, "isNewMarketingConsentEnabled", false);
+        ReflectionTestUtils.setField(gigyaService, "cacheManager", new ConcurrentMapCacheManager(CacheConfig.ACCOUNT_INFO_CACHE));
+        GSResponse gsResponse = Mockito.mock(GSResponse.class);
+        when(gigyaApi.getAccount(anyString())).thenAnswer(invocation -> {
+            gigyaService.evictAccountInfo(uid);
+            return gsResponse;
+        });
+        when(gsResponse.getData()).thenReturn(new GSObject(obj));
+        when(accountBuilder.getAccountInfo(any(GSObject.class))).thenCallRealMethod();
+
+        // when
+        gigyaService.getAccountInfo(uid);
+        gigyaService.getAccountInfo(uid);
+
+        // then
+        verify(gigyaApi, times(2)).getAccount(uid);
+    }
+
+    @Test
+    public void getAccountInfo_GivenTheAccountIsWrittenWhileALoadIsInFlight_ThenLaterReadsShouldNotJoinIt() throws Exception {
+        // given
+        ReflectionTestUtils.setField(gigyaService, "isNewMarketingConsentEnabled", false);
+        ReflectionTestUtils.setField(gigyaService, "cacheManager", new ConcurrentMapCacheManager(CacheConfig.ACCOUNT_INFO_CACHE));
+        GSResponse gsResponse = Mockito.mock(GSResponse.class);
+        CountDownLatch preWriteLoadStarted = new CountDownLatch(1);
+        CountDownLatch releasePreWriteLoad = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        when(gigyaApi.getAccount(uid)).thenAnswer(invocation -> {
+            if (loads.getAndIncrement() == 0) {
+                preWriteLoadStarted.countDown();
+                releasePreWriteLoad.await(5, TimeUnit.SECONDS);
+            }
+            return gsResponse;
+        });
+        when(gsResponse.getData()).thenReturn(new GSObject(obj));
+        when(accountBuilder.getAccountInfo(any(GSObject.class))).thenCallRealMethod();
+        CompletableFuture<AccountInfo> preWriteRead = CompletableFuture.supplyAsync(() -> {
+            try {
+                return gigyaService.getAccountInfo(uid);
+            } catch (CustomGigyaErrorException e) {
+                throw new CompletionException(e);
+            }
+        });
+        assertTrue(preWriteLoadStarted.await(5, TimeUnit.SECONDS));
+
+        // when
+        gigyaService.evictAccountInfo(uid);
+        AccountInfo postWriteRead = gigyaService.getAccountInfo(uid);
+        releasePreWriteLoad.countDown();
+        preWriteRead.get(5, TimeUnit.SECONDS);
+
+        // then
+        assertNotNull(postWriteRead);
+        verify(gigyaApi, times(2)).getAccount(uid);
+    }
+
+    @Test
+    public void forEachSearchResult_GivenTheSearchReturnsACursor_ThenEveryPageShouldBeReadInOrder() throws Exception {
+        // given
+        String query = "SELECT UID FROM accounts LIMIT 1";
+        GSResponse firstPage = Mockito.mock(GSResponse.class);
+        when(firstPage.getResponseText()).thenReturn("{\"nextCursorId\":\"cursor\",\"results\":[{\"UID\":\"first\"}]}");
+        GSResponse lastPage = Mockito.mock(GSResponse.class);
+        when(lastPage.getResponseText()).thenReturn("{\"results\":[{\"UID\":\"second\"}]}");
+        when(gigyaApi.searchWithCursor(eq(query), isNull(), eq(AccountType.FULL), eq(mainApiDomain))).thenReturn(firstPage);
+        when(gigyaApi.searchWithCursor(eq(query), eq("cursor"), eq(AccountType.FULL), eq(mainApiDomain))).thenReturn(lastPage);
+        List<String> uids = new ArrayList<>();
+
+        // when
+        long resultsRead = gigyaService.forEachSearchResult(query, AccountType.FULL, mainApiDomain, result -> uids.add(result.get("UID").asText()));
+
+        // then
+        assertEquals(2, resultsRead);
+        assertEquals(List.of("first", "second"), uids);
+    }
+
+    @Test
+    public void forEachSearchResult_GivenAPageFails_ThenItShouldThrowCustomGigyaErrorException() {
+        // given
+        GSResponse errorPage = Mockito.mock(GSResponse.class);
+        when(errorPage.getErrorCode()).thenReturn(400006);
+        when(gigyaApi.searchWithCursor(anyString(), any(), any(), any())).thenReturn(errorPage);
+
+        // when / then
+        assertThrows(CustomGigyaErrorException.class, () -> gigyaService.forEachSearchResult("SELECT UID FROM accounts", AccountType.FULL, mainApiDomain, result -> {}));
+    }
 }
@@ -0,0 +1,173 @@
+package com.thermofisher.cdcam.services;
+
+import com.thermofisher.cdcam.model.cdc.CustomGigyaErrorException;
+import com.thermofisher.cdcam.model.cdc.JWTPublicKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class JWTPublicKeyServiceTests {
+    private final Instant now = Instant.parse("2023-10-01T10:00:00Z");
+
+    @InjectMocks
+    JWTPublicKeyService jwtPublicKeyService;
+
+    @Mock
+    GigyaService gigyaService;
+
+    @BeforeEach
+    public void setup() {
+        ReflectionTestUtils.setField(jwtPublicKeyService, "cdcExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(jwtPublicKeyService, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(jwtPublicKeyService, "refreshAhead", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(jwtPublicKeyService, "minForcedRefreshInterval", Duration.ofSeconds(30));
+        setTime(now);
+    }
+
+    private void setTime(Instant instant) {
+        ReflectionTestUtils.setField(jwtPublicKeyService, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    private KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private JWTPublicKey toJWTPublicKey(KeyPair keyPair) {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        return JWTPublicKey.builder()
+                .n(Base64.getEncoder().encodeToString(publicKey.getModulus().toByteArray()))
+                .e(Base64.getEncoder().encodeToString(publicKey.getPublicExponent().toByteArray()))
+                .build();
+    }
+
+    private String signJWT(KeyPair keyPair) throws Exception {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"RS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString("{\"iss\":\"cdc\"}".getBytes(StandardCharsets.UTF_8));
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(keyPair.getPrivate());
+        signature.update(String.join(".", header, payload).getBytes(StandardCharsets.UTF_8));
+        return String.join(".", header, payload, encoder.encodeToString(signature.sign()));
+    }
+
+    @Test
+    public void isValidSignature_GivenSeveralWebhooksSignedWithTheSameKey_ThenTheKeyShouldOnlyBeFetchedOnce() throws Exception {
+        // given
+        KeyPair keyPair = generateKeyPair();
+        when(gigyaService.getJWTPublicKey()).thenReturn(toJWTPublicKey(keyPair));
+        String jwt = signJWT(keyPair);
+
+        // when
+        boolean firstResult = jwtPublicKeyService.isValidSignature(jwt);
+        boolean secondResult = jwtPublicKeyService.isValidSignature(jwt);
+
+        // then
+        assertTrue(firstResult);
+        assertTrue(secondResult);
+        verify(gigyaService, times(1)).getJWTPublicKey();
+    }
+
+    @Test
+    public void isValidSignature_GivenTheCachedKeyExpired_ThenTheKeyShouldBeFetchedAgain() throws Exception {
+        // given
+        KeyPair keyPair = generateKeyPair();
+        when(gigyaService.getJWTPublicKey()).thenReturn(toJWTPublicKey(keyPair));
+        String jwt = signJWT(keyPair);
+        jwtPublicKeyService.isValidSignature(jwt);
+        setTime(now.plus(Duration.ofHours(2)));
+
+        // when
+        jwtPublicKeyService.isValidSignature(jwt);
+
+        // then
+        verify(gigyaService, times(2)).getJWTPublicKey();
+    }
+
+    @Test
+    public void isValidSignature_GivenTheKeyIsAboutToExpire_ThenTheKeyShouldBeRefreshedAhead() throws Exception {
+        // given
+        KeyPair keyPair = generateKeyPair();
+        when(gigyaService.getJWTPublicKey()).thenReturn(toJWTPublicKey(keyPair));
+        String jwt = signJWT(keyPair);
+        jwtPublicKeyService.isValidSignature(jwt);
+        setTime(now.plus(Duration.ofMinutes(57)));
+
+        // when
+        boolean result = jwtPublicKeyService.isValidSignature(jwt);
+
+        // then
+        assertTrue(result);
+        verify(gigyaService, times(2)).getJWTPublicKey();
+    }
+
+    @Test
+    public void isValidSignature_GivenCDCRotatedTheKey_ThenTheKeyShouldBeRefreshedAndTheJWTValidatedAgain() throws Exception {
+        // given
+        KeyPair oldKeyPair = generateKeyPair();
+        KeyPair newKeyPair = generateKeyPair();
+        when(gigyaService.getJWTPublicKey()).thenReturn(toJWTPublicKey(oldKeyPair), toJWTPublicKey(newKeyPair));
+        jwtPublicKeyService.isValidSignature(signJWT(oldKeyPair));
+
+        // when
+        boolean result = jwtPublicKeyService.isValidSignature(signJWT(newKeyPair));
+
+        // then
+        assertTrue(result);
+        verify(gigyaService, times(2)).getJWTPublicKey();
+    }
+
+    @Test
+    public void isValidSignature_GivenSeveralInvalidSignaturesInARow_ThenTheKeyShouldOnlyBeRefreshedOnce() throws Exception {
+        // given
+        KeyPair keyPair = generateKeyPair();
+        String invalidJWT = signJWT(generateKeyPair());
+        when(gigyaService.getJWTPublicKey()).thenReturn(toJWTPublicKey(keyPair));
+
+        // when
+        boolean firstResult = jwtPublicKeyService.isValidSignature(invalidJWT);
+        boolean secondResult = jwtPublicKeyService.isValidSignature(invalidJWT);
+
+        // then
+        assertFalse(firstResult);
+        assertFalse(secondResult);
+        verify(gigyaService, times(2)).getJWTPublicKey();
+    }
+
+    @Test
+    public void isValidSignature_GivenTheKeyCantBeRetrieved_ThenCustomGigyaErrorExceptionShouldBeThrown() throws Exception {
+        // given
+        when(gigyaService.getJWTPublicKey()).thenThrow(new CustomGigyaErrorException(""));
+
+        // then
+        assertThrows(CustomGigyaErrorException.class, () -> jwtPublicKeyService.isValidSignature("header.payload.signature"));
+    }
+}
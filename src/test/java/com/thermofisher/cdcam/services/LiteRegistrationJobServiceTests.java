@@ -0,0 +1,188 @@
+package com.thermofisher.cdcam.services;
+
+import com.thermofisher.cdcam.enums.LiteRegistrationJobStatus;
+import com.thermofisher.cdcam.model.EECUserV3;
+import com.thermofisher.cdcam.model.LiteRegistrationJob;
+import com.thermofisher.cdcam.model.dto.LiteAccountDTO;
+import com.thermofisher.cdcam.utils.cdc.LiteRegistrationService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class LiteRegistrationJobServiceTests {
+    private final List<List<LiteAccountDTO>> registeredChunks = new ArrayList<>();
+
+    @TempDir
+    Path jobsDirectory;
+
+    @InjectMocks
+    LiteRegistrationJobService liteRegistrationJobService;
+
+    @Mock
+    LiteRegistrationService liteRegistrationService;
+
+    @BeforeEach
+    public void setup() {
+        ReflectionTestUtils.setField(liteRegistrationJobService, "jobExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(liteRegistrationJobService, "jobsDirectory", jobsDirectory.toString());
+        ReflectionTestUtils.setField(liteRegistrationJobService, "requestLimit", 5);
+        ReflectionTestUtils.setField(liteRegistrationJobService, "chunkSize", 2);
+
+        doAnswer(invocation -> {
+            List<LiteAccountDTO> chunk = invocation.getArgument(0);
+            Consumer<EECUserV3> onResult = invocation.getArgument(1);
+            registeredChunks.add(new ArrayList<>(chunk));
+            chunk.forEach(account -> onResult.accept(EECUserV3.buildLiteRegisteredUser(account.getEmail() + "-uid", account.getEmail(), "https://redirect/{0}")));
+            return null;
+        }).when(liteRegistrationService).registerLiteAccounts(anyList(), any());
+    }
+
+    private List<LiteAccountDTO> buildAccounts(int count) {
+        List<LiteAccountDTO> accounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            accounts.add(LiteAccountDTO.builder().email(String.format("user%d@test.com", i)).build());
+        }
+        return accounts;
+    }
+
+    @Test
+    public void submit_GivenAValidList_ThenTheJobShouldBeProcessedInChunks() throws IOException {
+        // given
+        List<LiteAccountDTO> accounts = buildAccounts(5);
+
+        // when
+        LiteRegistrationJob submittedJob = liteRegistrationJobService.submit(accounts);
+
+        // then
+        LiteRegistrationJob job = liteRegistrationJobService.getJob(submittedJob.getJobId(), true);
+        assertEquals(LiteRegistrationJobStatus.COMPLETED, job.getStatus());
+        assertEquals(5, job.getProcessedUsers());
+        assertEquals(5, job.getResults().size());
+        assertEquals("user4@test.com", job.getResults().get(4).getEmail());
+        assertEquals(3, registeredChunks.size());
+    }
+
+    @Test
+    public void submit_GivenTheListExceedsTheLimit_ThenItShouldThrowIllegalArgumentException() {
+        // given
+        List<LiteAccountDTO> accounts = buildAccounts(6);
+
+        // when / then
+        Assertions.assertThrows(IllegalArgumentException.class, () -> liteRegistrationJobService.submit(accounts));
+    }
+
+    @Test
+    public void submit_GivenAnEmptyList_ThenItShouldThrowIllegalArgumentException() {
+        // when / then
+        Assertions.assertThrows(IllegalArgumentException.class, () -> liteRegistrationJobService.submit(new ArrayList<>()));
+    }
+
+    @Test
+    public void submit_GivenRegistrationFails_ThenTheJobShouldBeMarkedAsFailed() throws IOException {
+        // given
+        doThrow(new IllegalStateException("CDC unavailable")).when(liteRegistrationService).registerLiteAccounts(anyList(), any());
+
+        // when
+        LiteRegistrationJob submittedJob = liteRegistrationJobService.submit(buildAccounts(3));
+
+        // then
+        LiteRegistrationJob job = liteRegistrationJobService.getJob(submittedJob.getJobId(), false);
+        assertEquals(LiteRegistrationJobStatus.FAILED, job.getStatus());
+        assertEquals("CDC unavailable", job.getError());
+        assertNull(job.getResults());
+    }
+
+    @Test
+    public void getJob_GivenAnUnknownJobId_ThenItShouldReturnNull() throws IOException {
+        // when
+        LiteRegistrationJob job = liteRegistrationJobService.getJob("unknown", true);
+
+        // then
+        assertNull(job);
+    }
+
+    @Test
+    public void resumeJobs_GivenAnUnfinishedJob_ThenItShouldContinueAfterTheSavedResults() throws IOException {
+        // given
+        ReflectionTestUtils.setField(liteRegistrationJobService, "jobExecutor", (Executor) command -> {});
+        LiteRegistrationJob submittedJob = liteRegistrationJobService.submit(buildAccounts(5));
+        Path resultsFile = jobsDirectory.resolve(submittedJob.getJobId()).resolve("results.ndjson");
+        Files.writeString(resultsFile, "{\"email\":\"user0@test.com\",\"responseCode\":200}\n{\"email\":\"user1@test.com\",\"respon", StandardCharsets.UTF_8);
+
+        LiteRegistrationJobService restartedService = new LiteRegistrationJobService();
+        restartedService.liteRegistrationService = liteRegistrationService;
+        restartedService.jobExecutor = Runnable::run;
+        restartedService.jobsDirectory = jobsDirectory.toString();
+        restartedService.chunkSize = 2;
+
+        // when
+        restartedService.resumeJobs();
+
+        // then
+        LiteRegistrationJob job = restartedService.getJob(submittedJob.getJobId(), true);
+        assertEquals(LiteRegistrationJobStatus.COMPLETED, job.getStatus());
+        assertEquals(5, job.getResults().size());
+        assertEquals("user1@test.com", registeredChunks.get(0).get(0).getEmail());
+        verify(liteRegistrationService, times(2)).registerLiteAccounts(anyList(), any());
+    }
+
+    @Test
+    public void removeExpiredJobs_GivenAJobFinishedBeforeTheRetention_ThenItShouldBeDeleted() throws IOException {
+        // given
+        ReflectionTestUtils.setField(liteRegistrationJobService, "retention", Duration.ZERO);
+        LiteRegistrationJob submittedJob = liteRegistrationJobService.submit(buildAccounts(2));
+
+        // when
+        liteRegistrationJobService.removeExpiredJobs();
+
+        // then
+        assertNull(liteRegistrationJobService.getJob(submittedJob.getJobId(), false));
+        assertFalse(Files.exists(jobsDirectory.resolve(submittedJob.getJobId())));
+    }
+
+    @Test
+    public void removeExpiredJobs_GivenAnUnfinishedJob_ThenItShouldBeKept() throws IOException {
+        // given
+        ReflectionTestUtils.setField(liteRegistrationJobService, "retention", Duration.ZERO);
+        ReflectionTestUtils.setField(liteRegistrationJobService, "jobExecutor", (Executor) command -> {});
+        LiteRegistrationJob submittedJob = liteRegistrationJobService.submit(buildAccounts(2));
+
+        // when
+        liteRegistrationJobService.removeExpiredJobs();
+
+        // then
+        assertEquals(LiteRegistrationJobStatus.PENDING, liteRegistrationJobService.getJob(submittedJob.getJobId(), false).getStatus());
+        assertTrue(Files.exists(jobsDirectory.resolve(submittedJob.getJobId())));
+    }
+}
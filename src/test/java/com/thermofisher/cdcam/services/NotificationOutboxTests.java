@@ -0,0 +1,219 @@
+package com.thermofisher.cdcam.services;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.sns.model.MessageAttributeValue;
+import com.thermofisher.cdcam.aws.SNSHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class NotificationOutboxTests {
+
+    @TempDir
+    Path outboxDirectory;
+
+    @InjectMocks
+    NotificationOutbox notificationOutbox;
+
+    @Mock
+    SNSHandler snsHandler;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        ReflectionTestUtils.setField(notificationOutbox, "outboxDirectory", outboxDirectory.toString());
+        ReflectionTestUtils.setField(notificationOutbox, "maxAttempts", 2);
+        ReflectionTestUtils.setField(notificationOutbox, "retryBackoff", Duration.ZERO);
+        ReflectionTestUtils.setField(notificationOutbox, "maxRetryBackoff", Duration.ZERO);
+        ReflectionTestUtils.setField(notificationOutbox, "pollInterval", Duration.ofMillis(10));
+        notificationOutbox.open();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        notificationOutbox.shutdown();
+    }
+
+    private NotificationOutbox reopen() throws IOException {
+        NotificationOutbox restartedOutbox = new NotificationOutbox();
+        restartedOutbox.snsHandler = snsHandler;
+        restartedOutbox.outboxDirectory = outboxDirectory.toString();
+        restartedOutbox.maxAttempts = 2;
+        restartedOutbox.retryBackoff = Duration.ZERO;
+        restartedOutbox.maxRetryBackoff = Duration.ZERO;
+        restartedOutbox.pollInterval = Duration.ofMillis(10);
+        restartedOutbox.open();
+        return restartedOutbox;
+    }
+
+    @Test
+    public void relayPending_GivenAppendedNotifications_ThenTheyShouldBePublishedInOrder() throws IOException {
+        // given
+        MessageAttributeValue attribute = new MessageAttributeValue().withDataType("String").withStringValue("value");
+        notificationOutbox.append("first", "topic", null);
+        notificationOutbox.append("second", "topic", Map.of("attribute", attribute));
+
+        // when
+        int handled = notificationOutbox.relayPending();
+
+        // then
+        assertEquals(2, handled);
+        assertEquals(0, notificationOutbox.getPendingBytes());
+        InOrder inOrder = inOrder(snsHandler);
+        inOrder.verify(snsHandler).publishSynchronously(eq("first"), eq("topic"), isNull());
+        inOrder.verify(snsHandler).publishSynchronously(eq("second"), eq("topic"), eq(Map.of("attribute", attribute)));
+    }
+
+    @Test
+    public void open_GivenNotificationsWerePendingBeforeARestart_ThenTheyShouldBePublishedAfterIt() throws Exception {
+        // given
+        notificationOutbox.append("pending", "topic", null);
+        notificationOutbox.shutdown();
+        Files.write(outboxDirectory.resolve("outbox.log"), new byte[]{0, 0, 0, 100, 1}, StandardOpenOption.APPEND);
+
+        // when
+        NotificationOutbox restartedOutbox = reopen();
+        int handled = restartedOutbox.relayPending();
+        restartedOutbox.shutdown();
+
+        // then
+        assertEquals(1, handled);
+        verify(snsHandler).publishSynchronously(eq("pending"), eq("topic"), isNull());
+    }
+
+    @Test
+    public void relayPending_GivenSNSRejectsTheNotification_ThenItShouldBeMovedToTheDeadLetterFile() throws IOException {
+        // given
+        AmazonServiceException rejected = new AmazonServiceException("Invalid parameter");
+        rejected.setErrorType(AmazonServiceException.ErrorType.Client);
+        doThrow(rejected).when(snsHandler).publishSynchronously(eq("invalid"), anyString(), any());
+        notificationOutbox.append("invalid", "topic", null);
+        notificationOutbox.append("valid", "topic", null);
+
+        // when
+        int handled = notificationOutbox.relayPending();
+
+        // then
+        assertEquals(2, handled);
+        assertTrue(Files.readString(outboxDirectory.resolve("outbox.dead.ndjson")).contains("invalid"));
+        verify(snsHandler).publishSynchronously(eq("valid"), eq("topic"), isNull());
+        verify(snsHandler, never()).publishSynchronously(anyString(), anyString(), anyMap());
+    }
+
+    @Test
+    public void relayPending_GivenTheLogIsDrained_ThenItShouldBeCompactedAndTheCheckpointReset() throws IOException {
+        // given
+        notificationOutbox.append("first", "topic", null);
+
+        // when
+        notificationOutbox.relayPending();
+
+        // then
+        assertEquals(0, Files.size(outboxDirectory.resolve("outbox.log")));
+        assertEquals("0", Files.readString(outboxDirectory.resolve("outbox.checkpoint")));
+    }
+
+    @Test
+    public void open_GivenTheCheckpointIsPastTheEndOfTheLog_ThenNewNotificationsShouldStillBePublished() throws Exception {
+        // given
+        notificationOutbox.shutdown();
+        Files.writeString(outboxDirectory.resolve("outbox.checkpoint"), "1000");
+
+        // when
+        NotificationOutbox restartedOutbox = reopen();
+        restartedOutbox.append("next", "topic", null);
+        int handled = restartedOutbox.relayPending();
+        restartedOutbox.shutdown();
+
+        // then
+        assertEquals(1, handled);
+        verify(snsHandler).publishSynchronously(eq("next"), eq("topic"), isNull());
+    }
+
+    @Test
+    public void relayPending_GivenARecordThatCannotBeDecoded_ThenItShouldBeMovedToTheDeadLetterFileAndSkipped() throws Exception {
+        // given
+        notificationOutbox.shutdown();
+        Files.write(outboxDirectory.resolve("outbox.log"), new byte[]{0, 0, 0, 3, 'b', 'a', 'd'}, StandardOpenOption.APPEND);
+        NotificationOutbox restartedOutbox = reopen();
+        restartedOutbox.append("valid", "topic", null);
+
+        // when
+        int handled = restartedOutbox.relayPending();
+        restartedOutbox.shutdown();
+
+        // then
+        assertEquals(2, handled);
+        assertTrue(Files.readString(outboxDirectory.resolve("outbox.dead.ndjson")).contains("\"undecodable\":\"bad\""));
+        verify(snsHandler).publishSynchronously(eq("valid"), eq("topic"), isNull());
+    }
+
+    @Test
+    public void init_GivenATemporaryDirectory_ThenItShouldFail() {
+        // given
+        NotificationOutbox temporaryOutbox = new NotificationOutbox();
+        temporaryOutbox.outboxDirectory = outboxDirectory.resolve("temporary").toString();
+
+        // when / then
+        assertThrows(IllegalStateException.class, temporaryOutbox::init);
+    }
+
+    @Test
+    public void init_GivenNoDirectory_ThenItShouldFail() {
+        // given
+        NotificationOutbox outboxWithoutDirectory = new NotificationOutbox();
+        outboxWithoutDirectory.outboxDirectory = "";
+
+        // when / then
+        assertThrows(IllegalStateException.class, outboxWithoutDirectory::init);
+    }
+
+    @Test
+    public void relayPending_GivenTheLogWasTruncatedButTheCheckpointNotReset_ThenNothingShouldBePublishedAgain() throws Exception {
+        // given
+        notificationOutbox.append("delivered", "topic", null);
+        notificationOutbox.shutdown();
+        long drainedOffset = Files.size(outboxDirectory.resolve("outbox.log"));
+        Files.write(outboxDirectory.resolve("outbox.log"), new byte[0], StandardOpenOption.TRUNCATE_EXISTING);
+        Files.writeString(outboxDirectory.resolve("outbox.checkpoint"), String.valueOf(drainedOffset));
+
+        // when
+        NotificationOutbox restartedOutbox = reopen();
+        int handled = restartedOutbox.relayPending();
+        restartedOutbox.shutdown();
+
+        // then
+        assertEquals(0, handled);
+        verify(snsHandler, never()).publishSynchronously(anyString(), anyString(), any());
+    }
+}
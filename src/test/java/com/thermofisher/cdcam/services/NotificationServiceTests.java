@@ -41,6 +41,9 @@ public class NotificationServiceTests {
     @Mock
     SNSHandler snsHandler;
 
+    @Mock
+    NotificationOutbox notificationOutbox;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
@@ -60,6 +63,21 @@ public class NotificationServiceTests {
         verify(snsHandler).sendNotification(anyString(), anyString());
     }
 
+    @Test
+    public void sendAccountRegisteredNotification_GivenTheOutboxAcceptsTheNotification_ThenItShouldNotBePublishedDirectly() throws JsonProcessingException {
+        // given
+        ReflectionTestUtils.setField(notificationService, "registrationSNSTopic", "registrationSNS");
+        AccountInfo accountInfo = AccountUtils.getSiteAccount();
+        when(notificationOutbox.append(anyString(), eq("registrationSNS"), isNull())).thenReturn(true);
+
+        // when
+        notificationService.sendAccountRegisteredNotification(accountInfo, AccountUtils.cipdc);
+
+        // then
+        verify(notificationOutbox).append(anyString(), eq("registrationSNS"), isNull());
+        verify(snsHandler, never()).sendNotification(anyString(), anyString());
+    }
+
     @Test
     public void sendAccountRegisteredNotification_GivenAccountIsNull_ThenThrowNullPointerException() throws JsonProcessingException {
         Assertions.assertThrows(NullPointerException.class, () -> {
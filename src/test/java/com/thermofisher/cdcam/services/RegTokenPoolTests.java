@@ -0,0 +1,123 @@
+package com.thermofisher.cdcam.services;
+
+import com.gigya.socialize.GSObject;
+import com.gigya.socialize.GSResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class RegTokenPoolTests {
+    private final Instant now = Instant.parse("2023-10-01T10:00:00Z");
+
+    @InjectMocks
+    RegTokenPool regTokenPool;
+
+    @Mock
+    GigyaApi gigyaApi;
+
+    @BeforeEach
+    public void setup() {
+        ReflectionTestUtils.setField(regTokenPool, "cdcExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(regTokenPool, "targetSize", 3);
+        ReflectionTestUtils.setField(regTokenPool, "refillThreshold", 1);
+        ReflectionTestUtils.setField(regTokenPool, "tokenTtl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(regTokenPool, "expiryMargin", Duration.ofMinutes(10));
+        setTime(now);
+    }
+
+    private void setTime(Instant instant) {
+        ReflectionTestUtils.setField(regTokenPool, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    private GSResponse buildInitRegistrationResponse(String regToken) {
+        GSResponse response = Mockito.mock(GSResponse.class);
+        GSObject data = new GSObject();
+        data.put("regToken", regToken);
+        when(response.getData()).thenReturn(data);
+        return response;
+    }
+
+    @Test
+    public void take_GivenThePoolIsEmpty_ThenItShouldReturnNull_AndRefillThePool() {
+        // given
+        GSResponse response = buildInitRegistrationResponse("regToken");
+        when(gigyaApi.initLiteRegistration()).thenReturn(response);
+
+        // when
+        String regToken = regTokenPool.take();
+
+        // then
+        assertNull(regToken);
+        assertEquals(3, regTokenPool.getSize());
+        verify(gigyaApi, times(3)).initLiteRegistration();
+    }
+
+    @Test
+    public void take_GivenThePoolHasTokens_ThenItShouldReturnAPooledToken() {
+        // given
+        GSResponse response = buildInitRegistrationResponse("regToken");
+        when(gigyaApi.initLiteRegistration()).thenReturn(response);
+        regTokenPool.take();
+
+        // when
+        String regToken = regTokenPool.take();
+
+        // then
+        assertEquals("regToken", regToken);
+        assertEquals(2, regTokenPool.getSize());
+    }
+
+    @Test
+    public void take_GivenThePooledTokensAreAboutToExpire_ThenTheyShouldBeDiscarded() {
+        // given
+        GSResponse response = buildInitRegistrationResponse("regToken");
+        when(gigyaApi.initLiteRegistration()).thenReturn(response);
+        regTokenPool.take();
+        setTime(now.plus(Duration.ofMinutes(55)));
+
+        // when
+        String regToken = regTokenPool.take();
+
+        // then
+        assertNull(regToken);
+        assertNotNull(regTokenPool.take());
+    }
+
+    @Test
+    public void take_GivenInitRegistrationFails_ThenThePoolShouldStayEmpty() {
+        // given
+        GSResponse response = Mockito.mock(GSResponse.class);
+        when(response.getErrorCode()).thenReturn(500001);
+        when(gigyaApi.initLiteRegistration()).thenReturn(response);
+
+        // when
+        String regToken = regTokenPool.take();
+
+        // then
+        assertNull(regToken);
+        assertEquals(0, regTokenPool.getSize());
+        verify(gigyaApi, times(1)).initLiteRegistration();
+    }
+}
@@ -0,0 +1,91 @@
+package com.thermofisher.cdcam.services;
+
+import com.gigya.socialize.GSKeyNotFoundException;
+import com.thermofisher.cdcam.model.cdc.CustomGigyaErrorException;
+import com.thermofisher.cdcam.model.cdc.OpenIdRelyingParty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class RelyingPartyServiceTests {
+    private final String clientId = "clientId";
+
+    @Mock
+    GigyaService gigyaService;
+
+    RelyingPartyService relyingPartyService;
+
+    @BeforeEach
+    public void setup() {
+        relyingPartyService = new RelyingPartyService(gigyaService, Runnable::run, Duration.ofMinutes(5), Duration.ofHours(1), 10);
+    }
+
+    private OpenIdRelyingParty buildRP() {
+        return OpenIdRelyingParty.builder()
+                .clientId(clientId)
+                .description("description")
+                .redirectUris(List.of("https://www.Example.com/callback", "https://www.example2.com"))
+                .build();
+    }
+
+    @Test
+    public void getRP_GivenTheRPWasAlreadyRequested_ThenCDCShouldNotBeCalledAgain() throws Exception {
+        // given
+        when(gigyaService.getRP(clientId)).thenReturn(buildRP());
+
+        // when
+        relyingPartyService.getRP(clientId);
+        relyingPartyService.getRP(clientId);
+
+        // then
+        verify(gigyaService, times(1)).getRP(clientId);
+    }
+
+    @Test
+    public void getRP_GivenCDCReturnsAnError_ThenCustomGigyaErrorExceptionShouldBeThrown() throws Exception {
+        // given
+        when(gigyaService.getRP(clientId)).thenThrow(new CustomGigyaErrorException("404000"));
+
+        // then
+        assertThrows(CustomGigyaErrorException.class, () -> relyingPartyService.getRP(clientId));
+    }
+
+    @Test
+    public void getRP_GivenTheRPDataIsIncomplete_ThenGSKeyNotFoundExceptionShouldBeThrown() throws Exception {
+        // given
+        when(gigyaService.getRP(clientId)).thenThrow(new GSKeyNotFoundException("redirectUris"));
+
+        // then
+        assertThrows(GSKeyNotFoundException.class, () -> relyingPartyService.getRP(clientId));
+    }
+
+    @Test
+    public void isRedirectUriAllowed_ShouldMatchRedirectUrisIgnoringCase() throws Exception {
+        // given
+        when(gigyaService.getRP(clientId)).thenReturn(buildRP());
+
+        // when
+        OpenIdRelyingParty openIdRelyingParty = relyingPartyService.getRP(clientId);
+
+        // then
+        assertTrue(openIdRelyingParty.isRedirectUriAllowed("https://www.example.com/CALLBACK"));
+        assertFalse(openIdRelyingParty.isRedirectUriAllowed("https://www.example3.com"));
+        assertFalse(openIdRelyingParty.isRedirectUriAllowed(null));
+    }
+}
@@ -1,6 +1,7 @@
 package com.thermofisher.cdcam.services;
 
 import com.thermofisher.cdcam.aws.SecretsManager;
+import com.thermofisher.cdcam.aws.SecretsManager.SecretVersion;
 import org.json.JSONException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,9 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -50,5 +54,54 @@ public class SecretsServiceTests {
         // then
         assertEquals(secret, result);
     }
-}
 
+    @Test
+    public void refresh_GivenANewSecretVersion_ThenTheListenersShouldBeNotified() throws Exception {
+        // given
+        AtomicInteger notifications = new AtomicInteger();
+        ReflectionTestUtils.setField(secretsService, "refreshInterval", Duration.ZERO);
+        when(secretsManager.getSecretVersion(any())).thenReturn(new SecretVersion("v1", "{\"x\":\"x\"}"));
+        secretsService.setup();
+        secretsService.addListener(notifications::incrementAndGet);
+        when(secretsManager.getSecretVersion(any())).thenReturn(new SecretVersion("v2", "{\"x\":\"y\"}"));
+
+        // when
+        secretsService.refresh();
+
+        // then
+        assertEquals("v2", secretsService.getVersion());
+        assertEquals(1, notifications.get());
+    }
+
+    @Test
+    public void refresh_GivenTheSameSecretVersion_ThenTheListenersShouldNotBeNotified() throws Exception {
+        // given
+        AtomicInteger notifications = new AtomicInteger();
+        ReflectionTestUtils.setField(secretsService, "refreshInterval", Duration.ZERO);
+        when(secretsManager.getSecretVersion(any())).thenReturn(new SecretVersion("v1", "{\"x\":\"x\"}"));
+        secretsService.setup();
+        secretsService.addListener(notifications::incrementAndGet);
+
+        // when
+        secretsService.refresh();
+
+        // then
+        assertEquals("v1", secretsService.getVersion());
+        assertEquals(0, notifications.get());
+    }
+
+    @Test
+    public void refresh_GivenSecretsManagerFails_ThenTheCurrentVersionShouldBeKept() throws Exception {
+        // given
+        ReflectionTestUtils.setField(secretsService, "refreshInterval", Duration.ZERO);
+        when(secretsManager.getSecretVersion(any())).thenReturn(new SecretVersion("v1", "{\"x\":\"x\"}"));
+        secretsService.setup();
+        when(secretsManager.getSecretVersion(any())).thenThrow(new RuntimeException("Throttled"));
+
+        // when
+        secretsService.refresh();
+
+        // then
+        assertEquals("v1", secretsService.getVersion());
+    }
+}
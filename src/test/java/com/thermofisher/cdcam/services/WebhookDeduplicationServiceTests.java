@@ -0,0 +1,124 @@
+package com.thermofisher.cdcam.services;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WebhookDeduplicationServiceTests {
+
+    @TempDir
+    Path stateDirectory;
+
+    WebhookDeduplicationService webhookDeduplicationService;
+
+    @AfterEach
+    public void tearDown() {
+        webhookDeduplicationService.shutdown();
+    }
+
+    private WebhookDeduplicationService buildService(Duration ttl, String persistenceFile) throws IOException {
+        WebhookDeduplicationService service = new WebhookDeduplicationService();
+        service.isEnabled = true;
+        service.ttl = ttl;
+        service.maxSize = 100;
+        service.persistenceFile = persistenceFile;
+        service.compactionInterval = Duration.ofHours(1);
+        service.init();
+        return service;
+    }
+
+    private JSONObject buildEvent(String id, String uid) {
+        return new JSONObject(String.format("{\"id\": \"%s\", \"type\": \"accountRegistered\", \"timestamp\": 1700000000, \"data\": {\"uid\": \"%s\"}}", id, uid));
+    }
+
+    @Test
+    public void isDuplicate_GivenTheSameEventIsDeliveredTwice_ThenOnlyTheSecondDeliveryShouldBeADuplicate() throws IOException {
+        // given
+        webhookDeduplicationService = buildService(Duration.ofHours(1), "");
+
+        // when
+        boolean firstDelivery = webhookDeduplicationService.isDuplicate(buildEvent("event-1", "uid-1"));
+        boolean secondDelivery = webhookDeduplicationService.isDuplicate(buildEvent("event-1", "uid-1"));
+        boolean otherEvent = webhookDeduplicationService.isDuplicate(buildEvent("event-2", "uid-1"));
+
+        // then
+        assertFalse(firstDelivery);
+        assertTrue(secondDelivery);
+        assertFalse(otherEvent);
+    }
+
+    @Test
+    public void isDuplicate_GivenAnEventWithoutId_ThenItShouldBeKeyedByTypeUidAndTimestamp() throws IOException {
+        // given
+        webhookDeduplicationService = buildService(Duration.ofHours(1), "");
+        JSONObject event = new JSONObject("{\"type\": \"accountMerged\", \"timestamp\": 1700000000, \"data\": {\"newUid\": \"uid-1\"}}");
+
+        // when
+        webhookDeduplicationService.isDuplicate(event);
+
+        // then
+        assertEquals("accountMerged:uid-1:1700000000", WebhookDeduplicationService.getEventKey(event));
+        assertTrue(webhookDeduplicationService.isDuplicate(new JSONObject(event.toString())));
+    }
+
+    @Test
+    public void isDuplicate_GivenTheServiceWasRestarted_ThenPersistedEventsShouldStillBeDuplicates() throws IOException {
+        // given
+        String persistenceFile = stateDirectory.resolve("webhooks.seen").toString();
+        webhookDeduplicationService = buildService(Duration.ofHours(1), persistenceFile);
+        webhookDeduplicationService.isDuplicate(buildEvent("event-1", "uid-1"));
+        webhookDeduplicationService.shutdown();
+
+        // when
+        webhookDeduplicationService = buildService(Duration.ofHours(1), persistenceFile);
+
+        // then
+        assertEquals(1, webhookDeduplicationService.getSeenEvents());
+        assertTrue(webhookDeduplicationService.isDuplicate(buildEvent("event-1", "uid-1")));
+    }
+
+    @Test
+    public void isDuplicate_GivenDeduplicationIsDisabled_ThenNoEventShouldBeADuplicate() throws IOException {
+        // given
+        webhookDeduplicationService = buildService(Duration.ofHours(1), "");
+        webhookDeduplicationService.isEnabled = false;
+
+        // when
+        webhookDeduplicationService.isDuplicate(buildEvent("event-1", "uid-1"));
+
+        // then
+        assertFalse(webhookDeduplicationService.isDuplicate(buildEvent("event-1", "uid-1")));
+    }
+
+    @Test
+    public void compactPersistenceFile_GivenExpiredEvents_ThenOnlyTheEventsStillRememberedShouldBeKept() throws Exception {
+        // given
+        Path persistenceFile = stateDirectory.resolve("webhooks.seen");
+        webhookDeduplicationService = buildService(Duration.ofMillis(200), persistenceFile.toString());
+        webhookDeduplicationService.isDuplicate(buildEvent("expired", "uid-1"));
+        Thread.sleep(400);
+        webhookDeduplicationService.isDuplicate(buildEvent("recent", "uid-2"));
+
+        // when
+        webhookDeduplicationService.compactPersistenceFile();
+        webhookDeduplicationService.isDuplicate(buildEvent("after-compaction", "uid-3"));
+
+        // then
+        List<String> lines = Files.readAllLines(persistenceFile, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("recent\t"));
+        assertTrue(lines.get(1).startsWith("after-compaction\t"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.thermofisher.cdcam.services;
+
+import com.thermofisher.cdcam.config.AsyncConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class WebhookEventCoalescerTests {
+    private final List<String> handledEvents = new ArrayList<>();
+
+    @InjectMocks
+    WebhookEventCoalescer webhookEventCoalescer;
+
+    @Mock
+    ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    public void setup() {
+        ReflectionTestUtils.setField(webhookEventCoalescer, "isEnabled", true);
+        ReflectionTestUtils.setField(webhookEventCoalescer, "window", Duration.ofSeconds(2));
+    }
+
+    @Test
+    public void submit_GivenABurstOfEventsForTheSameUid_ThenOnlyTheLatestShouldBeHandled() {
+        // given
+        webhookEventCoalescer.submit("accountUpdated", "uid", () -> handledEvents.add("first"));
+        webhookEventCoalescer.submit("accountUpdated", "uid", () -> handledEvents.add("second"));
+        webhookEventCoalescer.submit("accountUpdated", "uid", () -> handledEvents.add("third"));
+
+        // when
+        webhookEventCoalescer.flush();
+
+        // then
+        assertEquals(List.of("third"), handledEvents);
+        assertEquals(0, webhookEventCoalescer.getPendingEvents());
+        verify(scheduler, times(1)).schedule(any(Runnable.class), eq(2000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void submit_GivenEventsOfDifferentTypesOrUids_ThenEachShouldBeHandled() {
+        // given
+        webhookEventCoalescer.submit("accountUpdated", "uid", () -> handledEvents.add("updated"));
+        webhookEventCoalescer.submit("accountMerged", "uid", () -> handledEvents.add("merged"));
+        webhookEventCoalescer.submit("accountUpdated", "other uid", () -> handledEvents.add("other updated"));
+
+        // when
+        webhookEventCoalescer.flush();
+
+        // then
+        assertEquals(3, handledEvents.size());
+        verify(scheduler, times(3)).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void submit_GivenCoalescingIsDisabled_ThenTheEventShouldBeHandledRightAway() {
+        // given
+        ReflectionTestUtils.setField(webhookEventCoalescer, "isEnabled", false);
+
+        // when
+        webhookEventCoalescer.submit("accountUpdated", "uid", () -> handledEvents.add("updated"));
+
+        // then
+        assertEquals(List.of("updated"), handledEvents);
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void shutdown_GivenPendingEvents_ThenTheyShouldBeHandledAndLaterEventsHandledRightAway() {
+        // given
+        webhookEventCoalescer.submit("accountUpdated", "uid", () -> handledEvents.add("pending"));
+
+        // when
+        webhookEventCoalescer.shutdown();
+        webhookEventCoalescer.submit("accountUpdated", "uid", () -> handledEvents.add("late"));
+
+        // then
+        assertEquals(List.of("pending", "late"), handledEvents);
+        assertEquals(0, webhookEventCoalescer.getPendingEvents());
+        verify(scheduler).shutdownNow();
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void shutdown_ThenItShouldRunBeforeTheWebhookExecutorIsDestroyed() {
+        // when
+        DependsOn dependsOn = WebhookEventCoalescer.class.getAnnotation(DependsOn.class);
+
+        // then
+        assertArrayEquals(new String[]{AsyncConfig.WEBHOOK_EXECUTOR}, dependsOn.value());
+    }
+
+    @Test
+    public void submit_GivenTheSchedulerWasShutDownConcurrently_ThenTheEventShouldBeHandledRightAway() {
+        // given
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any())).thenThrow(new RejectedExecutionException("shut down"));
+
+        // when
+        webhookEventCoalescer.submit("accountUpdated", "uid", () -> handledEvents.add("updated"));
+
+        // then
+        assertEquals(List.of("updated"), handledEvents);
+        assertEquals(0, webhookEventCoalescer.getPendingEvents());
+    }
+}
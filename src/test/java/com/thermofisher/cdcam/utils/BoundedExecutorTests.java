@@ -0,0 +1,41 @@
+package com.thermofisher.cdcam.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedExecutorTests {
+
+    @Test
+    public void execute_GivenTheTaskIsInterruptedWhileWaitingForAPermit_ThenItShouldStillRun() throws Exception {
+        // given
+        ExecutorService delegate = Executors.newVirtualThreadPerTaskExecutor();
+        BoundedExecutor boundedExecutor = new BoundedExecutor(delegate, 1);
+        CountDownLatch firstTaskStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> {
+            firstTaskStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, boundedExecutor);
+        assertTrue(firstTaskStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> waitingTask = CompletableFuture.supplyAsync(() -> "done", boundedExecutor);
+
+        // when
+        delegate.shutdownNow();
+
+        // then
+        assertEquals("done", waitingTask.get(5, TimeUnit.SECONDS));
+        assertEquals(0, boundedExecutor.getQueuedCount());
+    }
+}
@@ -0,0 +1,39 @@
+package com.thermofisher.cdcam.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class MdcTaskDecoratorTests {
+    private static final String REQUEST_ID = "X-Request-ID";
+
+    @AfterEach
+    public void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    public void decorate_GivenARequestIdInTheSubmittingThread_ThenTheWorkerShouldSeeItAndRestoreItsOwnContextAfterwards() throws Exception {
+        // given
+        MDC.put(REQUEST_ID, "request-1");
+        AtomicReference<String> seenRequestId = new AtomicReference<>();
+        AtomicReference<String> requestIdAfterTask = new AtomicReference<>("not checked");
+        Runnable decorated = new MdcTaskDecorator().decorate(() -> seenRequestId.set(MDC.get(REQUEST_ID)));
+
+        // when
+        Thread worker = Thread.ofVirtual().start(() -> {
+            decorated.run();
+            requestIdAfterTask.set(MDC.get(REQUEST_ID));
+        });
+        worker.join();
+
+        // then
+        assertEquals("request-1", seenRequestId.get());
+        assertNull(requestIdAfterTask.get());
+    }
+}
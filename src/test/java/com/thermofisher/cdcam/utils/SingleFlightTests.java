@@ -0,0 +1,80 @@
+package com.thermofisher.cdcam.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTests {
+
+    @Test
+    public void execute_GivenConcurrentCallsForTheSameKey_ThenTheCallShouldOnlyBeExecutedOnce() throws Exception {
+        // given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // when
+            Future<String> leader = executor.submit(() -> singleFlight.execute("uid", () -> {
+                executions.incrementAndGet();
+                leaderStarted.countDown();
+                release.await();
+                return "account";
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> singleFlight.execute("uid", () -> {
+                executions.incrementAndGet();
+                return "other account";
+            }));
+            while (singleFlight.getCoalescedCalls() == 0) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // then
+            assertEquals("account", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("account", follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void execute_GivenSequentialCallsForTheSameKey_ThenEachCallShouldBeExecuted() throws Exception {
+        // given
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        // when
+        singleFlight.execute("uid", executions::incrementAndGet);
+        int result = singleFlight.execute("uid", executions::incrementAndGet);
+
+        // then
+        assertEquals(2, result);
+        assertEquals(0, singleFlight.getCoalescedCalls());
+    }
+
+    @Test
+    public void execute_GivenTheCallFails_ThenTheExceptionShouldBeThrown() {
+        // given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        // then
+        assertThrows(IOException.class, () -> singleFlight.execute("uid", () -> {
+            throw new IOException("CDC unavailable");
+        }));
+    }
+}